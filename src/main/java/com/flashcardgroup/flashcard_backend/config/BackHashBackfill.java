@@ -0,0 +1,77 @@
+package com.flashcardgroup.flashcard_backend.config;
+
+import com.flashcardgroup.flashcard_backend.model.Flashcard;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * One-off backfill of flashcards.back_hash for rows written before the column existed, one deck per
+ * transaction. Cards whose normalized back already exists in their deck keep a NULL hash, since the
+ * unique (deckid, back_hash) index would reject them; they are logged so they can be merged by hand.
+ * Only NULL rows are touched, so re-running it is harmless.
+ */
+@Component
+@ConditionalOnProperty(name = "app.backfill.back-hash.enabled", havingValue = "true", matchIfMissing = true)
+public class BackHashBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(BackHashBackfill.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public BackHashBackfill(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        List<Integer> deckIds = jdbcTemplate.queryForList(
+                "SELECT DISTINCT deckid FROM flashcards WHERE back_hash IS NULL", Integer.class);
+        int updated = 0;
+        int duplicates = 0;
+        for (Integer deckId : deckIds) {
+            int[] counts = transactionTemplate.execute(status -> backfillDeck(deckId));
+            updated += counts[0];
+            duplicates += counts[1];
+        }
+        if (updated > 0 || duplicates > 0) {
+            log.info("Backfilled back_hash for {} flashcards; {} duplicate backs left without a hash", updated, duplicates);
+        }
+    }
+
+    private int[] backfillDeck(int deckId) {
+        Set<String> hashes = new HashSet<>(jdbcTemplate.queryForList(
+                "SELECT back_hash FROM flashcards WHERE deckid = ? AND back_hash IS NOT NULL", String.class, deckId));
+        List<Object[]> updates = new ArrayList<>();
+        int[] duplicates = {0};
+        jdbcTemplate.query(
+                "SELECT cardid, back FROM flashcards WHERE deckid = ? AND back_hash IS NULL ORDER BY cardid",
+                rs -> {
+                    String hash = Flashcard.hashBack(rs.getString("back"));
+                    if (hashes.add(hash)) {
+                        updates.add(new Object[]{hash, rs.getInt("cardid")});
+                    } else {
+                        duplicates[0]++;
+                        log.warn("Flashcard {} in deck {} duplicates an existing back; leaving back_hash empty",
+                                rs.getInt("cardid"), deckId);
+                    }
+                },
+                deckId);
+        if (!updates.isEmpty()) {
+            jdbcTemplate.batchUpdate("UPDATE flashcards SET back_hash = ? WHERE cardid = ?", updates);
+        }
+        return new int[]{updates.size(), duplicates[0]};
+    }
+}
@@ -0,0 +1,63 @@
+package com.flashcardgroup.flashcard_backend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartException;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+import org.springframework.web.multipart.support.StandardServletMultipartResolver;
+import org.springframework.web.util.UrlPathHelper;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.List;
+
+/**
+ * The servlet container parses uploads up to the card import's limits, the largest any endpoint
+ * takes. Every other endpoint is held to the regular multipart limits here: a declared
+ * Content-Length over max-request-size is refused before anything is read, and a chunked upload
+ * once its parts are known. A negative limit means unlimited, as for spring.servlet.multipart.
+ */
+public class ImportMultipartResolver extends StandardServletMultipartResolver {
+
+    private static final PathPattern IMPORT = PathPatternParser.defaultInstance.parse("/decks/{deckId}/import");
+
+    private final long maxFileSize;
+    private final long maxRequestSize;
+
+    public ImportMultipartResolver(long maxFileSize, long maxRequestSize) {
+        this.maxFileSize = maxFileSize;
+        this.maxRequestSize = maxRequestSize;
+    }
+
+    @Override
+    public MultipartHttpServletRequest resolveMultipart(HttpServletRequest request) throws MultipartException {
+        if (IMPORT.matches(PathContainer.parsePath(UrlPathHelper.defaultInstance.getPathWithinApplication(request)))) {
+            return super.resolveMultipart(request);
+        }
+        if (exceeds(request.getContentLengthLong(), maxRequestSize)) {
+            throw new MaxUploadSizeExceededException(maxRequestSize);
+        }
+        MultipartHttpServletRequest multipart = super.resolveMultipart(request);
+        long total = 0;
+        for (List<MultipartFile> files : multipart.getMultiFileMap().values()) {
+            for (MultipartFile file : files) {
+                if (exceeds(file.getSize(), maxFileSize)) {
+                    cleanupMultipart(multipart);
+                    throw new MaxUploadSizeExceededException(maxFileSize);
+                }
+                total += file.getSize();
+            }
+        }
+        if (exceeds(total, maxRequestSize)) {
+            cleanupMultipart(multipart);
+            throw new MaxUploadSizeExceededException(maxRequestSize);
+        }
+        return multipart;
+    }
+
+    private static boolean exceeds(long size, long limit) {
+        return limit >= 0 && size > limit;
+    }
+}
@@ -0,0 +1,51 @@
+package com.flashcardgroup.flashcard_backend.config;
+
+import jakarta.servlet.MultipartConfigElement;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.web.servlet.MultipartProperties;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartResolver;
+import org.springframework.web.servlet.DispatcherServlet;
+
+/**
+ * Upload limits per endpoint. spring.servlet.multipart.max-file-size / max-request-size stay the
+ * limits for every endpoint; only the card import takes app.import.max-file-size / max-request-size.
+ * The container gets the larger of the two, and ImportMultipartResolver holds the rest to the former.
+ */
+@Configuration
+public class MultipartLimitsConfig {
+
+    @Bean
+    public MultipartConfigElement multipartConfigElement(
+            MultipartProperties properties,
+            @Value("${app.import.max-file-size:100MB}") DataSize importMaxFileSize,
+            @Value("${app.import.max-request-size:100MB}") DataSize importMaxRequestSize
+    ) {
+        MultipartConfigFactory factory = new MultipartConfigFactory();
+        factory.setLocation(properties.getLocation());
+        factory.setFileSizeThreshold(properties.getFileSizeThreshold());
+        factory.setMaxFileSize(larger(properties.getMaxFileSize(), importMaxFileSize));
+        factory.setMaxRequestSize(larger(properties.getMaxRequestSize(), importMaxRequestSize));
+        return factory.createMultipartConfig();
+    }
+
+    @Bean(name = DispatcherServlet.MULTIPART_RESOLVER_BEAN_NAME)
+    public MultipartResolver multipartResolver(MultipartProperties properties) {
+        ImportMultipartResolver resolver = new ImportMultipartResolver(
+                properties.getMaxFileSize().toBytes(), properties.getMaxRequestSize().toBytes());
+        resolver.setResolveLazily(properties.isResolveLazily());
+        resolver.setStrictServletCompliance(properties.isStrictServletCompliance());
+        return resolver;
+    }
+
+    // Negative sizes mean unlimited
+    private static DataSize larger(DataSize a, DataSize b) {
+        if (a.isNegative() || b.isNegative()) {
+            return DataSize.ofBytes(-1);
+        }
+        return a.compareTo(b) >= 0 ? a : b;
+    }
+}
@@ -0,0 +1,35 @@
+package com.flashcardgroup.flashcard_backend.config;
+
+import com.flashcardgroup.flashcard_backend.service.DataService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * One-off backfill of flashcards.next_review_at for rows written before the column existed.
+ * The update only touches rows where the column is still NULL, so re-running it is harmless;
+ * disable it with app.backfill.next-review-at.enabled=false once every environment is migrated.
+ */
+@Component
+@ConditionalOnProperty(name = "app.backfill.next-review-at.enabled", havingValue = "true", matchIfMissing = true)
+public class NextReviewAtBackfill implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(NextReviewAtBackfill.class);
+
+    private final DataService dataService;
+
+    public NextReviewAtBackfill(DataService dataService) {
+        this.dataService = dataService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int updated = dataService.backfillNextReviewAt();
+        if (updated > 0) {
+            log.info("Backfilled next_review_at for {} flashcards", updated);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.flashcardgroup.flashcard_backend.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Target of the lazy routing proxy: connections fetched inside a transaction Spring has marked
+ * read-only come from the replicas, all others from the primary. JpaTransactionManager never calls
+ * Connection.setReadOnly when Hibernate releases connections after each transaction, so this is
+ * what sends JPA reads to the replicas; the flag is already set by the first statement, which is
+ * when the lazy proxy asks for a physical connection.
+ */
+public class ReadOnlyTransactionDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replicas;
+
+    public ReadOnlyTransactionDataSource(DataSource primary, DataSource replicas) {
+        this.primary = primary;
+        this.replicas = replicas;
+    }
+
+    private DataSource target() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? replicas : primary;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return target().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return target().getConnection(username, password);
+    }
+}
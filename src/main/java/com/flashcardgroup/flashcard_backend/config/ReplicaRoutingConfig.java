@@ -0,0 +1,113 @@
+package com.flashcardgroup.flashcard_backend.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write split. The application DataSource is a LazyConnectionDataSourceProxy: a physical
+ * connection is only fetched on the first statement, by which point Spring has marked
+ * @Transactional(readOnly = true) work as read-only, and ReadOnlyTransactionDataSource then takes
+ * it from the replica pools instead of the primary. Each replica is its own Hikari pool configured
+ * under app.datasource.replicas[n] with any Hikari property; unset ones are inherited from the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    private static final String REPLICAS_PREFIX = "app.datasource.replicas";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public ReplicaDataSource replicaDataSource(
+            HikariDataSource primaryDataSource,
+            Environment environment,
+            ObjectProvider<MeterRegistry> meterRegistry
+    ) {
+        Binder binder = Binder.get(environment);
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; ; i++) {
+            String prefix = REPLICAS_PREFIX + "[" + i + "]";
+            String url = binder.bind(prefix + ".jdbc-url", String.class).orElse(null);
+            if (url == null || url.isBlank()) {
+                break;
+            }
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName("replica-" + i);
+            config.setReadOnly(true);
+            binder.bind(prefix, Bindable.ofInstance(config));
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            if (registry != null && config.getMetricsTrackerFactory() == null && config.getMetricRegistry() == null) {
+                config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+            }
+            replicas.add(new HikariDataSource(config));
+        }
+        if (replicas.isEmpty()) {
+            throw new IllegalStateException("app.datasource.routing.enabled is set but no " + REPLICAS_PREFIX + "[0].jdbc-url is configured");
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(
+                new ReadOnlyTransactionDataSource(primaryDataSource, replicaDataSource));
+        // Plain JDBC transactions mark the connection itself read-only
+        proxy.setReadOnlyDataSource(replicaDataSource);
+        return proxy;
+    }
+
+    // Hibernate would otherwise hold the first connection for the whole (open-in-view) session,
+    // so every later transaction in the request would reuse whichever pool the first one chose.
+    // In this mode Spring no longer marks JPA connections read-only, hence the routing by transaction.
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionsAfterTransaction() {
+        return properties -> properties.put(
+                "hibernate.connection.handling_mode", "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+
+    @Bean
+    public WebMvcConfigurer readYourWritesConfigurer(
+            @Value("${app.datasource.read-your-writes-window:0s}") Duration window,
+            @Value("${app.datasource.read-your-writes-max-users:100000}") long maxUsers
+    ) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                if (!window.isZero()) {
+                    registry.addInterceptor(new ReadYourWrites(window, maxUsers));
+                }
+            }
+        };
+    }
+}
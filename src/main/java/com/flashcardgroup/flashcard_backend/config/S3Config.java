@@ -6,9 +6,12 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
 import software.amazon.awssdk.regions.Region;
 import software.amazon.awssdk.services.s3.S3Client;
 
+import java.time.Duration;
+
 @Configuration
 @Profile("!test")
 @ConditionalOnProperty(name = "aws.s3.enabled", havingValue = "true", matchIfMissing = true)
@@ -17,6 +20,15 @@ public class S3Config {
     @Value("${aws.s3.region}")
     private String region;
 
+    @Value("${app.bulkhead.s3.max-concurrent:20}")
+    private int maxConcurrentCalls;
+
+    @Value("${app.bulkhead.s3-downloads.max-concurrent:20}")
+    private int maxOpenDownloads;
+
+    @Value("${aws.s3.connection-acquisition-timeout:2s}")
+    private Duration connectionAcquisitionTimeout;
+
     @Bean
     public S3Client s3Client() {
         if (region == null || region.isEmpty()) {
@@ -28,6 +40,11 @@ public class S3Config {
         return S3Client.builder()
                 .region(Region.of(region))
                 .credentialsProvider(DefaultCredentialsProvider.create())
+                // A connection for every slot the s3 and s3-downloads bulkheads hand out, so a full
+                // pool never makes uploads and HEADs wait; callers beyond that get the bulkheads' 503
+                .httpClientBuilder(ApacheHttpClient.builder()
+                        .maxConnections(maxConcurrentCalls + maxOpenDownloads)
+                        .connectionAcquisitionTimeout(connectionAcquisitionTimeout))
                 .build();
     }
 }
@@ -1,25 +1,53 @@
 package com.flashcardgroup.flashcard_backend.controllers;
 
+import com.flashcardgroup.flashcard_backend.dto.CardImportProgressDTO;
+import com.flashcardgroup.flashcard_backend.dto.CardImportResultDTO;
+import com.flashcardgroup.flashcard_backend.dto.CardsPageDTO;
 import com.flashcardgroup.flashcard_backend.dto.DeckDTO;
+import com.flashcardgroup.flashcard_backend.dto.DueCardsPageDTO;
 import com.flashcardgroup.flashcard_backend.dto.FlashcardDTO;
 import com.flashcardgroup.flashcard_backend.dto.FlashcardForm;
-import com.flashcardgroup.flashcard_backend.model.Flashcard;
+import com.flashcardgroup.flashcard_backend.dto.ReviewOutcomeDTO;
+import com.flashcardgroup.flashcard_backend.dto.ReviewSubmissionDTO;
+import com.flashcardgroup.flashcard_backend.dto.SchedulingSettingsDTO;
+import com.flashcardgroup.flashcard_backend.exception.BulkheadFullException;
 import com.flashcardgroup.flashcard_backend.model.Deck;
+import com.flashcardgroup.flashcard_backend.model.Flashcard;
 import com.flashcardgroup.flashcard_backend.model.User;
+import com.flashcardgroup.flashcard_backend.repo.FlashcardProjectionRepository;
+import com.flashcardgroup.flashcard_backend.resilience.Bulkhead;
+import com.flashcardgroup.flashcard_backend.scheduling.SchedulingAlgorithmType;
+import com.flashcardgroup.flashcard_backend.service.CardImportService;
 import com.flashcardgroup.flashcard_backend.service.DataService;
+import com.flashcardgroup.flashcard_backend.service.DeckExportService;
 import com.flashcardgroup.flashcard_backend.service.ImageStorageService;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,22 +59,37 @@ public class FlashcardController {
 
     private static final Logger log = LoggerFactory.getLogger(FlashcardController.class);
 
+    private static final int MAX_DUE_PAGE_SIZE = 200;
+    private static final int MAX_REVIEW_BATCH_SIZE = 1000;
+    private static final int MAX_CARDS_PAGE_SIZE = 500;
+
     private final DataService dataService;
     private final ImageStorageService imageStorageService;
     private final ObjectMapper objectMapper;
+    private final DeckExportService deckExportService;
+    private final CardImportService cardImportService;
+    private final Duration exportTimeout;
 
-    public FlashcardController(DataService dataService, ImageStorageService imageStorageService, ObjectMapper objectMapper) {
+    public FlashcardController(DataService dataService, ImageStorageService imageStorageService, ObjectMapper objectMapper,
+                               DeckExportService deckExportService, CardImportService cardImportService,
+                               @Value("${app.export.request-timeout:10m}") Duration exportTimeout) {
         this.dataService = dataService;
         this.imageStorageService = imageStorageService;
         this.objectMapper = objectMapper;
+        this.deckExportService = deckExportService;
+        this.cardImportService = cardImportService;
+        this.exportTimeout = exportTimeout;
     }
 
     @PostMapping(value = "/flashcards", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<?> addFlashcard(@ModelAttribute FlashcardForm form) {
         try {
-            if (dataService.checkIfFlashcardExistsByBackAndDeckId(form.Back(), form.DeckID())) {
-                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                        .body("Flashcard with the same back already exists in this deck.");
+            MultipartFile image = form.image();
+            // The unique (deckid, back_hash) index rejects duplicates on insert; only check up front
+            // when there is an image, so a duplicate doesn't leave an orphaned upload behind
+            if (image != null && !image.isEmpty()
+                    && dataService.checkIfFlashcardExistsByBackAndDeckId(form.Back(), form.DeckID())) {
+                return duplicateBackResponse();
             }
 
             var card = new Flashcard();
@@ -77,7 +120,6 @@ public class FlashcardController {
             }
 
             // If an image file was provided, upload to S3 and attach key
-            MultipartFile image = form.image();
             log.info("addFlashcard: received image? {} name={} contentType={}",
                     image != null && !image.isEmpty(),
                     image != null ? image.getOriginalFilename() : null,
@@ -95,6 +137,15 @@ public class FlashcardController {
 
             dataService.addFlashcard(card);
             return ResponseEntity.status(HttpStatus.CREATED).body("Flashcard added successfully.");
+        } catch (DataIntegrityViolationException e) {
+            if (DataService.isDuplicateBack(e)) {
+                return duplicateBackResponse();
+            }
+            // Any other constraint (missing deck, null column, ...) is not the client's duplicate
+            throw e;
+        } catch (BulkheadFullException e) {
+            // Image storage is saturated; let the global handler answer 503
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Error adding flashcard: " + e.getMessage());
@@ -102,6 +153,11 @@ public class FlashcardController {
     }
 
 
+    private static ResponseEntity<String> duplicateBackResponse() {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body("Flashcard with the same back already exists in this deck.");
+    }
+
     @GetMapping("/reviewable-cards/{deckId}")
     public ResponseEntity<?> getReviewableCards(@PathVariable Integer deckId) {
         try {
@@ -116,41 +172,247 @@ public class FlashcardController {
         }
     }
 
+    @GetMapping("/due-cards")
+    public ResponseEntity<?> getDueCards(
+            Authentication auth,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false, defaultValue = "50") int limit
+    ) {
+        if (limit < 1 || limit > MAX_DUE_PAGE_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("limit must be between 1 and " + MAX_DUE_PAGE_SIZE + ".");
+        }
+
+        // Cursor is "<nextReviewAt>:<cardId>" of the last card on the previous page
+        long afterDue = Long.MIN_VALUE;
+        int afterId = 0;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] parts = cursor.split(":");
+            try {
+                if (parts.length != 2) {
+                    throw new NumberFormatException(cursor);
+                }
+                afterDue = Long.parseLong(parts[0]);
+                afterId = Integer.parseInt(parts[1]);
+            } catch (NumberFormatException e) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid cursor.");
+            }
+        }
+
+        try {
+            Long userId = (Long) auth.getPrincipal();
+            List<Flashcard> cards = dataService.getDueCardsForUser(userId.intValue(), afterDue, afterId, limit);
+            List<FlashcardDTO> dtos = cards.stream()
+                    .map(FlashcardDTO::fromEntity)
+                    .collect(Collectors.toList());
+
+            String nextCursor = null;
+            if (cards.size() == limit) {
+                Flashcard last = cards.get(cards.size() - 1);
+                nextCursor = last.getNextReviewAt() + ":" + last.getCardId();
+            }
+            return ResponseEntity.ok(new DueCardsPageDTO(dtos, nextCursor));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving due cards: " + e.getMessage());
+        }
+    }
+
     @PostMapping("/update-card")
     public ResponseEntity<?> updateCard(@RequestBody Map<String, Object> payload) {
         try {
-            Long cardId = Long.valueOf(payload.get("CardID").toString());
-            Boolean remembered = (Boolean) payload.get("Remembered");
+            if (payload.get("CardID") == null || !(payload.get("Remembered") instanceof Boolean remembered)) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("CardID and Remembered are required.");
+            }
+            Integer cardId = Integer.valueOf(payload.get("CardID").toString());
 
-            Optional<Flashcard> optionalCard = dataService.getFlashcardById(cardId);
-            if (optionalCard.isEmpty()) {
+            // Stage clamp, last reviewed and next review are applied by one UPDATE; 0 rows means no such card
+            if (!dataService.recordReview(cardId, remembered)) {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Flashcard not found.");
             }
 
-            Flashcard card = optionalCard.get();
+            return ResponseEntity.ok("Flashcard updated successfully.");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error updating flashcard: " + e.getMessage());
+        }
+    }
 
-            // Update logic based on whether the card was remembered
-            if (remembered) {
-                card.setStage(Math.min(card.getStage() + 1, 6)); // Assuming 6 is the maximum stage
-            } else {
-                card.setStage(Math.max(card.getStage() - 1, 1)); // Minimum stage is 1
-            }
+    @PostMapping("/update-cards")
+    public ResponseEntity<?> updateCards(@RequestBody List<ReviewSubmissionDTO> reviews) {
+        if (reviews == null || reviews.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("No reviews submitted.");
+        }
+        if (reviews.size() > MAX_REVIEW_BATCH_SIZE) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("At most " + MAX_REVIEW_BATCH_SIZE + " reviews can be submitted at once.");
+        }
+        try {
+            List<ReviewOutcomeDTO> outcomes = dataService.applyReviews(reviews);
+            return ResponseEntity.ok(outcomes);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error updating flashcards: " + e.getMessage());
+        }
+    }
 
-            // Update last reviewed time
-            card.setLastReviewed(System.currentTimeMillis() / 1000);
+    @PutMapping("/decks/{deckId}/scheduling")
+    public ResponseEntity<?> updateDeckScheduling(
+            Authentication auth,
+            @PathVariable Integer deckId,
+            @RequestBody SchedulingSettingsDTO settings
+    ) {
+        SchedulingAlgorithmType type;
+        try {
+            type = SchedulingAlgorithmType.valueOf(String.valueOf(settings.Algorithm()).toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Algorithm must be one of LEITNER, SM2, FSRS.");
+        }
+        Double retention = settings.DesiredRetention();
+        if (retention != null && (retention < 0.7 || retention > 0.97)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("DesiredRetention must be between 0.7 and 0.97.");
+        }
 
-            // Save the updated flashcard
-            dataService.addFlashcard(card);
+        try {
+            Long userId = (Long) auth.getPrincipal();
+            if (!dataService.changeDeckScheduling(deckId, userId.intValue(), type, retention)) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Deck not found.");
+            }
+            // Cards are rescheduled in the background
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body("Deck scheduling updated; cards are being rescheduled.");
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error updating deck scheduling: " + e.getMessage());
+        }
+    }
 
-            return ResponseEntity.ok("Flashcard updated successfully.");
+    @PostMapping(value = "/decks/{deckId}/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> importCards(
+            Authentication auth,
+            @PathVariable Integer deckId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "format", required = false) String format
+    ) {
+        if (file == null || file.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("No file uploaded.");
+        }
+        CardImportService.Format importFormat = importFormat(format, file.getOriginalFilename());
+        if (importFormat == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("format must be csv, ndjson or anki.");
+        }
+
+        try {
+            Long userId = (Long) auth.getPrincipal();
+            Optional<Deck> deck = dataService.isDeckOwnedBy(deckId, userId.intValue())
+                    ? dataService.getDeckById(deckId)
+                    : Optional.empty();
+            if (deck.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Deck not found.");
+            }
+            try (var in = file.getInputStream()) {
+                return ResponseEntity.ok(cardImportService.importCards(deck.get(), importFormat, in));
+            }
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Invalid import file: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body("Error updating flashcard: " + e.getMessage());
+                    .body("Error importing cards: " + e.getMessage());
         }
     }
 
+    /**
+     * Same import for clients that accept application/x-ndjson: one CardImportProgressDTO line is
+     * streamed after every committed batch, so a large upload shows progress while it loads.
+     */
+    @PostMapping(value = "/decks/{deckId}/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE,
+            produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> importCardsWithProgress(
+            Authentication auth,
+            @PathVariable Integer deckId,
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "format", required = false) String format
+    ) {
+        if (file == null || file.isEmpty()) {
+            return textResponse(HttpStatus.BAD_REQUEST, "No file uploaded.");
+        }
+        CardImportService.Format importFormat = importFormat(format, file.getOriginalFilename());
+        if (importFormat == null) {
+            return textResponse(HttpStatus.BAD_REQUEST, "format must be csv, ndjson or anki.");
+        }
+        Long userId = (Long) auth.getPrincipal();
+        Optional<Deck> deck = dataService.isDeckOwnedBy(deckId, userId.intValue())
+                ? dataService.getDeckById(deckId)
+                : Optional.empty();
+        if (deck.isEmpty()) {
+            return textResponse(HttpStatus.NOT_FOUND, "Deck not found.");
+        }
+
+        // The upload stays available until the async request completes
+        StreamingResponseBody body = out -> {
+            CardImportResultDTO[] totals = {new CardImportResultDTO(0, 0, 0)};
+            try (var in = file.getInputStream()) {
+                cardImportService.importCards(deck.get(), importFormat, in, progress -> {
+                    totals[0] = progress;
+                    writeProgressLine(out, CardImportProgressDTO.of(progress, false));
+                });
+                writeProgressLine(out, CardImportProgressDTO.of(totals[0], true));
+            } catch (IllegalArgumentException e) {
+                writeProgressLine(out, CardImportProgressDTO.failed(totals[0], "Invalid import file: " + e.getMessage()));
+            } catch (Exception e) {
+                // Anything else still ends the stream with a terminal line, so it never reads as a success
+                log.error("Import into deck {} failed", deckId, e);
+                writeProgressLine(out, CardImportProgressDTO.failed(totals[0], "Error importing cards: " + e.getMessage()));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    private void writeProgressLine(OutputStream out, CardImportProgressDTO line) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(line));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Explicit format wins; otherwise guess from the file extension
+    private static CardImportService.Format importFormat(String format, String filename) {
+        String name = format;
+        if (name == null || name.isBlank()) {
+            String lower = filename == null ? "" : filename.toLowerCase(Locale.ROOT);
+            if (lower.endsWith(".csv")) return CardImportService.Format.CSV;
+            if (lower.endsWith(".ndjson") || lower.endsWith(".jsonl")) return CardImportService.Format.NDJSON;
+            if (lower.endsWith(".txt") || lower.endsWith(".tsv")) return CardImportService.Format.ANKI;
+            return null;
+        }
+        try {
+            return CardImportService.Format.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Without parameters returns every card of the deck. fields=Front,Back,... limits each card to
+     * those FlashcardDTO fields; limit=N (with after=<cardId> from the previous page's NextCursor)
+     * returns a CardsPageDTO instead of a plain list.
+     */
     @GetMapping("/all-cards/{deckId}")
-    public ResponseEntity<?> getAllCards(@PathVariable Integer deckId) {
+    public ResponseEntity<?> getAllCards(
+            @PathVariable Integer deckId,
+            @RequestParam(value = "after", required = false) Integer after,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "fields", required = false) String fields
+    ) {
+        if (after != null || limit != null || fields != null) {
+            return getCardsPage(deckId, after, limit, fields);
+        }
         try {
             List<Flashcard> cards = dataService.getAllCards(deckId);
             List<FlashcardDTO> dtos = cards.stream()
@@ -163,14 +425,95 @@ public class FlashcardController {
         }
     }
 
+    private ResponseEntity<?> getCardsPage(Integer deckId, Integer after, Integer limit, String fields) {
+        if (limit != null && (limit < 1 || limit > MAX_CARDS_PAGE_SIZE)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("limit must be between 1 and " + MAX_CARDS_PAGE_SIZE + ".");
+        }
+
+        Set<String> selected = new LinkedHashSet<>();
+        if (fields == null || fields.isBlank()) {
+            selected.addAll(FlashcardProjectionRepository.PROJECTABLE_FIELDS);
+        } else {
+            for (String field : fields.split(",")) {
+                String name = field.trim();
+                Optional<String> known = FlashcardProjectionRepository.PROJECTABLE_FIELDS.stream()
+                        .filter(f -> f.equalsIgnoreCase(name))
+                        .findFirst();
+                if (known.isEmpty()) {
+                    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Unknown field: " + name);
+                }
+                selected.add(known.get());
+            }
+        }
+
+        try {
+            List<Map<String, Object>> cards = dataService.getCardsPage(deckId, selected, after != null ? after : 0, limit);
+            if (limit == null) {
+                return ResponseEntity.ok(cards);
+            }
+            String nextCursor = cards.size() == limit
+                    ? String.valueOf(cards.get(cards.size() - 1).get("CardID"))
+                    : null;
+            return ResponseEntity.ok(new CardsPageDTO(cards, nextCursor));
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Error retrieving all cards: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/decks/{deckId}/export")
+    public ResponseEntity<StreamingResponseBody> exportDeck(
+            Authentication auth,
+            @PathVariable Integer deckId,
+            @RequestParam(value = "format", required = false, defaultValue = "ndjson") String format,
+            NativeWebRequest webRequest
+    ) {
+        DeckExportService.Format exportFormat;
+        try {
+            exportFormat = DeckExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return textResponse(HttpStatus.BAD_REQUEST, "format must be ndjson or csv.");
+        }
+
+        Long userId = (Long) auth.getPrincipal();
+        if (!dataService.isDeckOwnedBy(deckId, userId.intValue())) {
+            return textResponse(HttpStatus.NOT_FOUND, "Deck not found.");
+        }
+
+        // Taken before the response starts, so a full export bulkhead is still a clean 503
+        Bulkhead.Permit permit = deckExportService.reserve();
+        // Only exports get the long async timeout; the handler is given the AsyncWebRequest that is about to start
+        if (webRequest instanceof AsyncWebRequest asyncRequest) {
+            asyncRequest.setTimeout(exportTimeout.toMillis());
+        }
+
+        // Headers are committed before the first card is read; the body streams from the DB cursor
+        StreamingResponseBody body = out -> {
+            try (permit) {
+                deckExportService.export(deckId, exportFormat, out);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("deck-" + deckId + "." + exportFormat.extension())
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
+    private static ResponseEntity<StreamingResponseBody> textResponse(HttpStatus status, String message) {
+        return ResponseEntity.status(status)
+                .contentType(MediaType.TEXT_PLAIN)
+                .body(out -> out.write(message.getBytes(StandardCharsets.UTF_8)));
+    }
+
     @GetMapping("/user-decks")
     public ResponseEntity<?> getUserDecks(Authentication auth) {
         try {
             Long userId = (Long) auth.getPrincipal();
-            List<Deck> decks = dataService.getDecksByUserId(userId.intValue());
-            List<DeckDTO> dtos = decks.stream()
-                    .map(DeckDTO::fromEntity)
-                    .collect(Collectors.toList());
+            List<DeckDTO> dtos = dataService.getDeckSummariesByUserId(userId.intValue());
             return ResponseEntity.ok(dtos);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
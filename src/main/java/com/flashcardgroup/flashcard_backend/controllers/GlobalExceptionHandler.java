@@ -1,9 +1,15 @@
 package com.flashcardgroup.flashcard_backend.controllers;
 
+import com.flashcardgroup.flashcard_backend.exception.BulkheadFullException;
+import com.flashcardgroup.flashcard_backend.exception.CircuitOpenException;
+import com.flashcardgroup.flashcard_backend.exception.DeadlineExceededException;
 import com.flashcardgroup.flashcard_backend.exception.ImageTooLargeException;
 import com.flashcardgroup.flashcard_backend.exception.UnsupportedImageTypeException;
 import com.flashcardgroup.flashcard_backend.exception.ImageUploadException;
 import com.flashcardgroup.flashcard_backend.exception.ImageNotFoundException;
+import com.flashcardgroup.flashcard_backend.exception.ImageNotModifiedException;
+import com.flashcardgroup.flashcard_backend.exception.ImageRangeNotSatisfiableException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -35,6 +41,51 @@ public class GlobalExceptionHandler {
         return error(HttpStatus.NOT_FOUND, "Image not found");
     }
 
+    @ExceptionHandler(ImageRangeNotSatisfiableException.class)
+    public ResponseEntity<Map<String, String>> handleRangeNotSatisfiable(ImageRangeNotSatisfiableException ex) {
+        Map<String, String> body = new HashMap<>();
+        body.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                .header(HttpHeaders.CONTENT_RANGE, "bytes */" + ex.getImageLength())
+                .body(body);
+    }
+
+    @ExceptionHandler(ImageNotModifiedException.class)
+    public ResponseEntity<Void> handleNotModified(ImageNotModifiedException ex) {
+        ResponseEntity.HeadersBuilder<?> response = ResponseEntity.status(HttpStatus.NOT_MODIFIED);
+        if (ex.getETag() != null) {
+            response.eTag(ex.getETag());
+        }
+        if (ex.getLastModified() != null) {
+            response.lastModified(ex.getLastModified());
+        }
+        return response.build();
+    }
+
+    @ExceptionHandler(BulkheadFullException.class)
+    public ResponseEntity<Map<String, String>> handleBulkheadFull(BulkheadFullException ex) {
+        Map<String, String> body = new HashMap<>();
+        body.put("error", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(body);
+    }
+
+    @ExceptionHandler(CircuitOpenException.class)
+    public ResponseEntity<Map<String, String>> handleCircuitOpen(CircuitOpenException ex) {
+        Map<String, String> body = new HashMap<>();
+        body.put("error", ex.getMessage());
+        long retryAfterSeconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(body);
+    }
+
+    @ExceptionHandler(DeadlineExceededException.class)
+    public ResponseEntity<Map<String, String>> handleDeadlineExceeded(DeadlineExceededException ex) {
+        return error(HttpStatus.GATEWAY_TIMEOUT, ex.getMessage());
+    }
+
     private ResponseEntity<Map<String, String>> error(HttpStatus status, String message) {
         Map<String, String> body = new HashMap<>();
         body.put("error", message);
@@ -1,9 +1,18 @@
 package com.flashcardgroup.flashcard_backend.controllers;
 
 import com.flashcardgroup.flashcard_backend.service.ImageStorageService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 
 @RestController
 @CrossOrigin
@@ -16,13 +25,88 @@ public class ImageController {
     }
 
     @GetMapping("/images/{*imageId}")
-    public ResponseEntity<byte[]> getImage(@PathVariable String imageId) {
-        // Strip leading slash if present (Spring captures it in the path variable)
-        String key = imageId.startsWith("/") ? imageId.substring(1) : imageId;
-        var data = imageStorageService.getImage(key);
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(data.contentType()))
-                .contentLength(data.contentLength())
-                .body(data.bytes());
+    public ResponseEntity<StreamingResponseBody> getImage(
+            @PathVariable String imageId,
+            @RequestHeader(value = HttpHeaders.RANGE, required = false) String range,
+            @RequestHeader(value = HttpHeaders.IF_RANGE, required = false) String ifRange,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.IF_MODIFIED_SINCE, required = false) String ifModifiedSince
+    ) {
+        // Conditions go to S3, which answers 304 without a body (ImageNotModifiedException). If-Modified-Since
+        // only counts without If-None-Match
+        ImageStorageService.ImageContent image = imageStorageService.openImage(toKey(imageId), singleRange(range, ifRange),
+                ifNoneMatch, ifNoneMatch == null ? httpDate(ifModifiedSince) : null);
+        try {
+            // Headers are committed first, then the body is copied from S3 through a fixed-size buffer,
+            // so a download costs the same memory however large the image is
+            StreamingResponseBody body = out -> {
+                try (image) {
+                    image.content().transferTo(out);
+                }
+            };
+            ResponseEntity.BodyBuilder response = image.contentRange() != null
+                    ? ResponseEntity.status(HttpStatus.PARTIAL_CONTENT).header(HttpHeaders.CONTENT_RANGE, image.contentRange())
+                    : ResponseEntity.ok();
+            return imageHeaders(response, image.contentType(), image.contentLength(), image.eTag(), image.lastModified())
+                    .body(body);
+        } catch (RuntimeException e) {
+            try {
+                image.close();
+            } catch (RuntimeException closeFailure) {
+                e.addSuppressed(closeFailure);
+            }
+            throw e;
+        }
+    }
+
+    @RequestMapping(value = "/images/{*imageId}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> headImage(@PathVariable String imageId) {
+        ImageStorageService.ImageMetadata metadata = imageStorageService.getImageMetadata(toKey(imageId));
+        return imageHeaders(ResponseEntity.ok(), metadata.contentType(), metadata.contentLength(), metadata.eTag(), metadata.lastModified())
+                .build();
+    }
+
+    // Strip leading slash if present (Spring captures it in the path variable)
+    private static String toKey(String imageId) {
+        return imageId.startsWith("/") ? imageId.substring(1) : imageId;
+    }
+
+    // S3 serves one range per request. Multiple or malformed ranges, and conditional ones (If-Range),
+    // get the whole image instead, which a server is always allowed to answer with
+    private static String singleRange(String range, String ifRange) {
+        if (range == null || ifRange != null) {
+            return null;
+        }
+        try {
+            return HttpRange.parseRanges(range).size() == 1 ? range.strip() : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // An unparseable date is ignored, as if the header were absent
+    private static Instant httpDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static ResponseEntity.BodyBuilder imageHeaders(ResponseEntity.BodyBuilder response, String contentType,
+                                                           long contentLength, String eTag, Instant lastModified) {
+        response.contentType(MediaType.parseMediaType(contentType))
+                .contentLength(contentLength)
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (eTag != null) {
+            response.eTag(eTag);
+        }
+        if (lastModified != null) {
+            response.lastModified(lastModified);
+        }
+        return response;
     }
 }
@@ -1,9 +1,16 @@
 package com.flashcardgroup.flashcard_backend.controllers;
 
+import com.flashcardgroup.flashcard_backend.dto.LookupBatchRequestDTO;
 import com.flashcardgroup.flashcard_backend.dto.LookupDTO;
-import com.flashcardgroup.flashcard_backend.service.GeminiService;
+import com.flashcardgroup.flashcard_backend.service.LookupService;
+import com.flashcardgroup.flashcard_backend.service.LookupStreamListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.util.Collections;
@@ -14,10 +21,15 @@ import java.util.Map;
 @CrossOrigin
 public class LookupController {
 
-    private final GeminiService geminiService;
+    private static final Logger logger = LoggerFactory.getLogger(LookupController.class);
 
-    public LookupController(GeminiService geminiService) {
-        this.geminiService = geminiService;
+    private static final int MAX_BATCH_WORDS = 200;
+    private static final long STREAM_TIMEOUT_MS = 120_000;
+
+    private final LookupService lookupService;
+
+    public LookupController(LookupService lookupService) {
+        this.lookupService = lookupService;
     }
 
     /**
@@ -27,10 +39,11 @@ public class LookupController {
      * @param word the word to look up (path variable)
      * @param responseLang optional language code for the meaning/etymology response (default: "en")
      * @param translateTo optional list of language codes to translate the word to (order preserved)
-     * @return ResponseEntity containing LookupDTO with word information
+     * @return ResponseEntity containing LookupDTO with word information, 502 if Gemini's answer was unusable,
+     *         503 while Gemini is unavailable and 504 if it did not answer in time
      */
     @GetMapping("/lookup/{word}")
-    public ResponseEntity<LookupDTO> lookupWord(
+    public ResponseEntity<?> lookupWord(
             @PathVariable String word,
             @RequestParam(value = "responseLanguage", required = false) String responseLang,
             @RequestParam(value = "translationLanguages", required = false) List<String> translateTo
@@ -38,23 +51,86 @@ public class LookupController {
         try {
             String respLang = (responseLang == null || responseLang.isBlank()) ? "en" : responseLang;
             List<String> targets = (translateTo == null) ? Collections.emptyList() : translateTo;
-            LookupDTO result = geminiService.lookup(word, respLang, targets);
+            LookupDTO result = lookupService.lookup(word, respLang, targets);
             return ResponseEntity.ok(result);
         } catch (IOException e) {
-            // Return empty DTO in case of error
-            return ResponseEntity.status(500).body(
-                new LookupDTO(
-                         "Error: " + e.getMessage(),
-                         word,
-                         "",
-                         "",
-                         "",
-                         "",
-                         "",
-                         "",
-                         Map.of()
-                 )
-            );
+            // Gemini answered but not with a usable card; unavailability and timeouts go to GlobalExceptionHandler
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body("Error looking up word: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Server-Sent Events variant of /lookup/{word}. Each field is sent as its own event (named after the
+     * field, e.g. "Front", "Example", "Synonyms") as soon as the model has produced it, each translation as a
+     * "Translation" event holding {lang: value}, and finally a "result" event with the complete LookupDTO.
+     * Failures are reported as an "error" event.
+     */
+    @GetMapping(value = "/lookup/{word}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter lookupWordStream(
+            @PathVariable String word,
+            @RequestParam(value = "responseLanguage", required = false) String responseLang,
+            @RequestParam(value = "translationLanguages", required = false) List<String> translateTo
+    ) {
+        String respLang = (responseLang == null || responseLang.isBlank()) ? "en" : responseLang;
+        List<String> targets = (translateTo == null) ? Collections.emptyList() : translateTo;
+        SseEmitter emitter = new SseEmitter(STREAM_TIMEOUT_MS);
+
+        Thread.ofVirtual().name("lookup-stream").start(() -> {
+            try {
+                LookupDTO result = lookupService.lookupStream(word, respLang, targets, new LookupStreamListener() {
+                    @Override
+                    public void onField(String field, String value) throws IOException {
+                        emitter.send(SseEmitter.event().name(field).data(value));
+                    }
+
+                    @Override
+                    public void onTranslation(String language, String value) throws IOException {
+                        emitter.send(SseEmitter.event().name("Translation").data(Map.of(language, value)));
+                    }
+                });
+                emitter.send(SseEmitter.event().name("result").data(result));
+                emitter.complete();
+            } catch (Exception e) {
+                logger.warn("Streaming lookup of '{}' failed: {}", word, e.getMessage());
+                try {
+                    emitter.send(SseEmitter.event().name("error").data("Error: " + e.getMessage()));
+                    emitter.complete();
+                } catch (Exception sendFailed) {
+                    // The client is gone
+                    emitter.completeWithError(e);
+                }
+            }
+        });
+        return emitter;
+    }
+
+    /**
+     * Looks up a list of words in one request, e.g. every unknown word of a reading passage.
+     * Words are sent to the model several at a time instead of one call per word.
+     *
+     * @param request the words plus optional ResponseLanguage (default: "en") and TranslationLanguages
+     * @return ResponseEntity containing a LookupBatchDTO; words that could not be looked up are listed in Failed
+     */
+    @PostMapping("/lookup/batch")
+    public ResponseEntity<?> lookupBatch(@RequestBody LookupBatchRequestDTO request) {
+        List<String> words = request.Words() == null ? List.of() : request.Words().stream()
+                .filter(w -> w != null && !w.isBlank())
+                .distinct()
+                .toList();
+        if (words.isEmpty()) {
+            return ResponseEntity.badRequest().body("Words must contain at least one word.");
+        }
+        if (words.size() > MAX_BATCH_WORDS) {
+            return ResponseEntity.badRequest().body("At most " + MAX_BATCH_WORDS + " words can be looked up at once.");
+        }
+        String respLang = (request.ResponseLanguage() == null || request.ResponseLanguage().isBlank())
+                ? "en" : request.ResponseLanguage();
+        List<String> targets = (request.TranslationLanguages() == null)
+                ? Collections.emptyList() : request.TranslationLanguages();
+        try {
+            return ResponseEntity.ok(lookupService.lookupBatch(words, respLang, targets));
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body("Error looking up words: " + e.getMessage());
         }
     }
 }
@@ -0,0 +1,25 @@
+package com.flashcardgroup.flashcard_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * One line of a streamed import: running totals after a committed batch. The last line has
+ * Done=true, and carries Error when the import stopped early (cards before it stay imported).
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CardImportProgressDTO(
+        @JsonProperty("Imported") int Imported,
+        @JsonProperty("Duplicates") int Duplicates,
+        @JsonProperty("Invalid") int Invalid,
+        @JsonProperty("Done") boolean Done,
+        @JsonProperty("Error") String Error
+) {
+    public static CardImportProgressDTO of(CardImportResultDTO totals, boolean done) {
+        return new CardImportProgressDTO(totals.Imported(), totals.Duplicates(), totals.Invalid(), done, null);
+    }
+
+    public static CardImportProgressDTO failed(CardImportResultDTO totals, String error) {
+        return new CardImportProgressDTO(totals.Imported(), totals.Duplicates(), totals.Invalid(), true, error);
+    }
+}
@@ -0,0 +1,9 @@
+package com.flashcardgroup.flashcard_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public record CardImportResultDTO(
+        @JsonProperty("Imported") int Imported,
+        @JsonProperty("Duplicates") int Duplicates,
+        @JsonProperty("Invalid") int Invalid
+) {}
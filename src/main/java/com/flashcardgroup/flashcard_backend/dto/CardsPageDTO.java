@@ -0,0 +1,16 @@
+package com.flashcardgroup.flashcard_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of a deck's cards in cardId order, each holding only the requested FlashcardDTO fields.
+ * NextCursor is null on the last page; otherwise it is passed back as the after query parameter.
+ */
+public record CardsPageDTO(
+        @JsonProperty("Cards") List<Map<String, Object>> Cards,
+        @JsonProperty("NextCursor") String NextCursor
+) {
+}
@@ -1,6 +1,5 @@
 package com.flashcardgroup.flashcard_backend.dto;
 
-import com.flashcardgroup.flashcard_backend.model.Deck;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 public record DeckDTO(
@@ -8,15 +7,13 @@ public record DeckDTO(
         @JsonProperty("UserID") Integer UserID,
         @JsonProperty("Name") String Name,
         @JsonProperty("Description") String Description,
-        @JsonProperty("CardCount") int CardCount
+        @JsonProperty("CardCount") int CardCount,
+        @JsonProperty("DueCount") int DueCount
 ) {
-    public static DeckDTO fromEntity(Deck deck) {
-        return new DeckDTO(
-                deck.getDeckId(),
-                deck.getUser().getUserId(),
-                deck.getName(),
-                deck.getDescription(),
-                deck.getFlashcards().size()
-        );
+    // Target of the aggregate JPQL constructor expression in DeckRepository (COUNT/SUM yield Long, SUM of no rows is null)
+    public DeckDTO(Integer DeckID, Integer UserID, String Name, String Description, Long CardCount, Long DueCount) {
+        this(DeckID, UserID, Name, Description,
+                CardCount == null ? 0 : CardCount.intValue(),
+                DueCount == null ? 0 : DueCount.intValue());
     }
-}
\ No newline at end of file
+}
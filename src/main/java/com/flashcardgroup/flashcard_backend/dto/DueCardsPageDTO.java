@@ -0,0 +1,15 @@
+package com.flashcardgroup.flashcard_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * One page of the cross-deck due queue. NextCursor is null on the last page;
+ * otherwise it is passed back verbatim as the cursor query parameter.
+ */
+public record DueCardsPageDTO(
+        @JsonProperty("Cards") List<FlashcardDTO> Cards,
+        @JsonProperty("NextCursor") String NextCursor
+) {
+}
@@ -0,0 +1,24 @@
+package com.flashcardgroup.flashcard_backend.dto;
+
+/**
+ * One row of the deck export cursor: a card joined with at most one of its translations.
+ * Cards with several translations span consecutive rows; cards without any have a null lang.
+ */
+public record FlashcardExportRow(
+        Integer cardId,
+        Integer deckId,
+        String front,
+        String back,
+        Long lastReviewed,
+        Integer stage,
+        String metadata,
+        String example,
+        String occurrenceIndices,
+        String synonyms,
+        String partOfSpeech,
+        String classifiers,
+        String imageNo,
+        String lang,
+        String translation
+) {
+}
@@ -0,0 +1,11 @@
+package com.flashcardgroup.flashcard_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+import java.util.Map;
+
+public record LookupBatchDTO(
+        @JsonProperty("Results") Map<String, LookupDTO> Results,
+        @JsonProperty("Failed") List<String> Failed
+) {}
@@ -0,0 +1,11 @@
+package com.flashcardgroup.flashcard_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record LookupBatchRequestDTO(
+        @JsonProperty("Words") List<String> Words,
+        @JsonProperty("ResponseLanguage") String ResponseLanguage,
+        @JsonProperty("TranslationLanguages") List<String> TranslationLanguages
+) {}
@@ -0,0 +1,23 @@
+package com.flashcardgroup.flashcard_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Per-card result of a batch review submission.
+ * Status is one of "updated", "not_found", "stale" (older than the stored review) or "invalid".
+ */
+public record ReviewOutcomeDTO(
+        @JsonProperty("CardID") Integer CardID,
+        @JsonProperty("Status") String Status,
+        @JsonProperty("Stage") Integer Stage,
+        @JsonProperty("NextReviewAt") Long NextReviewAt
+) {
+    public static final String UPDATED = "updated";
+    public static final String NOT_FOUND = "not_found";
+    public static final String STALE = "stale";
+    public static final String INVALID = "invalid";
+
+    public static ReviewOutcomeDTO of(Integer cardId, String status) {
+        return new ReviewOutcomeDTO(cardId, status, null, null);
+    }
+}
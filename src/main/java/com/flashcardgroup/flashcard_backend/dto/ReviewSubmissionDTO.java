@@ -0,0 +1,11 @@
+package com.flashcardgroup.flashcard_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// One review result from a client session; ReviewedAt is UNIX seconds and defaults to now
+public record ReviewSubmissionDTO(
+        @JsonProperty("CardID") Integer CardID,
+        @JsonProperty("Remembered") Boolean Remembered,
+        @JsonProperty("ReviewedAt") Long ReviewedAt
+) {
+}
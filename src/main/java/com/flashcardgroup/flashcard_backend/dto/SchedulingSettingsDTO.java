@@ -0,0 +1,10 @@
+package com.flashcardgroup.flashcard_backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// Deck scheduling settings; Algorithm is LEITNER, SM2 or FSRS, DesiredRetention only applies to FSRS
+public record SchedulingSettingsDTO(
+        @JsonProperty("Algorithm") String Algorithm,
+        @JsonProperty("DesiredRetention") Double DesiredRetention
+) {
+}
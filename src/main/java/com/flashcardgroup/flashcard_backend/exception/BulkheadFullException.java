@@ -0,0 +1,15 @@
+package com.flashcardgroup.flashcard_backend.exception;
+
+public class BulkheadFullException extends RuntimeException {
+
+    private final String bulkhead;
+
+    public BulkheadFullException(String bulkhead) {
+        super("Too many concurrent " + bulkhead + " requests; try again shortly");
+        this.bulkhead = bulkhead;
+    }
+
+    public String getBulkhead() {
+        return bulkhead;
+    }
+}
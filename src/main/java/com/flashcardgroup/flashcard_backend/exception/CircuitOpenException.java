@@ -0,0 +1,23 @@
+package com.flashcardgroup.flashcard_backend.exception;
+
+import java.time.Duration;
+
+public class CircuitOpenException extends RuntimeException {
+
+    private final String circuit;
+    private final Duration retryAfter;
+
+    public CircuitOpenException(String circuit, Duration retryAfter) {
+        super(circuit + " is currently unavailable; try again shortly");
+        this.circuit = circuit;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getCircuit() {
+        return circuit;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
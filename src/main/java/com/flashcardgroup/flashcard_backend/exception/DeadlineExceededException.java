@@ -0,0 +1,17 @@
+package com.flashcardgroup.flashcard_backend.exception;
+
+import java.time.Duration;
+
+public class DeadlineExceededException extends RuntimeException {
+
+    private final String call;
+
+    public DeadlineExceededException(String call, Duration deadline) {
+        super(call + " did not answer within " + deadline.toMillis() + " ms");
+        this.call = call;
+    }
+
+    public String getCall() {
+        return call;
+    }
+}
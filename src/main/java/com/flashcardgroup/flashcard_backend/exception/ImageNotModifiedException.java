@@ -0,0 +1,24 @@
+package com.flashcardgroup.flashcard_backend.exception;
+
+import java.time.Instant;
+
+// Storage reported the client's cached copy as current (the conditional GET matched); answered with 304
+public class ImageNotModifiedException extends RuntimeException {
+
+    private final String eTag;
+    private final Instant lastModified;
+
+    public ImageNotModifiedException(String eTag, Instant lastModified) {
+        super("Image not modified");
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public Instant getLastModified() {
+        return lastModified;
+    }
+}
@@ -0,0 +1,15 @@
+package com.flashcardgroup.flashcard_backend.exception;
+
+public class ImageRangeNotSatisfiableException extends RuntimeException {
+
+    private final long imageLength;
+
+    public ImageRangeNotSatisfiableException(String message, long imageLength) {
+        super(message);
+        this.imageLength = imageLength;
+    }
+
+    public long getImageLength() {
+        return imageLength;
+    }
+}
@@ -1,13 +1,18 @@
 // src/main/java/com/example/flashcards/model/Deck.java
 package com.flashcardgroup.flashcard_backend.model;
 
+import com.flashcardgroup.flashcard_backend.scheduling.SchedulingAlgorithmType;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "decks")
 @Table(
         name = "decks",
         indexes = {
@@ -34,6 +39,15 @@ public class Deck {
     @Column(name = "Description", length = 1000)
     private String description;
 
+    // NULL on rows created before per-deck scheduling existed; read as LEITNER
+    @Enumerated(EnumType.STRING)
+    @Column(name = "scheduling_algorithm", length = 20)
+    private SchedulingAlgorithmType schedulingAlgorithm = SchedulingAlgorithmType.LEITNER;
+
+    // FSRS target recall probability; null means the algorithm default
+    @Column(name = "desired_retention")
+    private Double desiredRetention;
+
     @OneToMany(mappedBy = "deck", cascade = CascadeType.ALL, orphanRemoval = true)
     private Set<Flashcard> flashcards = new HashSet<>();
 
@@ -60,6 +74,14 @@ public class Deck {
     public String getDescription() { return description; }
     public void setDescription(String description) { this.description = description; }
 
+    public SchedulingAlgorithmType getSchedulingAlgorithm() {
+        return schedulingAlgorithm != null ? schedulingAlgorithm : SchedulingAlgorithmType.LEITNER;
+    }
+    public void setSchedulingAlgorithm(SchedulingAlgorithmType schedulingAlgorithm) { this.schedulingAlgorithm = schedulingAlgorithm; }
+
+    public Double getDesiredRetention() { return desiredRetention; }
+    public void setDesiredRetention(Double desiredRetention) { this.desiredRetention = desiredRetention; }
+
     public Set<Flashcard> getFlashcards() { return flashcards; }
     public void setFlashcards(Set<Flashcard> flashcards) { this.flashcards = flashcards; }
 }
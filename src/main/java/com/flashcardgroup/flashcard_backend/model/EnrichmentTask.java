@@ -0,0 +1,88 @@
+package com.flashcardgroup.flashcard_backend.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * A card waiting for its AI-generated fields (Example, OccurrenceIndices, Synonyms, PartOfSpeech).
+ * The table is a work queue shared by every instance: workers claim PENDING rows whose available_at has
+ * passed with SELECT ... FOR UPDATE SKIP LOCKED and push available_at out by a lease while they work, so a
+ * worker that dies only delays its tasks until the lease runs out. Finished tasks are deleted; tasks that
+ * keep failing end up FAILED for inspection.
+ */
+@Entity
+@Table(
+        name = "enrichment_tasks",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_enrichment_tasks_card", columnNames = {"cardid"})
+        },
+        indexes = {
+                @Index(name = "idx_enrichment_tasks_claim", columnList = "status, available_at")
+        }
+)
+public class EnrichmentTask {
+
+    public enum Status { PENDING, FAILED }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "taskid")
+    private Long taskId;
+
+    @NotNull
+    @Column(name = "cardid", nullable = false)
+    private Integer cardId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 16)
+    private Status status;
+
+    @NotNull
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts;
+
+    // Epoch seconds; the next retry time for pending tasks, or the lease expiry while a worker holds it
+    @NotNull
+    @Column(name = "available_at", nullable = false)
+    private Long availableAt;
+
+    @Column(name = "locked_by", length = 64)
+    private String lockedBy;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Long createdAt;
+
+    public EnrichmentTask() {}
+
+    public void claim(String workerId, long leaseUntil) {
+        this.lockedBy = workerId;
+        this.availableAt = leaseUntil;
+        this.attempts = attempts + 1;
+    }
+
+    public void retryAt(long availableAt, String error) {
+        this.lockedBy = null;
+        this.availableAt = availableAt;
+        this.lastError = error;
+    }
+
+    public void fail(String error) {
+        this.status = Status.FAILED;
+        this.lockedBy = null;
+        this.lastError = error;
+    }
+
+    public Long getTaskId() { return taskId; }
+    public Integer getCardId() { return cardId; }
+    public Status getStatus() { return status; }
+    public Integer getAttempts() { return attempts; }
+    public Long getAvailableAt() { return availableAt; }
+    public String getLockedBy() { return lockedBy; }
+    public String getLastError() { return lastError; }
+    public Long getCreatedAt() { return createdAt; }
+}
@@ -1,12 +1,22 @@
 // src/main/java/com/example/flashcards/model/Flashcard.java
 package com.flashcardgroup.flashcard_backend.model;
 
+import com.flashcardgroup.flashcard_backend.scheduling.LeitnerAlgorithm;
+import com.flashcardgroup.flashcard_backend.scheduling.ReviewState;
+import com.flashcardgroup.flashcard_backend.scheduling.SchedulingAlgorithm;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.BatchSize;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
 import java.time.Instant;
 import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Locale;
 import java.util.Map;
 
 @Entity
@@ -15,11 +25,17 @@ import java.util.Map;
         indexes = {
                 @Index(name = "idx_flashcards_deck", columnList = "deckid"),
                 @Index(name = "idx_flashcards_stage", columnList = "stage"),
-                @Index(name = "idx_flashcards_lastreviewed", columnList = "last_reviewed")
+                @Index(name = "idx_flashcards_lastreviewed", columnList = "last_reviewed"),
+                @Index(name = "idx_flashcards_deck_next_review", columnList = "deckid, next_review_at")
+        },
+        uniqueConstraints = {
+                @UniqueConstraint(name = Flashcard.UNIQUE_BACK_CONSTRAINT, columnNames = {"deckid", "back_hash"})
         }
 )
 public class Flashcard {
 
+    public static final String UNIQUE_BACK_CONSTRAINT = "uk_flashcards_deck_back_hash";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @Column(name = "cardid")
@@ -37,6 +53,10 @@ public class Flashcard {
     @Column(name = "back", nullable = false, columnDefinition = "TEXT")
     private String back;
 
+    // SHA-256 of the normalized back; kept in step with back by setBack and enforced unique per deck
+    @Column(name = "back_hash", length = 64)
+    private String backHash;
+
     // Stored as UNIX seconds to match your original type
     @NotNull
     @Column(name = "last_reviewed", nullable = false)
@@ -46,6 +66,17 @@ public class Flashcard {
     @Column(name = "stage", nullable = false)
     private Integer stage;
 
+    // UNIX seconds when the card becomes due, as computed by the deck's scheduling algorithm
+    @Column(name = "next_review_at")
+    private Long nextReviewAt;
+
+    // Algorithm-specific state: SM-2 interval/ease factor or FSRS stability/difficulty
+    @Column(name = "stability")
+    private Double stability;
+
+    @Column(name = "difficulty")
+    private Double difficulty;
+
     @Column(name = "metadata", columnDefinition = "TEXT")
     private String metadata;
 
@@ -64,7 +95,9 @@ public class Flashcard {
     @Column(name = "classifiers", columnDefinition = "TEXT")
     private String classifiers;
 
+    // Lazy, but initialized in batches when a list of cards is mapped to DTOs (see FlashcardRepository)
     @ElementCollection(fetch = FetchType.LAZY)
+    @BatchSize(size = 100)
     @CollectionTable(
             name = "flashcard_translations",
             joinColumns = @JoinColumn(name = "cardid", foreignKey = @ForeignKey(name = "fk_flashcard_translations_card"))
@@ -96,7 +129,7 @@ public class Flashcard {
         this.cardId = cardId;
         this.deck = deck;
         this.front = front;
-        this.back = back;
+        setBack(back);
         this.lastReviewed = lastReviewed;
         this.stage = stage;
         this.metadata = metadata;
@@ -108,26 +141,63 @@ public class Flashcard {
         this.imageNo = imageNo;
     }
 
-    // Review schedule identical to your TS logic
-    private static final long DAY = 86400;
-    private static final Map<Integer, Long> REVIEW_INTERVALS = Map.of(
-            1, DAY,     // 1 day
-            2, 4L * DAY,     // 4 days
-            3, 7L * DAY,     // 7 days
-            4, 14L * DAY,    // 14 days
-            5, 60L * DAY,    // 60 days
-            6, 180L * DAY    // 6 months approx
-    );
-
     @Transient
     public boolean shouldReview() {
-        Long interval = REVIEW_INTERVALS.get(this.stage);
-        if (interval == null) {
-            throw new IllegalStateException("Review interval not found for stage " + this.stage);
+        return shouldReview(Instant.now().getEpochSecond());
+    }
+
+    @Transient
+    public boolean shouldReview(long nowSeconds) {
+        long nextTime = (this.nextReviewAt != null)
+                ? this.nextReviewAt
+                : LeitnerAlgorithm.INSTANCE.nextReviewAt(reviewState());
+        return nowSeconds >= nextTime;
+    }
+
+    @Transient
+    public ReviewState reviewState() {
+        return new ReviewState(this.stage, this.lastReviewed, this.stability, this.difficulty);
+    }
+
+    // Applies a review through the deck's algorithm and reschedules the card
+    public void applyReview(SchedulingAlgorithm algorithm, boolean remembered, long reviewedAtSeconds) {
+        applyState(algorithm, algorithm.review(reviewState(), remembered, reviewedAtSeconds));
+    }
+
+    public void applyState(SchedulingAlgorithm algorithm, ReviewState state) {
+        this.stage = state.stage();
+        this.lastReviewed = state.lastReviewed();
+        this.stability = state.stability();
+        this.difficulty = state.difficulty();
+        this.nextReviewAt = algorithm.nextReviewAt(state);
+    }
+
+    // New cards are first due one Leitner stage-1 interval after creation, whatever the deck's algorithm
+    @PrePersist
+    void initNextReviewAt() {
+        if (this.nextReviewAt == null && this.lastReviewed != null && this.stage != null) {
+            this.nextReviewAt = LeitnerAlgorithm.INSTANCE.nextReviewAt(reviewState());
+        }
+    }
+
+    /**
+     * Hash used for duplicate detection: NFKC-normalized, lower-cased and with whitespace collapsed,
+     * so "Der  Hund" and "der hund" count as the same back.
+     */
+    public static String hashBack(String back) {
+        if (back == null) {
+            return null;
+        }
+        String normalized = Normalizer.normalize(back, Normalizer.Form.NFKC)
+                .toLowerCase(Locale.ROOT)
+                .strip()
+                .replaceAll("\\s+", " ");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalized.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
-        long now = Instant.now().getEpochSecond();
-        long nextTime = this.lastReviewed + interval;
-        return now >= nextTime;
     }
 
     // Getters and setters
@@ -142,7 +212,12 @@ public class Flashcard {
     public void setFront(String front) { this.front = front; }
 
     public String getBack() { return back; }
-    public void setBack(String back) { this.back = back; }
+    public void setBack(String back) {
+        this.back = back;
+        this.backHash = hashBack(back);
+    }
+
+    public String getBackHash() { return backHash; }
 
     public Long getLastReviewed() { return lastReviewed; }
     public void setLastReviewed(Long lastReviewed) { this.lastReviewed = lastReviewed; }
@@ -150,6 +225,15 @@ public class Flashcard {
     public Integer getStage() { return stage; }
     public void setStage(Integer stage) { this.stage = stage; }
 
+    public Long getNextReviewAt() { return nextReviewAt; }
+    public void setNextReviewAt(Long nextReviewAt) { this.nextReviewAt = nextReviewAt; }
+
+    public Double getStability() { return stability; }
+    public void setStability(Double stability) { this.stability = stability; }
+
+    public Double getDifficulty() { return difficulty; }
+    public void setDifficulty(Double difficulty) { this.difficulty = difficulty; }
+
     public String getMetadata() { return metadata; }
     public void setMetadata(String metadata) { this.metadata = metadata; }
 
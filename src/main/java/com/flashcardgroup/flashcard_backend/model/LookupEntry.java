@@ -0,0 +1,96 @@
+package com.flashcardgroup.flashcard_backend.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Shared dictionary of Gemini lookup results, read and written through JDBC by LookupStore; the
+ * entity exists so the table and its indexes are managed alongside the rest of the schema.
+ *
+ * A result for (word, response language) is stored as one base row with translation_lang '' holding
+ * the card fields, plus one row per translation language holding just that translation, so requests
+ * for different language sets share rows.
+ */
+@Entity
+@Table(
+        name = "lookup_entries",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_lookup_entries_key", columnNames = {"word_hash", "response_lang", "translation_lang"})
+        }
+)
+public class LookupEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "entryid")
+    private Long entryId;
+
+    // SHA-256 of the normalized word; the word itself is TEXT-sized and case-sensitive, so it is not indexed
+    @NotNull
+    @Column(name = "word_hash", nullable = false, length = 64)
+    private String wordHash;
+
+    @NotNull
+    @Column(name = "word", nullable = false, length = 500)
+    private String word;
+
+    @NotNull
+    @Column(name = "response_lang", nullable = false, length = 20)
+    private String responseLang;
+
+    @NotNull
+    @Column(name = "translation_lang", nullable = false, length = 20)
+    private String translationLang;
+
+    @Column(name = "front", columnDefinition = "TEXT")
+    private String front;
+
+    @Column(name = "back", columnDefinition = "TEXT")
+    private String back;
+
+    @Column(name = "metadata", columnDefinition = "TEXT")
+    private String metadata;
+
+    @Column(name = "example", columnDefinition = "TEXT")
+    private String example;
+
+    @Column(name = "occurrence_indices", columnDefinition = "TEXT")
+    private String occurrenceIndices;
+
+    @Column(name = "synonyms", columnDefinition = "TEXT")
+    private String synonyms;
+
+    @Column(name = "part_of_speech", length = 100)
+    private String partOfSpeech;
+
+    @Column(name = "classifiers", columnDefinition = "TEXT")
+    private String classifiers;
+
+    @Column(name = "translation", columnDefinition = "TEXT")
+    private String translation;
+
+    // UNIX seconds
+    @NotNull
+    @Column(name = "created_at", nullable = false)
+    private Long createdAt;
+
+    public LookupEntry() {}
+
+    // Getters
+
+    public Long getEntryId() { return entryId; }
+    public String getWordHash() { return wordHash; }
+    public String getWord() { return word; }
+    public String getResponseLang() { return responseLang; }
+    public String getTranslationLang() { return translationLang; }
+    public String getFront() { return front; }
+    public String getBack() { return back; }
+    public String getMetadata() { return metadata; }
+    public String getExample() { return example; }
+    public String getOccurrenceIndices() { return occurrenceIndices; }
+    public String getSynonyms() { return synonyms; }
+    public String getPartOfSpeech() { return partOfSpeech; }
+    public String getClassifiers() { return classifiers; }
+    public String getTranslation() { return translation; }
+    public Long getCreatedAt() { return createdAt; }
+}
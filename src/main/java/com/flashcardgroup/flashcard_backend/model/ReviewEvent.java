@@ -0,0 +1,58 @@
+package com.flashcardgroup.flashcard_backend.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * Append-only review history. Rows are written in batches by ReviewEventBuffer through JDBC;
+ * the entity exists so the table and its indexes are managed alongside the rest of the schema.
+ */
+@Entity
+@Table(
+        name = "review_events",
+        indexes = {
+                @Index(name = "idx_review_events_card_time", columnList = "cardid, reviewed_at")
+        }
+)
+public class ReviewEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "eventid")
+    private Long eventId;
+
+    @NotNull
+    @Column(name = "cardid", nullable = false)
+    private Integer cardId;
+
+    @NotNull
+    @Column(name = "remembered", nullable = false)
+    private Boolean remembered;
+
+    // Stored as UNIX seconds, same as Flashcard.lastReviewed
+    @NotNull
+    @Column(name = "reviewed_at", nullable = false)
+    private Long reviewedAt;
+
+    public ReviewEvent() {}
+
+    public ReviewEvent(Integer cardId, Boolean remembered, Long reviewedAt) {
+        this.cardId = cardId;
+        this.remembered = remembered;
+        this.reviewedAt = reviewedAt;
+    }
+
+    // Getters and setters
+
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+
+    public Integer getCardId() { return cardId; }
+    public void setCardId(Integer cardId) { this.cardId = cardId; }
+
+    public Boolean getRemembered() { return remembered; }
+    public void setRemembered(Boolean remembered) { this.remembered = remembered; }
+
+    public Long getReviewedAt() { return reviewedAt; }
+    public void setReviewedAt(Long reviewedAt) { this.reviewedAt = reviewedAt; }
+}
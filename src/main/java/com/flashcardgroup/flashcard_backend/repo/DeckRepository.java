@@ -1,11 +1,32 @@
 // src/main/java/com/example/flashcards/repo/DeckRepository.java
 package com.flashcardgroup.flashcard_backend.repo;
 
+import com.flashcardgroup.flashcard_backend.dto.DeckDTO;
 import com.flashcardgroup.flashcard_backend.model.Deck;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 
 public interface DeckRepository extends JpaRepository<Deck, Long> {
+    // Query cache; invalidated by any write to decks, and the Deck rows themselves come from the decks region
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Deck> findByUser_UserId(Integer user_userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    boolean existsByDeckIdAndUser_UserId(Integer deckId, Integer user_userId);
+
+    // Deck listing with total and due card counts in one aggregate query; no Flashcard entities are loaded.
+    // Both counts are answered from idx_flashcards_deck_next_review (deckid, next_review_at).
+    @Query("SELECT new com.flashcardgroup.flashcard_backend.dto.DeckDTO(" +
+            "d.deckId, d.user.userId, d.name, d.description, " +
+            "COUNT(f.cardId), SUM(CASE WHEN f.nextReviewAt <= :now THEN 1 ELSE 0 END)) " +
+            "FROM Deck d LEFT JOIN d.flashcards f " +
+            "WHERE d.user.userId = :userId " +
+            "GROUP BY d.deckId, d.user.userId, d.name, d.description")
+    List<DeckDTO> findSummariesByUserId(@Param("userId") Integer userId, @Param("now") long nowSeconds);
 }
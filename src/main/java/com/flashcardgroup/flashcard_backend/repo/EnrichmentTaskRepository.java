@@ -0,0 +1,45 @@
+package com.flashcardgroup.flashcard_backend.repo;
+
+import com.flashcardgroup.flashcard_backend.model.EnrichmentTask;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface EnrichmentTaskRepository extends JpaRepository<EnrichmentTask, Long> {
+
+    // FOR UPDATE SKIP LOCKED (lock timeout -2): concurrent claimers each get different rows instead of waiting
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT t FROM EnrichmentTask t WHERE t.status = :status AND t.availableAt <= :now ORDER BY t.taskId")
+    List<EnrichmentTask> findClaimable(@Param("status") EnrichmentTask.Status status, @Param("now") long now, Limit limit);
+
+    // Extends a claimed task's lease, unless it ran out and another worker has claimed the task since
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE EnrichmentTask t SET t.availableAt = :leaseUntil " +
+            "WHERE t.taskId = :taskId AND t.lockedBy = :workerId AND t.status = :status")
+    int renewLease(@Param("taskId") Long taskId, @Param("workerId") String workerId,
+                   @Param("status") EnrichmentTask.Status status, @Param("leaseUntil") long leaseUntil);
+
+    // The worker's own tasks among taskIds, row-locked so a claimer cannot take them over mid-update
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM EnrichmentTask t WHERE t.taskId IN :taskIds AND t.lockedBy = :workerId AND t.status = :status")
+    List<EnrichmentTask> findHeld(@Param("taskIds") Collection<Long> taskIds, @Param("workerId") String workerId,
+                                  @Param("status") EnrichmentTask.Status status);
+
+    // Deletes finished tasks, except those whose lease ran out and that another worker has claimed since
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM EnrichmentTask t WHERE t.taskId IN :taskIds AND t.lockedBy = :workerId AND t.status = :status")
+    int deleteHeld(@Param("taskIds") Collection<Long> taskIds, @Param("workerId") String workerId,
+                   @Param("status") EnrichmentTask.Status status);
+
+    long countByStatus(EnrichmentTask.Status status);
+}
@@ -0,0 +1,17 @@
+package com.flashcardgroup.flashcard_backend.repo;
+
+import com.flashcardgroup.flashcard_backend.dto.FlashcardExportRow;
+
+import java.util.stream.Stream;
+
+// Custom fragment of FlashcardRepository for the deck export cursor
+public interface FlashcardExportRepository {
+
+    /**
+     * Every card of a deck joined with its translations, in cardId order, read from a forward-only
+     * cursor. Rows are scalar projections, so nothing accumulates in the persistence context.
+     * Must be consumed and closed inside a transaction; with MySQL the connection can run no other
+     * statement until the stream is closed.
+     */
+    Stream<FlashcardExportRow> streamExportRows(Integer deckId);
+}
@@ -0,0 +1,39 @@
+package com.flashcardgroup.flashcard_backend.repo;
+
+import com.flashcardgroup.flashcard_backend.dto.FlashcardExportRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.stream.Stream;
+
+class FlashcardExportRepositoryImpl implements FlashcardExportRepository {
+
+    private static final int FETCH_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public Stream<FlashcardExportRow> streamExportRows(Integer deckId) {
+        return em.createQuery(
+                        "SELECT new com.flashcardgroup.flashcard_backend.dto.FlashcardExportRow(" +
+                        "f.cardId, f.deck.deckId, f.front, f.back, f.lastReviewed, f.stage, f.metadata, f.example, " +
+                        "f.occurrenceIndices, f.synonyms, f.partOfSpeech, f.classifiers, f.imageNo, KEY(t), VALUE(t)) " +
+                        "FROM Flashcard f LEFT JOIN f.translations t WHERE f.deck.deckId = :deckId ORDER BY f.cardId",
+                        FlashcardExportRow.class)
+                .setParameter("deckId", deckId)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize())
+                .getResultStream();
+    }
+
+    // Connector/J buffers the whole result set unless the fetch size is Integer.MIN_VALUE, which streams
+    // rows one at a time for this statement only (no pool-wide useCursorFetch). Other drivers, H2
+    // included, reject a negative fetch size and honour a positive one.
+    private int fetchSize() {
+        SessionFactoryImplementor sessionFactory = em.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class);
+        return sessionFactory.getJdbcServices().getDialect() instanceof MySQLDialect ? Integer.MIN_VALUE : FETCH_SIZE;
+    }
+}
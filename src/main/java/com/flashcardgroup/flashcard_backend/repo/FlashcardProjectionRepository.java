@@ -0,0 +1,24 @@
+package com.flashcardgroup.flashcard_backend.repo;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Custom fragment of FlashcardRepository for reading only the card fields a client asked for
+public interface FlashcardProjectionRepository {
+
+    // FlashcardDTO field names that can be requested, in DTO order
+    List<String> PROJECTABLE_FIELDS = List.of(
+            "CardID", "DeckID", "Front", "Back", "LastReviewed", "Stage", "Metadata", "Example",
+            "OccurrenceIndices", "Synonyms", "PartOfSpeech", "Classifiers", "Translations", "ImageNo");
+
+    /**
+     * Cards of a deck with cardId greater than afterId, in cardId order, each as a map keyed by
+     * FlashcardDTO field name holding only the requested fields (CardID is always included).
+     * Only the requested columns are selected, and flashcard_translations is read only when
+     * Translations is requested.
+     *
+     * @param limit maximum number of cards, or null for all remaining cards
+     */
+    List<Map<String, Object>> findProjectedByDeckId(Integer deckId, Set<String> fields, int afterId, Integer limit);
+}
@@ -0,0 +1,90 @@
+package com.flashcardgroup.flashcard_backend.repo;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+class FlashcardProjectionRepositoryImpl implements FlashcardProjectionRepository {
+
+    // Scalar FlashcardDTO fields and the entity paths they are read from
+    private static final Map<String, String> COLUMNS = new LinkedHashMap<>();
+    static {
+        COLUMNS.put("CardID", "f.cardId");
+        COLUMNS.put("DeckID", "f.deck.deckId");
+        COLUMNS.put("Front", "f.front");
+        COLUMNS.put("Back", "f.back");
+        COLUMNS.put("LastReviewed", "f.lastReviewed");
+        COLUMNS.put("Stage", "f.stage");
+        COLUMNS.put("Metadata", "f.metadata");
+        COLUMNS.put("Example", "f.example");
+        COLUMNS.put("OccurrenceIndices", "f.occurrenceIndices");
+        COLUMNS.put("Synonyms", "f.synonyms");
+        COLUMNS.put("PartOfSpeech", "f.partOfSpeech");
+        COLUMNS.put("Classifiers", "f.classifiers");
+        COLUMNS.put("ImageNo", "f.imageNo");
+    }
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public List<Map<String, Object>> findProjectedByDeckId(Integer deckId, Set<String> fields, int afterId, Integer limit) {
+        // Select list is built only from the fixed COLUMNS paths, never from request input
+        List<String> selected = new ArrayList<>();
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        for (Map.Entry<String, String> column : COLUMNS.entrySet()) {
+            if (column.getKey().equals("CardID") || fields.contains(column.getKey())) {
+                if (!selected.isEmpty()) {
+                    jpql.append(", ");
+                }
+                jpql.append(column.getValue()).append(" AS ").append(column.getKey());
+                selected.add(column.getKey());
+            }
+        }
+        jpql.append(" FROM Flashcard f WHERE f.deck.deckId = :deckId AND f.cardId > :afterId ORDER BY f.cardId");
+
+        TypedQuery<Tuple> query = em.createQuery(jpql.toString(), Tuple.class)
+                .setParameter("deckId", deckId)
+                .setParameter("afterId", afterId);
+        if (limit != null) {
+            query.setMaxResults(limit);
+        }
+
+        boolean withTranslations = fields.contains("Translations");
+        List<Map<String, Object>> cards = new ArrayList<>();
+        Map<Integer, Map<String, Object>> byId = new LinkedHashMap<>();
+        for (Tuple tuple : query.getResultList()) {
+            Map<String, Object> card = new LinkedHashMap<>();
+            for (String field : PROJECTABLE_FIELDS) {
+                if (selected.contains(field)) {
+                    card.put(field, tuple.get(field));
+                } else if (withTranslations && field.equals("Translations")) {
+                    card.put(field, new LinkedHashMap<String, String>());
+                }
+            }
+            cards.add(card);
+            byId.put((Integer) card.get("CardID"), card);
+        }
+
+        if (withTranslations && !byId.isEmpty()) {
+            List<Object[]> rows = em.createQuery(
+                            "SELECT f.cardId, KEY(t), VALUE(t) FROM Flashcard f JOIN f.translations t " +
+                            "WHERE f.cardId IN :ids", Object[].class)
+                    .setParameter("ids", byId.keySet())
+                    .getResultList();
+            for (Object[] row : rows) {
+                @SuppressWarnings("unchecked")
+                Map<String, String> translations = (Map<String, String>) byId.get((Integer) row[0]).get("Translations");
+                translations.put((String) row[1], (String) row[2]);
+            }
+        }
+        return cards;
+    }
+}
@@ -2,14 +2,81 @@
 package com.flashcardgroup.flashcard_backend.repo;
 
 import com.flashcardgroup.flashcard_backend.model.Flashcard;
-import jakarta.validation.constraints.NotBlank;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface FlashcardRepository extends JpaRepository<Flashcard, Long> {
+public interface FlashcardRepository extends JpaRepository<Flashcard, Long>, FlashcardProjectionRepository,
+        FlashcardExportRepository {
+
+    // Interval (seconds) of the stage a card lands on after a review, keyed by its current stage.
+    // Must mirror LeitnerAlgorithm.intervalSeconds; FlashcardRepositoryTest checks every stage.
+    String PROMOTED_INTERVAL = "CASE f.stage WHEN 1 THEN 345600 WHEN 2 THEN 604800 WHEN 3 THEN 1209600 " +
+            "WHEN 4 THEN 5184000 ELSE 15552000 END";
+    String DEMOTED_INTERVAL = "CASE f.stage WHEN 1 THEN 86400 WHEN 2 THEN 86400 WHEN 3 THEN 345600 " +
+            "WHEN 4 THEN 604800 WHEN 5 THEN 1209600 ELSE 5184000 END";
+    // The single-statement transitions only apply to cards in Leitner decks (NULL counts as Leitner)
+    String IN_LEITNER_DECK = "NOT EXISTS (SELECT d.deckId FROM Deck d WHERE d.deckId = f.deck.deckId " +
+            "AND d.schedulingAlgorithm <> com.flashcardgroup.flashcard_backend.scheduling.SchedulingAlgorithmType.LEITNER)";
+
+    // Whole-deck listings fetch translations in the same query; paginated queries rely on
+    // @BatchSize on Flashcard.translations instead, since a collection fetch join cannot be limited in SQL
+    @EntityGraph(attributePaths = "translations")
     List<Flashcard> findByDeck_DeckId(Integer deck_deckId);
     List<Flashcard> findByDeck_User_UserId(Integer deck_user_userId);
     Flashcard findByCardId(Integer cardId);
-    boolean existsByBackAndDeck_DeckId(@NotBlank String back, Integer deck_deckId);
+    // Row-locked load for read-modify-write reviews, so concurrent reviews of one card apply in turn
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT f FROM Flashcard f WHERE f.cardId = :cardId")
+    Flashcard findByCardIdForUpdate(@Param("cardId") Integer cardId);
+    @EntityGraph(attributePaths = "deck")
+    List<Flashcard> findByCardIdIn(Collection<Integer> cardIds);
+    // Served by uk_flashcards_deck_back_hash (deckid, back_hash)
+    boolean existsByDeck_DeckIdAndBackHash(Integer deckId, String backHash);
+
+    // All back hashes of a deck in one index-only query, for de-duplicating bulk imports against existing cards
+    @Query("SELECT f.backHash FROM Flashcard f WHERE f.deck.deckId = :deckId AND f.backHash IS NOT NULL")
+    List<String> findBackHashesByDeckId(@Param("deckId") Integer deckId);
+
+    // Due cards only; served by idx_flashcards_deck_next_review (deckid, next_review_at)
+    @EntityGraph(attributePaths = "translations")
+    @Query("SELECT f FROM Flashcard f WHERE f.deck.deckId = :deckId AND f.nextReviewAt <= :now")
+    List<Flashcard> findDueByDeckId(@Param("deckId") Integer deckId, @Param("now") long nowSeconds);
+
+    // Cross-deck due queue for a user, keyset-paginated on (next_review_at, cardid)
+    @Query("SELECT f FROM Flashcard f WHERE f.deck.user.userId = :userId AND f.nextReviewAt <= :now " +
+            "AND (f.nextReviewAt > :afterDue OR (f.nextReviewAt = :afterDue AND f.cardId > :afterId)) " +
+            "ORDER BY f.nextReviewAt ASC, f.cardId ASC")
+    List<Flashcard> findDueByUserIdAfter(@Param("userId") Integer userId,
+                                         @Param("now") long nowSeconds,
+                                         @Param("afterDue") long afterDue,
+                                         @Param("afterId") int afterId,
+                                         Limit limit);
+
+    // Atomic Leitner review transitions: stage clamp, last_reviewed and next_review_at in one UPDATE.
+    // next_review_at is assigned before stage so it reads the old stage on MySQL too, which
+    // evaluates SET assignments left to right. Zero rows means no such card or a non-Leitner deck.
+    @Modifying
+    @Query("UPDATE Flashcard f SET f.nextReviewAt = :now + " + PROMOTED_INTERVAL + ", f.lastReviewed = :now, " +
+            "f.stage = CASE WHEN f.stage < 6 THEN f.stage + 1 ELSE 6 END WHERE f.cardId = :cardId AND " + IN_LEITNER_DECK)
+    int promote(@Param("cardId") Integer cardId, @Param("now") long nowSeconds);
+
+    @Modifying
+    @Query("UPDATE Flashcard f SET f.nextReviewAt = :now + " + DEMOTED_INTERVAL + ", f.lastReviewed = :now, " +
+            "f.stage = CASE WHEN f.stage > 1 THEN f.stage - 1 ELSE 1 END WHERE f.cardId = :cardId AND " + IN_LEITNER_DECK)
+    int demote(@Param("cardId") Integer cardId, @Param("now") long nowSeconds);
+
+    // One-off backfill of next_review_at for rows written before the column existed
+    @Modifying
+    @Query("UPDATE Flashcard f SET f.nextReviewAt = f.lastReviewed + :interval " +
+            "WHERE f.nextReviewAt IS NULL AND f.stage = :stage")
+    int backfillNextReviewAt(@Param("stage") int stage, @Param("interval") long intervalSeconds);
 }
@@ -2,11 +2,19 @@
 package com.flashcardgroup.flashcard_backend.repo;
 
 import com.flashcardgroup.flashcard_backend.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.SpecHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    // Used for login: always read the row, never a cached copy, so a changed password_hash takes effect immediately
+    @QueryHints({
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_RETRIEVE_MODE, value = "BYPASS"),
+            @QueryHint(name = SpecHints.HINT_SPEC_CACHE_STORE_MODE, value = "REFRESH")
+    })
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
 }
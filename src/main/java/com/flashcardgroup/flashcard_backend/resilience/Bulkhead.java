@@ -0,0 +1,88 @@
+package com.flashcardgroup.flashcard_backend.resilience;
+
+import com.flashcardgroup.flashcard_backend.exception.BulkheadFullException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrency limit for calls to one downstream. With requests on virtual threads there is no
+ * thread pool to run out of, so this is what stops a slow dependency from piling up unbounded
+ * in-flight calls: callers wait at most maxWait for a permit and are then rejected with
+ * BulkheadFullException (503), leaving endpoints that don't use this downstream unaffected.
+ *
+ * <pre>
+ * try (Bulkhead.Permit permit = bulkhead.acquire()) {
+ *     return client.call();
+ * }
+ * </pre>
+ */
+public class Bulkhead {
+
+    /** Held for the duration of one downstream call; closing it releases the slot. */
+    public interface Permit extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private final String name;
+    private final int maxConcurrent;
+    private final Duration maxWait;
+    private final Semaphore permits;
+    private final Counter rejected;
+    private final Timer waitTimer;
+
+    public Bulkhead(String name, int maxConcurrent, Duration maxWait, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrent = maxConcurrent;
+        this.maxWait = maxWait;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.rejected = Counter.builder("bulkhead.rejected").tag("name", name).register(meterRegistry);
+        this.waitTimer = Timer.builder("bulkhead.wait").tag("name", name).register(meterRegistry);
+        Gauge.builder("bulkhead.active", this, Bulkhead::activeCalls).tag("name", name).register(meterRegistry);
+        Gauge.builder("bulkhead.waiting", permits, Semaphore::getQueueLength).tag("name", name).register(meterRegistry);
+    }
+
+    /**
+     * Waits up to maxWait for a free slot.
+     *
+     * @throws BulkheadFullException if none frees up in time
+     */
+    public Permit acquire() {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(maxWait.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejected.increment();
+            throw new BulkheadFullException(name);
+        }
+        return new Permit() {
+            private boolean released;
+
+            @Override
+            public void close() {
+                if (!released) {
+                    released = true;
+                    permits.release();
+                }
+            }
+        };
+    }
+
+    public String getName() { return name; }
+
+    public int activeCalls() {
+        return maxConcurrent - permits.availablePermits();
+    }
+}
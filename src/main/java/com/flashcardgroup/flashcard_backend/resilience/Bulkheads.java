@@ -0,0 +1,46 @@
+package com.flashcardgroup.flashcard_backend.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One Bulkhead per downstream, configured by app.bulkhead.&lt;name&gt;.max-concurrent and
+ * app.bulkhead.&lt;name&gt;.max-wait. The JDBC pool needs none: Hikari already limits it
+ * (maximum-pool-size) with a bounded wait (connection-timeout). Deck exports are the exception,
+ * since each one holds a pooled connection for as long as the client takes to download it.
+ * Image downloads from S3 likewise hold an SDK connection until the client has read the body.
+ */
+@Component
+public class Bulkheads {
+
+    public static final String GEMINI = "gemini";
+    public static final String S3 = "s3";
+    public static final String S3_DOWNLOADS = "s3-downloads";
+    public static final String EXPORT = "export";
+
+    private static final int DEFAULT_MAX_CONCURRENT = 20;
+    private static final Duration DEFAULT_MAX_WAIT = Duration.ofSeconds(1);
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Bulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public Bulkheads(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Bulkhead get(String name) {
+        return bulkheads.computeIfAbsent(name, n -> new Bulkhead(
+                n,
+                environment.getProperty("app.bulkhead." + n + ".max-concurrent", Integer.class, DEFAULT_MAX_CONCURRENT),
+                environment.getProperty("app.bulkhead." + n + ".max-wait", Duration.class, DEFAULT_MAX_WAIT),
+                meterRegistry
+        ));
+    }
+}
@@ -0,0 +1,196 @@
+package com.flashcardgroup.flashcard_backend.resilience;
+
+import com.flashcardgroup.flashcard_backend.exception.CircuitOpenException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker for one downstream. The outcomes of the last windowSize calls are kept;
+ * once at least minimumCalls are recorded and the failure rate reaches failureRateThreshold percent the
+ * circuit opens and callers are rejected with CircuitOpenException (503) without touching the downstream.
+ * After openDuration a single trial call is let through: success closes the circuit, failure reopens it.
+ *
+ * <pre>
+ * CircuitBreaker.Permission call = circuitBreaker.acquirePermission();
+ * try {
+ *     result = client.call();
+ *     call.onSuccess();
+ * } catch (RuntimeException e) {
+ *     call.onFailure();
+ *     throw e;
+ * }
+ * </pre>
+ *
+ * Outcomes are reported through the Permission the call was admitted with, and only count while the
+ * circuit is still in the state that admitted it: a late answer from before the circuit opened can
+ * neither close it nor decide the half-open trial. Outcomes that say nothing about the downstream's
+ * health (e.g. a full bulkhead) are reported with onIgnored so a half-open trial slot is handed back.
+ */
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    /** Admission of one call; report its outcome through exactly one of these methods. */
+    public final class Permission {
+
+        private final long generation;
+        private final boolean trial;
+
+        private Permission(long generation, boolean trial) {
+            this.generation = generation;
+            this.trial = trial;
+        }
+
+        public void onSuccess() {
+            succeeded(this);
+        }
+
+        public void onFailure() {
+            failed(this);
+        }
+
+        public void onIgnored() {
+            ignored(this);
+        }
+    }
+
+    private final String name;
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final Duration openDuration;
+    private final LongSupplier nanoClock;
+    private final boolean[] window;
+    private final Counter rejected;
+    private final MeterRegistry meterRegistry;
+
+    private int next;
+    private int recorded;
+    private int failures;
+    private State state = State.CLOSED;
+    private long openedAt;
+    private boolean trialInFlight;
+    // Bumped on every transition, so outcomes of calls admitted in an earlier state are recognised
+    private long generation;
+
+    public CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRateThreshold,
+                          Duration openDuration, MeterRegistry meterRegistry) {
+        this(name, windowSize, minimumCalls, failureRateThreshold, openDuration, meterRegistry, System::nanoTime);
+    }
+
+    CircuitBreaker(String name, int windowSize, int minimumCalls, int failureRateThreshold,
+                   Duration openDuration, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.name = name;
+        this.window = new boolean[windowSize];
+        this.minimumCalls = Math.min(minimumCalls, windowSize);
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDuration = openDuration;
+        this.nanoClock = nanoClock;
+        this.meterRegistry = meterRegistry;
+        this.rejected = Counter.builder("circuit.rejected").tag("name", name).register(meterRegistry);
+        Gauge.builder("circuit.state", this, cb -> cb.getState().ordinal()).tag("name", name)
+                .description("0 = closed, 1 = open, 2 = half-open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @throws CircuitOpenException if the circuit is open, or half-open with its trial call already running
+     */
+    public synchronized Permission acquirePermission() {
+        if (state == State.OPEN) {
+            long elapsed = nanoClock.getAsLong() - openedAt;
+            if (elapsed < openDuration.toNanos()) {
+                rejected.increment();
+                throw new CircuitOpenException(name, openDuration.minusNanos(elapsed));
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                rejected.increment();
+                throw new CircuitOpenException(name, Duration.ofSeconds(1));
+            }
+            trialInFlight = true;
+            return new Permission(generation, true);
+        }
+        return new Permission(generation, false);
+    }
+
+    private synchronized void succeeded(Permission permission) {
+        if (permission.generation != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN && permission.trial) {
+            reset();
+            transition(State.CLOSED);
+        } else if (state == State.CLOSED) {
+            record(false);
+        }
+    }
+
+    private synchronized void failed(Permission permission) {
+        if (permission.generation != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN && permission.trial) {
+            open();
+        } else if (state == State.CLOSED) {
+            record(true);
+            if (recorded >= minimumCalls && failures * 100 >= failureRateThreshold * recorded) {
+                open();
+            }
+        }
+    }
+
+    private synchronized void ignored(Permission permission) {
+        if (permission.generation == generation && permission.trial) {
+            trialInFlight = false;
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public String getName() { return name; }
+
+    private void record(boolean failed) {
+        if (recorded == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        window[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open() {
+        openedAt = nanoClock.getAsLong();
+        trialInFlight = false;
+        transition(State.OPEN);
+    }
+
+    private void reset() {
+        next = 0;
+        recorded = 0;
+        failures = 0;
+        trialInFlight = false;
+    }
+
+    private void transition(State to) {
+        state = to;
+        generation++;
+        Counter.builder("circuit.transitions").tag("name", name).tag("state", to.name().toLowerCase(Locale.ROOT))
+                .register(meterRegistry)
+                .increment();
+    }
+}
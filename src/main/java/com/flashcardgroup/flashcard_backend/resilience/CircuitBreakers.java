@@ -0,0 +1,43 @@
+package com.flashcardgroup.flashcard_backend.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One CircuitBreaker per downstream, configured by app.circuit-breaker.&lt;name&gt;.window-size,
+ * minimum-calls, failure-rate-threshold (percent) and open-duration.
+ */
+@Component
+public class CircuitBreakers {
+
+    private static final int DEFAULT_WINDOW_SIZE = 50;
+    private static final int DEFAULT_MINIMUM_CALLS = 20;
+    private static final int DEFAULT_FAILURE_RATE_THRESHOLD = 50;
+    private static final Duration DEFAULT_OPEN_DURATION = Duration.ofSeconds(30);
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    public CircuitBreakers(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public CircuitBreaker get(String name) {
+        String prefix = "app.circuit-breaker." + name + ".";
+        return circuitBreakers.computeIfAbsent(name, n -> new CircuitBreaker(
+                n,
+                environment.getProperty(prefix + "window-size", Integer.class, DEFAULT_WINDOW_SIZE),
+                environment.getProperty(prefix + "minimum-calls", Integer.class, DEFAULT_MINIMUM_CALLS),
+                environment.getProperty(prefix + "failure-rate-threshold", Integer.class, DEFAULT_FAILURE_RATE_THRESHOLD),
+                environment.getProperty(prefix + "open-duration", Duration.class, DEFAULT_OPEN_DURATION),
+                meterRegistry
+        ));
+    }
+}
@@ -0,0 +1,130 @@
+package com.flashcardgroup.flashcard_backend.resilience;
+
+import com.flashcardgroup.flashcard_backend.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs a blocking downstream call under a deadline, optionally hedged. With hedging on, if the first
+ * attempt has not answered after the observed p95 latency (or hedgeDelay until enough calls have been
+ * seen) a second, identical attempt is started and whichever succeeds first wins; the loser is
+ * cancelled. Hedging only ever adds one attempt, so it costs at most ~5% extra calls.
+ *
+ * Attempts run on virtual threads and must acquire any bulkhead permits themselves.
+ *
+ * Metrics: hedge.attempt{name} (latency of successful attempts, with p95), hedge.launched{name},
+ * hedge.won{name} and hedge.timeouts{name}.
+ */
+public class HedgedCaller {
+
+    private static final int MIN_SAMPLES_FOR_P95 = 20;
+
+    private final String name;
+    private final Duration timeout;
+    private final boolean hedging;
+    private final Duration hedgeDelay;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Timer attemptLatency;
+    private final Counter launched;
+    private final Counter won;
+    private final Counter timeouts;
+
+    public HedgedCaller(String name, Duration timeout, boolean hedging, Duration hedgeDelay, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.timeout = timeout;
+        this.hedging = hedging;
+        this.hedgeDelay = hedgeDelay;
+        this.attemptLatency = Timer.builder("hedge.attempt").tag("name", name)
+                .publishPercentiles(0.95)
+                .register(meterRegistry);
+        this.launched = Counter.builder("hedge.launched").tag("name", name).register(meterRegistry);
+        this.won = Counter.builder("hedge.won").tag("name", name).register(meterRegistry);
+        this.timeouts = Counter.builder("hedge.timeouts").tag("name", name).register(meterRegistry);
+    }
+
+    /**
+     * @throws DeadlineExceededException if no attempt succeeds within the timeout
+     * @throws IOException or RuntimeException as thrown by the last failing attempt
+     */
+    public <T> T call(Callable<T> task) throws IOException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(1);
+        List<Future<?>> attempts = new ArrayList<>(2);
+        attempts.add(executor.submit(() -> attempt(task, winner, pending, false)));
+        try {
+            if (hedging) {
+                long delay = Math.min(currentHedgeDelay().toNanos(), deadline - System.nanoTime());
+                try {
+                    return winner.get(delay, TimeUnit.NANOSECONDS);
+                } catch (TimeoutException e) {
+                    pending.incrementAndGet();
+                    launched.increment();
+                    attempts.add(executor.submit(() -> attempt(task, winner, pending, true)));
+                }
+            }
+            return winner.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            throw new DeadlineExceededException(name, timeout);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for " + name);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            attempts.forEach(attempt -> attempt.cancel(true));
+        }
+    }
+
+    // p95 of recent successful attempts once there are enough of them, otherwise the configured delay
+    Duration currentHedgeDelay() {
+        if (attemptLatency.count() >= MIN_SAMPLES_FOR_P95) {
+            for (ValueAtPercentile percentile : attemptLatency.takeSnapshot().percentileValues()) {
+                if (percentile.percentile() == 0.95 && percentile.value() > 0) {
+                    return Duration.ofNanos((long) percentile.value(TimeUnit.NANOSECONDS));
+                }
+            }
+        }
+        return hedgeDelay;
+    }
+
+    private <T> void attempt(Callable<T> task, CompletableFuture<T> winner, AtomicInteger pending, boolean hedge) {
+        long start = System.nanoTime();
+        try {
+            T result = task.call();
+            attemptLatency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            if (winner.complete(result) && hedge) {
+                won.increment();
+            }
+        } catch (Throwable e) {
+            // Only the last attempt standing decides the failure; an earlier one may still succeed
+            if (pending.decrementAndGet() == 0) {
+                winner.completeExceptionally(e);
+            }
+        }
+    }
+}
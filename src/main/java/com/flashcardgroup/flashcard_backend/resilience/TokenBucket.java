@@ -0,0 +1,62 @@
+package com.flashcardgroup.flashcard_backend.resilience;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token-bucket rate limiter: tokens refill continuously at ratePerSecond up to capacity, so short bursts
+ * of up to capacity calls go through at once while the long-run rate stays at ratePerSecond. Unlike a
+ * Bulkhead it limits how often a downstream is called, not how many calls are in flight.
+ */
+public class TokenBucket {
+
+    private final double ratePerNano;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+    private final Timer waitTimer;
+
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(String name, double ratePerSecond, int capacity, MeterRegistry meterRegistry) {
+        this(name, ratePerSecond, capacity, meterRegistry, System::nanoTime);
+    }
+
+    TokenBucket(String name, double ratePerSecond, int capacity, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        this.ratePerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(1, capacity);
+        this.nanoClock = nanoClock;
+        this.tokens = this.capacity;
+        this.refilledAt = nanoClock.getAsLong();
+        this.waitTimer = Timer.builder("ratelimit.wait").tag("name", name).register(meterRegistry);
+    }
+
+    /** Blocks until a token is available and takes it. */
+    public void acquire() throws InterruptedException {
+        long start = System.nanoTime();
+        long waitNanos;
+        while ((waitNanos = tryAcquire()) > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Takes a token if one is available.
+     *
+     * @return 0 if a token was taken, otherwise roughly how many nanoseconds until the next one
+     */
+    synchronized long tryAcquire() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * ratePerNano);
+        refilledAt = now;
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) / ratePerNano));
+    }
+}
@@ -0,0 +1,80 @@
+package com.flashcardgroup.flashcard_backend.scheduling;
+
+/**
+ * FSRS-4.5 with the published default weights and a binary grade (Again / Good).
+ * stability is in days; difficulty ranges 1..10. Intervals target desiredRetention.
+ */
+public final class FsrsAlgorithm implements SchedulingAlgorithm {
+
+    public static final double DEFAULT_RETENTION = 0.9;
+
+    private static final double[] W = {
+            0.4872, 1.4003, 3.7145, 13.8206, 5.1618, 1.2298, 0.8975, 0.031, 1.6474,
+            0.1367, 1.0461, 2.1072, 0.0793, 0.3246, 1.587, 0.2272, 2.8755
+    };
+    private static final double DECAY = -0.5;
+    private static final double FACTOR = 19.0 / 81.0;
+    private static final int AGAIN = 1;
+    private static final int GOOD = 3;
+
+    private final double desiredRetention;
+
+    public FsrsAlgorithm(double desiredRetention) {
+        if (desiredRetention <= 0 || desiredRetention >= 1) {
+            throw new IllegalArgumentException("desiredRetention must be between 0 and 1: " + desiredRetention);
+        }
+        this.desiredRetention = desiredRetention;
+    }
+
+    public double desiredRetention() {
+        return desiredRetention;
+    }
+
+    @Override
+    public SchedulingAlgorithmType type() {
+        return SchedulingAlgorithmType.FSRS;
+    }
+
+    @Override
+    public ReviewState review(ReviewState current, boolean remembered, long reviewedAtSeconds) {
+        int grade = remembered ? GOOD : AGAIN;
+        int stage = current.nextStage(remembered);
+
+        if (current.stability() == null) {
+            return new ReviewState(stage, reviewedAtSeconds, W[grade - 1], initialDifficulty(grade));
+        }
+
+        double s = current.stability();
+        double d = current.difficulty() != null ? current.difficulty() : initialDifficulty(GOOD);
+        double elapsedDays = Math.max(0, (reviewedAtSeconds - current.lastReviewed()) / (double) DAY);
+        double r = retrievability(elapsedDays, s);
+
+        double nextS = remembered
+                ? s * (Math.exp(W[8]) * (11 - d) * Math.pow(s, -W[9]) * (Math.exp(W[10] * (1 - r)) - 1) + 1)
+                : Math.min(s, W[11] * Math.pow(d, -W[12]) * (Math.pow(s + 1, W[13]) - 1) * Math.exp(W[14] * (1 - r)));
+        double nextD = clampDifficulty(W[7] * initialDifficulty(GOOD) + (1 - W[7]) * (d - W[6] * (grade - GOOD)));
+
+        return new ReviewState(stage, reviewedAtSeconds, nextS, nextD);
+    }
+
+    @Override
+    public long nextReviewAt(ReviewState state) {
+        double s = state.stability() != null
+                ? state.stability()
+                : LeitnerAlgorithm.intervalSeconds(state.stage()) / (double) DAY;
+        double days = Math.max(1, s / FACTOR * (Math.pow(desiredRetention, 1 / DECAY) - 1));
+        return state.lastReviewed() + Math.round(days * DAY);
+    }
+
+    private static double retrievability(double elapsedDays, double stability) {
+        return Math.pow(1 + FACTOR * elapsedDays / stability, DECAY);
+    }
+
+    private static double initialDifficulty(int grade) {
+        return clampDifficulty(W[4] - (grade - GOOD) * W[5]);
+    }
+
+    private static double clampDifficulty(double d) {
+        return Math.min(10, Math.max(1, d));
+    }
+}
@@ -0,0 +1,40 @@
+package com.flashcardgroup.flashcard_backend.scheduling;
+
+// Fixed six-box schedule; the original review intervals of the app
+public final class LeitnerAlgorithm implements SchedulingAlgorithm {
+
+    public static final LeitnerAlgorithm INSTANCE = new LeitnerAlgorithm();
+
+    private static final long[] REVIEW_INTERVALS = {
+            DAY,            // stage 1: 1 day
+            4L * DAY,       // stage 2: 4 days
+            7L * DAY,       // stage 3: 7 days
+            14L * DAY,      // stage 4: 14 days
+            60L * DAY,      // stage 5: 60 days
+            180L * DAY      // stage 6: 6 months approx
+    };
+
+    private LeitnerAlgorithm() {}
+
+    public static long intervalSeconds(int stage) {
+        if (stage < ReviewState.MIN_STAGE || stage > ReviewState.MAX_STAGE) {
+            throw new IllegalStateException("Review interval not found for stage " + stage);
+        }
+        return REVIEW_INTERVALS[stage - 1];
+    }
+
+    @Override
+    public SchedulingAlgorithmType type() {
+        return SchedulingAlgorithmType.LEITNER;
+    }
+
+    @Override
+    public ReviewState review(ReviewState current, boolean remembered, long reviewedAtSeconds) {
+        return new ReviewState(current.nextStage(remembered), reviewedAtSeconds, current.stability(), current.difficulty());
+    }
+
+    @Override
+    public long nextReviewAt(ReviewState state) {
+        return state.lastReviewed() + intervalSeconds(state.stage());
+    }
+}
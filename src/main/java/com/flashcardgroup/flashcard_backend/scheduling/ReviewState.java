@@ -0,0 +1,20 @@
+package com.flashcardgroup.flashcard_backend.scheduling;
+
+/**
+ * Scheduling state of one card.
+ *
+ * @param stage        display stage 1..6; the Leitner box for LEITNER decks
+ * @param lastReviewed UNIX seconds of the last review
+ * @param stability    days; SM-2 current interval or FSRS stability, null for a card never reviewed under them
+ * @param difficulty   SM-2 ease factor or FSRS difficulty (1..10), null until first set
+ */
+public record ReviewState(int stage, long lastReviewed, Double stability, Double difficulty) {
+
+    public static final int MIN_STAGE = 1;
+    public static final int MAX_STAGE = 6;
+
+    // Stage moves up when remembered, down otherwise, clamped to MIN_STAGE..MAX_STAGE
+    public int nextStage(boolean remembered) {
+        return remembered ? Math.min(stage + 1, MAX_STAGE) : Math.max(stage - 1, MIN_STAGE);
+    }
+}
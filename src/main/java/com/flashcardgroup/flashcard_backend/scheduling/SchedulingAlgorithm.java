@@ -0,0 +1,18 @@
+package com.flashcardgroup.flashcard_backend.scheduling;
+
+/**
+ * Spaced-repetition schedule. Implementations are stateless and thread-safe, so a single
+ * instance can be shared by request threads and the bulk rescheduling job.
+ */
+public interface SchedulingAlgorithm {
+
+    long DAY = 86400;
+
+    SchedulingAlgorithmType type();
+
+    // State after a review at reviewedAtSeconds
+    ReviewState review(ReviewState current, boolean remembered, long reviewedAtSeconds);
+
+    // UNIX seconds at which a card in this state becomes due
+    long nextReviewAt(ReviewState state);
+}
@@ -0,0 +1,8 @@
+package com.flashcardgroup.flashcard_backend.scheduling;
+
+// Scheduling algorithm a deck uses; stored by name in decks.scheduling_algorithm
+public enum SchedulingAlgorithmType {
+    LEITNER,
+    SM2,
+    FSRS
+}
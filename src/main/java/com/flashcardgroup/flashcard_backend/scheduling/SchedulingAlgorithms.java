@@ -0,0 +1,21 @@
+package com.flashcardgroup.flashcard_backend.scheduling;
+
+import com.flashcardgroup.flashcard_backend.model.Deck;
+
+// Resolves the algorithm instance configured on a deck
+public final class SchedulingAlgorithms {
+
+    private SchedulingAlgorithms() {}
+
+    public static SchedulingAlgorithm of(SchedulingAlgorithmType type, Double desiredRetention) {
+        return switch (type) {
+            case LEITNER -> LeitnerAlgorithm.INSTANCE;
+            case SM2 -> Sm2Algorithm.INSTANCE;
+            case FSRS -> new FsrsAlgorithm(desiredRetention != null ? desiredRetention : FsrsAlgorithm.DEFAULT_RETENTION);
+        };
+    }
+
+    public static SchedulingAlgorithm forDeck(Deck deck) {
+        return of(deck.getSchedulingAlgorithm(), deck.getDesiredRetention());
+    }
+}
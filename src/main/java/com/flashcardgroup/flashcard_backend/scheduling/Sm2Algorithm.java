@@ -0,0 +1,49 @@
+package com.flashcardgroup.flashcard_backend.scheduling;
+
+/**
+ * SuperMemo-2 with a binary grade: remembered counts as quality 4, forgotten as quality 1.
+ * stability holds the current interval in days and difficulty the ease factor.
+ */
+public final class Sm2Algorithm implements SchedulingAlgorithm {
+
+    public static final Sm2Algorithm INSTANCE = new Sm2Algorithm();
+
+    static final double DEFAULT_EASE = 2.5;
+    static final double MIN_EASE = 1.3;
+    private static final int QUALITY_REMEMBERED = 4;
+    private static final int QUALITY_FORGOTTEN = 1;
+
+    private Sm2Algorithm() {}
+
+    @Override
+    public SchedulingAlgorithmType type() {
+        return SchedulingAlgorithmType.SM2;
+    }
+
+    @Override
+    public ReviewState review(ReviewState current, boolean remembered, long reviewedAtSeconds) {
+        double ease = current.difficulty() != null ? current.difficulty() : DEFAULT_EASE;
+        int quality = remembered ? QUALITY_REMEMBERED : QUALITY_FORGOTTEN;
+
+        double interval;
+        if (!remembered || current.stability() == null) {
+            // Lapse, or first repetition of a new card
+            interval = 1;
+        } else if (current.stability() <= 1) {
+            interval = 6;
+        } else {
+            interval = Math.round(current.stability() * ease);
+        }
+
+        double nextEase = ease + (0.1 - (5 - quality) * (0.08 + (5 - quality) * 0.02));
+        return new ReviewState(current.nextStage(remembered), reviewedAtSeconds, interval, Math.max(MIN_EASE, nextEase));
+    }
+
+    @Override
+    public long nextReviewAt(ReviewState state) {
+        double days = state.stability() != null
+                ? state.stability()
+                : LeitnerAlgorithm.intervalSeconds(state.stage()) / (double) DAY;
+        return state.lastReviewed() + Math.round(days * DAY);
+    }
+}
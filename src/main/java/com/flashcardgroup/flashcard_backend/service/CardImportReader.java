@@ -0,0 +1,212 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcardgroup.flashcard_backend.dto.FlashcardDTO;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Pull parser over an uploaded card file. Cards are read one at a time so an import never holds
+ * more than the current batch in memory. CardID and DeckID of the parsed cards are ignored.
+ */
+interface CardImportReader extends Closeable {
+
+    // Next card, or null at end of input
+    FlashcardDTO next() throws IOException;
+
+    static CardImportReader open(CardImportService.Format format, InputStream in, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case NDJSON -> new NdjsonReader(in, objectMapper);
+            case CSV -> new CsvReader(utf8(in), objectMapper);
+            case ANKI -> new AnkiReader(utf8(in));
+        };
+    }
+
+    private static BufferedReader utf8(InputStream in) {
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s;
+    }
+
+    // One FlashcardDTO JSON object per line, as written by the NDJSON export
+    final class NdjsonReader implements CardImportReader {
+        private final MappingIterator<FlashcardDTO> it;
+
+        NdjsonReader(InputStream in, ObjectMapper objectMapper) throws IOException {
+            this.it = objectMapper.readerFor(FlashcardDTO.class).readValues(in);
+        }
+
+        @Override
+        public FlashcardDTO next() throws IOException {
+            return it.hasNextValue() ? it.nextValue() : null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            it.close();
+        }
+    }
+
+    // RFC 4180 CSV with a header row; columns are matched by the names used in the CSV export
+    final class CsvReader implements CardImportReader {
+        private final Reader in;
+        private final ObjectMapper objectMapper;
+        private Map<String, Integer> columns;
+
+        CsvReader(Reader in, ObjectMapper objectMapper) {
+            this.in = in;
+            this.objectMapper = objectMapper;
+        }
+
+        @Override
+        public FlashcardDTO next() throws IOException {
+            if (columns == null) {
+                List<String> header = readRecord();
+                if (header == null) {
+                    return null;
+                }
+                columns = new HashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    // Strip a UTF-8 BOM that spreadsheet tools like to prepend
+                    String name = i == 0 ? header.get(i).replace("\uFEFF", "") : header.get(i);
+                    columns.put(name.trim().toLowerCase(Locale.ROOT), i);
+                }
+                if (!columns.containsKey("front") || !columns.containsKey("back")) {
+                    throw new IllegalArgumentException("CSV header must contain Front and Back columns.");
+                }
+            }
+
+            List<String> record;
+            do {
+                record = readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isEmpty());
+
+            String translations = field(record, "translations");
+            return new FlashcardDTO(
+                    null,
+                    null,
+                    field(record, "front"),
+                    field(record, "back"),
+                    null,
+                    null,
+                    field(record, "metadata"),
+                    field(record, "example"),
+                    field(record, "occurrenceindices"),
+                    field(record, "synonyms"),
+                    field(record, "partofspeech"),
+                    field(record, "classifiers"),
+                    translations == null ? Map.of() : objectMapper.readValue(translations, new TypeReference<Map<String, String>>() {}),
+                    field(record, "imageno")
+            );
+        }
+
+        private String field(List<String> record, String column) {
+            Integer i = columns.get(column);
+            return i == null || i >= record.size() ? null : blankToNull(record.get(i));
+        }
+
+        private List<String> readRecord() throws IOException {
+            int c = in.read();
+            if (c < 0) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c < 0) {
+                        throw new IllegalArgumentException("Unterminated quoted CSV field.");
+                    }
+                    if (c == '"') {
+                        in.mark(1);
+                        int peek = in.read();
+                        if (peek == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            in.reset();
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c < 0) {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+                c = in.read();
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    /**
+     * Anki "Notes in Plain Text" export: tab-separated front, back and optional example per line.
+     * Lines starting with '#' are file headers (#separator:tab, #html:true, ...) and are skipped.
+     */
+    final class AnkiReader implements CardImportReader {
+        private final BufferedReader in;
+
+        AnkiReader(BufferedReader in) {
+            this.in = in;
+        }
+
+        @Override
+        public FlashcardDTO next() throws IOException {
+            String line;
+            do {
+                line = in.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank() || line.startsWith("#"));
+
+            String[] parts = line.split("\t", -1);
+            return new FlashcardDTO(
+                    null, null,
+                    blankToNull(parts[0]),
+                    parts.length > 1 ? blankToNull(parts[1]) : null,
+                    null, null, null,
+                    parts.length > 2 ? blankToNull(parts[2]) : null,
+                    null, null, null, null,
+                    Map.of(),
+                    null
+            );
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcardgroup.flashcard_backend.dto.CardImportResultDTO;
+import com.flashcardgroup.flashcard_backend.dto.FlashcardDTO;
+import com.flashcardgroup.flashcard_backend.model.Deck;
+import com.flashcardgroup.flashcard_backend.model.Flashcard;
+import com.flashcardgroup.flashcard_backend.repo.FlashcardRepository;
+import com.flashcardgroup.flashcard_backend.scheduling.ReviewState;
+import com.flashcardgroup.flashcard_backend.scheduling.SchedulingAlgorithm;
+import com.flashcardgroup.flashcard_backend.scheduling.SchedulingAlgorithms;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Bulk card import. The upload is parsed as a stream, de-duplicated by normalized back hash against
+ * the deck's existing cards (loaded with one query) and within the file, and written with JDBC batches of
+ * batch-size cards: one batched INSERT for the cards, reading back their generated ids, and one for
+ * their translations. Each batch commits on its own, so progress is visible while a large deck loads,
+ * and callers that pass a progress listener are told the running totals after every commit.
+ */
+@Service
+public class CardImportService {
+
+    public enum Format { CSV, NDJSON, ANKI }
+
+    private static final Logger log = LoggerFactory.getLogger(CardImportService.class);
+
+    private static final String INSERT_CARD =
+            "INSERT INTO flashcards (deckid, front, back, back_hash, last_reviewed, stage, next_review_at, metadata, example, " +
+            "occurrence_indices, synonyms, part_of_speech, classifiers, image_no) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_TRANSLATION =
+            "INSERT INTO flashcard_translations (cardid, lang, translation) VALUES (?, ?, ?)";
+
+    private final FlashcardRepository cardRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final EnrichmentQueue enrichmentQueue;
+    private final int batchSize;
+
+    public CardImportService(
+            FlashcardRepository cardRepo,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ObjectMapper objectMapper,
+            EnrichmentQueue enrichmentQueue,
+            @Value("${app.import.batch-size:1000}") int batchSize
+    ) {
+        this.cardRepo = cardRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.enrichmentQueue = enrichmentQueue;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Imports every card of the upload into the deck.
+     *
+     * @throws IllegalArgumentException if the file cannot be parsed in the given format
+     */
+    public CardImportResultDTO importCards(Deck deck, Format format, InputStream in) throws IOException {
+        return importCards(deck, format, in, totals -> {});
+    }
+
+    /**
+     * Imports every card of the upload into the deck, passing the running totals to progress after
+     * each batch is committed (the last call carries the same totals as the result).
+     *
+     * @throws IllegalArgumentException if the file cannot be parsed in the given format
+     */
+    public CardImportResultDTO importCards(Deck deck, Format format, InputStream in,
+                                           Consumer<CardImportResultDTO> progress) throws IOException {
+        long now = Instant.now().getEpochSecond();
+        SchedulingAlgorithm algorithm = SchedulingAlgorithms.forDeck(deck);
+        long firstReviewAt = algorithm.nextReviewAt(new ReviewState(ReviewState.MIN_STAGE, now, null, null));
+
+        Set<String> seenBackHashes = new HashSet<>(cardRepo.findBackHashesByDeckId(deck.getDeckId()));
+        List<FlashcardDTO> batch = new ArrayList<>(batchSize);
+        int imported = 0;
+        int duplicates = 0;
+        int invalid = 0;
+
+        try (CardImportReader reader = CardImportReader.open(format, in, objectMapper)) {
+            FlashcardDTO card;
+            while ((card = nextCard(reader)) != null) {
+                if (card.Front() == null || card.Front().isBlank() || card.Back() == null || card.Back().isBlank()) {
+                    invalid++;
+                    continue;
+                }
+                if (!seenBackHashes.add(Flashcard.hashBack(card.Back()))) {
+                    duplicates++;
+                    continue;
+                }
+                batch.add(card);
+                if (batch.size() == batchSize) {
+                    imported += insertBatch(deck.getDeckId(), batch, now, firstReviewAt);
+                    batch.clear();
+                    log.info("Import into deck {}: {} cards imported, {} duplicates, {} invalid so far",
+                            deck.getDeckId(), imported, duplicates, invalid);
+                    progress.accept(new CardImportResultDTO(imported, duplicates, invalid));
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            imported += insertBatch(deck.getDeckId(), batch, now, firstReviewAt);
+        }
+
+        log.info("Import into deck {} finished: {} cards imported, {} duplicates, {} invalid",
+                deck.getDeckId(), imported, duplicates, invalid);
+        CardImportResultDTO result = new CardImportResultDTO(imported, duplicates, invalid);
+        progress.accept(result);
+        return result;
+    }
+
+    private static FlashcardDTO nextCard(CardImportReader reader) throws IOException {
+        try {
+            return reader.next();
+        } catch (JacksonException e) {
+            throw new IllegalArgumentException("Malformed card data: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private int insertBatch(int deckId, List<FlashcardDTO> cards, long now, long firstReviewAt) {
+        Integer inserted = transactionTemplate.execute(status -> {
+            List<Integer> ids = jdbcTemplate.execute((ConnectionCallback<List<Integer>>) con -> {
+                try (PreparedStatement ps = con.prepareStatement(INSERT_CARD, Statement.RETURN_GENERATED_KEYS)) {
+                    for (FlashcardDTO card : cards) {
+                        ps.setInt(1, deckId);
+                        ps.setString(2, card.Front());
+                        ps.setString(3, card.Back());
+                        ps.setString(4, Flashcard.hashBack(card.Back()));
+                        ps.setLong(5, now);
+                        ps.setInt(6, ReviewState.MIN_STAGE);
+                        ps.setLong(7, firstReviewAt);
+                        setNullableString(ps, 8, card.Metadata());
+                        setNullableString(ps, 9, card.Example());
+                        setNullableString(ps, 10, card.OccurrenceIndices());
+                        setNullableString(ps, 11, card.Synonyms());
+                        setNullableString(ps, 12, card.PartOfSpeech());
+                        setNullableString(ps, 13, card.Classifiers());
+                        setNullableString(ps, 14, card.ImageNo());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+
+                    List<Integer> generated = new ArrayList<>(cards.size());
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        while (keys.next()) {
+                            generated.add(keys.getInt(1));
+                        }
+                    }
+                    if (generated.size() != cards.size()) {
+                        throw new IllegalStateException("Expected " + cards.size() + " generated card ids, got " + generated.size());
+                    }
+                    return generated;
+                }
+            });
+
+            List<Object[]> translations = new ArrayList<>();
+            for (int i = 0; i < cards.size(); i++) {
+                Map<String, String> cardTranslations = cards.get(i).Translations();
+                if (cardTranslations == null) {
+                    continue;
+                }
+                for (Map.Entry<String, String> t : cardTranslations.entrySet()) {
+                    translations.add(new Object[]{ids.get(i), t.getKey(), t.getValue()});
+                }
+            }
+            if (!translations.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_TRANSLATION, translations);
+            }
+
+            List<Integer> toEnrich = new ArrayList<>();
+            for (int i = 0; i < cards.size(); i++) {
+                FlashcardDTO card = cards.get(i);
+                if (EnrichmentQueue.needsEnrichment(card.Example(), card.Synonyms(), card.PartOfSpeech())) {
+                    toEnrich.add(ids.get(i));
+                }
+            }
+            enrichmentQueue.enqueue(toEnrich);
+            return cards.size();
+        });
+        return inserted != null ? inserted : 0;
+    }
+
+    private static void setNullableString(PreparedStatement ps, int index, String value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+        } else {
+            ps.setString(index, value);
+        }
+    }
+}
@@ -1,17 +1,43 @@
 // src/main/java/com/example/flashcards/service/DataService.java
 package com.flashcardgroup.flashcard_backend.service;
 
+import com.flashcardgroup.flashcard_backend.dto.DeckDTO;
+import com.flashcardgroup.flashcard_backend.dto.FlashcardDTO;
+import com.flashcardgroup.flashcard_backend.dto.FlashcardExportRow;
+import com.flashcardgroup.flashcard_backend.dto.ReviewOutcomeDTO;
+import com.flashcardgroup.flashcard_backend.dto.ReviewSubmissionDTO;
 import com.flashcardgroup.flashcard_backend.model.Deck;
 import com.flashcardgroup.flashcard_backend.model.Flashcard;
 import com.flashcardgroup.flashcard_backend.model.User;
 import com.flashcardgroup.flashcard_backend.repo.DeckRepository;
 import com.flashcardgroup.flashcard_backend.repo.FlashcardRepository;
 import com.flashcardgroup.flashcard_backend.repo.UserRepository;
+import com.flashcardgroup.flashcard_backend.scheduling.LeitnerAlgorithm;
+import com.flashcardgroup.flashcard_backend.scheduling.ReviewState;
+import com.flashcardgroup.flashcard_backend.scheduling.SchedulingAlgorithm;
+import com.flashcardgroup.flashcard_backend.scheduling.SchedulingAlgorithmType;
+import com.flashcardgroup.flashcard_backend.scheduling.SchedulingAlgorithms;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class DataService {
@@ -19,14 +45,22 @@ public class DataService {
     private final UserRepository userRepo;
     private final DeckRepository deckRepo;
     private final FlashcardRepository cardRepo;
+    private final ReviewEventBuffer reviewEvents;
+    private final ReschedulingJob reschedulingJob;
+    private final EnrichmentQueue enrichmentQueue;
 
-    public DataService(UserRepository userRepo, DeckRepository deckRepo, FlashcardRepository cardRepo) {
+    public DataService(UserRepository userRepo, DeckRepository deckRepo, FlashcardRepository cardRepo,
+                       ReviewEventBuffer reviewEvents, ReschedulingJob reschedulingJob, EnrichmentQueue enrichmentQueue) {
         this.userRepo = userRepo;
         this.deckRepo = deckRepo;
         this.cardRepo = cardRepo;
+        this.reviewEvents = reviewEvents;
+        this.reschedulingJob = reschedulingJob;
+        this.enrichmentQueue = enrichmentQueue;
     }
 
     // getAllUsers
+    @Transactional(readOnly = true)
     public List<User> getAllUsers() {
         return userRepo.findAll();
     }
@@ -37,18 +71,27 @@ public class DataService {
         return userRepo.save(user);
     }
 
-    // addFlashcard
+    // addFlashcard; new cards missing AI-generated fields are queued for background enrichment
     @Transactional
     public Flashcard addFlashcard(Flashcard card) {
-        return cardRepo.save(card);
+        boolean isNew = card.getCardId() == null;
+        Flashcard saved = cardRepo.save(card);
+        if (isNew && EnrichmentQueue.needsEnrichment(saved.getExample(), saved.getSynonyms(), saved.getPartOfSpeech())) {
+            enrichmentQueue.enqueue(List.of(saved.getCardId()));
+        }
+        return saved;
     }
 
-    // getReviewableCards(deckID) using the entity method shouldReview()
+    // getReviewableCards(deckID) filtered in SQL on the persisted next_review_at
+    @Transactional(readOnly = true)
     public List<Flashcard> getReviewableCards(Integer deckId) {
-        return cardRepo.findByDeck_DeckId(deckId)
-                .stream()
-                .filter(Flashcard::shouldReview)
-                .toList();
+        return cardRepo.findDueByDeckId(deckId, Instant.now().getEpochSecond());
+    }
+
+    // getDueCardsForUser(userID) across all decks, oldest due first, one keyset page at a time
+    @Transactional(readOnly = true)
+    public List<Flashcard> getDueCardsForUser(Integer userId, long afterDue, int afterId, int limit) {
+        return cardRepo.findDueByUserIdAfter(userId, Instant.now().getEpochSecond(), afterDue, afterId, Limit.of(limit));
     }
 
     // getFlashcardById
@@ -62,6 +105,7 @@ public class DataService {
     }
 
     // getUserById
+    @Transactional(readOnly = true)
     public Optional<User> getUserById(Long userId) {
         return userRepo.findById(userId);
     }
@@ -71,28 +115,193 @@ public class DataService {
     public void updateFlashcardReview(Long cardId, long lastReviewedSeconds, int stage) {
         Flashcard card = cardRepo.findById(cardId)
                 .orElseThrow(() -> new IllegalArgumentException("Card not found: " + cardId));
-        card.setLastReviewed(lastReviewedSeconds);
-        card.setStage(stage);
+        card.applyState(SchedulingAlgorithms.forDeck(card.getDeck()),
+                new ReviewState(stage, lastReviewedSeconds, card.getStability(), card.getDifficulty()));
         cardRepo.save(card);
     }
 
+    // recordReview - Leitner decks take a single conditional UPDATE without loading the card;
+    // other algorithms need the card's state, so they fall back to load-and-apply under a row lock,
+    // which keeps concurrent reviews of one card from overwriting each other. False when the card does not exist.
+    @Transactional
+    public boolean recordReview(Integer cardId, boolean remembered) {
+        long now = Instant.now().getEpochSecond();
+        int updated = remembered ? cardRepo.promote(cardId, now) : cardRepo.demote(cardId, now);
+        if (updated == 0) {
+            Flashcard card = cardRepo.findByCardIdForUpdate(cardId);
+            if (card == null) {
+                return false;
+            }
+            card.applyReview(SchedulingAlgorithms.forDeck(card.getDeck()), remembered, now);
+        }
+        reviewEvents.record(cardId, remembered, now);
+        return true;
+    }
+
+    // applyReviews - applies a whole review session in one transaction; the dirty cards are
+    // flushed once at commit, which Hibernate groups into JDBC batches (hibernate.jdbc.batch_size)
+    @Transactional
+    public List<ReviewOutcomeDTO> applyReviews(List<ReviewSubmissionDTO> reviews) {
+        long now = Instant.now().getEpochSecond();
+        Set<Integer> ids = reviews.stream()
+                .map(ReviewSubmissionDTO::CardID)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Integer, Flashcard> cards = cardRepo.findByCardIdIn(ids).stream()
+                .collect(Collectors.toMap(Flashcard::getCardId, Function.identity()));
+
+        List<ReviewOutcomeDTO> outcomes = new ArrayList<>(reviews.size());
+        for (ReviewSubmissionDTO review : reviews) {
+            if (review.CardID() == null || review.Remembered() == null) {
+                outcomes.add(ReviewOutcomeDTO.of(review.CardID(), ReviewOutcomeDTO.INVALID));
+                continue;
+            }
+            Flashcard card = cards.get(review.CardID());
+            if (card == null) {
+                outcomes.add(ReviewOutcomeDTO.of(review.CardID(), ReviewOutcomeDTO.NOT_FOUND));
+                continue;
+            }
+            // Clients replay offline sessions; never trust a timestamp from the future
+            long reviewedAt = (review.ReviewedAt() == null) ? now : Math.min(review.ReviewedAt(), now);
+            if (reviewedAt < card.getLastReviewed()) {
+                outcomes.add(ReviewOutcomeDTO.of(review.CardID(), ReviewOutcomeDTO.STALE));
+                continue;
+            }
+            card.applyReview(SchedulingAlgorithms.forDeck(card.getDeck()), review.Remembered(), reviewedAt);
+            reviewEvents.record(card.getCardId(), review.Remembered(), reviewedAt);
+            outcomes.add(new ReviewOutcomeDTO(card.getCardId(), ReviewOutcomeDTO.UPDATED, card.getStage(), card.getNextReviewAt()));
+        }
+        return outcomes;
+    }
+
     // getAllCards(deckID)
+    @Transactional(readOnly = true)
     public List<Flashcard> getAllCards(Integer deckId) {
         return cardRepo.findByDeck_DeckId(deckId);
     }
 
+    // getCardsPage(deckID) - selected fields only, cardId > afterId, up to limit cards (null = all)
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getCardsPage(Integer deckId, Set<String> fields, int afterId, Integer limit) {
+        return cardRepo.findProjectedByDeckId(deckId, fields, afterId, limit);
+    }
+
+    // exportDeck - streams every card of a deck, with translations, to the sink in cardid order.
+    // Reads a forward-only cursor inside a read-only transaction, so memory stays flat for any deck size.
+    @Transactional(readOnly = true)
+    public void exportDeck(Integer deckId, Consumer<FlashcardDTO> sink) {
+        try (Stream<FlashcardExportRow> rows = cardRepo.streamExportRows(deckId)) {
+            FlashcardExportRow current = null;
+            Map<String, String> translations = new LinkedHashMap<>();
+            for (Iterator<FlashcardExportRow> it = rows.iterator(); it.hasNext(); ) {
+                FlashcardExportRow row = it.next();
+                if (current != null && !current.cardId().equals(row.cardId())) {
+                    sink.accept(toExportDTO(current, translations));
+                    translations = new LinkedHashMap<>();
+                }
+                current = row;
+                if (row.lang() != null) {
+                    translations.put(row.lang(), row.translation());
+                }
+            }
+            if (current != null) {
+                sink.accept(toExportDTO(current, translations));
+            }
+        }
+    }
+
+    private static FlashcardDTO toExportDTO(FlashcardExportRow row, Map<String, String> translations) {
+        return new FlashcardDTO(
+                row.cardId(),
+                row.deckId(),
+                row.front(),
+                row.back(),
+                row.lastReviewed(),
+                row.stage(),
+                row.metadata(),
+                row.example(),
+                row.occurrenceIndices(),
+                row.synonyms(),
+                row.partOfSpeech(),
+                row.classifiers(),
+                translations,
+                row.imageNo()
+        );
+    }
+
+    // isDeckOwnedBy
+    @Transactional(readOnly = true)
+    public boolean isDeckOwnedBy(Integer deckId, Integer userId) {
+        return deckRepo.existsByDeckIdAndUser_UserId(deckId, userId);
+    }
+
     // getDecksByUserId
+    @Transactional(readOnly = true)
     public List<Deck> getDecksByUserId(Integer userId) {
         return deckRepo.findByUser_UserId(userId);
     }
 
+    // changeDeckScheduling - switches a deck's algorithm/parameters and, once committed,
+    // recomputes next_review_at for all its cards in the background. False when the deck is not the user's.
+    @Transactional
+    public boolean changeDeckScheduling(Integer deckId, Integer userId, SchedulingAlgorithmType type, Double desiredRetention) {
+        Optional<Deck> found = deckRepo.findById(Long.valueOf(deckId));
+        if (found.isEmpty() || !found.get().getUser().getUserId().equals(userId)) {
+            return false;
+        }
+        Deck deck = found.get();
+        boolean algorithmChanged = deck.getSchedulingAlgorithm() != type;
+        deck.setSchedulingAlgorithm(type);
+        deck.setDesiredRetention(desiredRetention);
+        SchedulingAlgorithm algorithm = SchedulingAlgorithms.forDeck(deck);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                reschedulingJob.submit(deckId, algorithm, algorithmChanged);
+            }
+        });
+        return true;
+    }
+
+    // getDeckSummariesByUserId - name, description, total and due card counts per deck
+    @Transactional(readOnly = true)
+    public List<DeckDTO> getDeckSummariesByUserId(Integer userId) {
+        return deckRepo.findSummariesByUserId(userId, Instant.now().getEpochSecond());
+    }
+
     // getDeckById - new method needed for flashcard creation
     public Optional<Deck> getDeckById(Integer deckId) {
         return deckRepo.findById(Long.valueOf(deckId));
     }
 
+    // backfillNextReviewAt - fills next_review_at for rows created before the column existed
+    @Transactional
+    public int backfillNextReviewAt() {
+        int updated = 0;
+        for (int stage = ReviewState.MIN_STAGE; stage <= ReviewState.MAX_STAGE; stage++) {
+            updated += cardRepo.backfillNextReviewAt(stage, LeitnerAlgorithm.intervalSeconds(stage));
+        }
+        return updated;
+    }
+
     // checkIfFlashcardExistsByBackAndDeckId
     public boolean checkIfFlashcardExistsByBackAndDeckId(String back, Integer deckId) {
-        return cardRepo.existsByBackAndDeck_DeckId(back, deckId);
+        return cardRepo.existsByDeck_DeckIdAndBackHash(deckId, Flashcard.hashBack(back));
+    }
+
+    // isDuplicateBack - whether e, or one of its causes, violates the unique (deckid, back_hash) key,
+    // i.e. a card with the same normalized back already exists in the deck. Other integrity violations return false.
+    public static boolean isDuplicateBack(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof ConstraintViolationException violation) {
+                // Drivers decorate the name (schema prefix, index suffix, case), so match on containment
+                String name = violation.getConstraintName() != null
+                        ? violation.getConstraintName()
+                        : violation.getSQLException() != null ? violation.getSQLException().getMessage() : null;
+                return name != null && name.toLowerCase(Locale.ROOT).contains(Flashcard.UNIQUE_BACK_CONSTRAINT);
+            }
+        }
+        return false;
     }
 }
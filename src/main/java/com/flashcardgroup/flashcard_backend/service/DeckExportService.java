@@ -0,0 +1,128 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.flashcardgroup.flashcard_backend.dto.FlashcardDTO;
+import com.flashcardgroup.flashcard_backend.resilience.Bulkhead;
+import com.flashcardgroup.flashcard_backend.resilience.Bulkheads;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Writes a deck export as NDJSON (one FlashcardDTO per line) or CSV (translations as a JSON column)
+ * straight to the response stream while the cards are read from the database cursor. An export keeps
+ * its pooled connection until the last card is written, so concurrent exports are capped by the
+ * export bulkhead (app.bulkhead.export.*) to leave the rest of the pool to regular requests.
+ */
+@Service
+public class DeckExportService {
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String contentType() { return contentType; }
+        public String extension() { return extension; }
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "CardID,DeckID,Front,Back,LastReviewed,Stage,Metadata,Example," +
+            "OccurrenceIndices,Synonyms,PartOfSpeech,Classifiers,Translations,ImageNo\r\n";
+
+    private final DataService dataService;
+    private final ObjectWriter cardWriter;
+    private final ObjectWriter translationsWriter;
+    private final Bulkhead bulkhead;
+
+    public DeckExportService(DataService dataService, ObjectMapper objectMapper, Bulkheads bulkheads) {
+        this.dataService = dataService;
+        this.cardWriter = objectMapper.writerFor(FlashcardDTO.class);
+        this.translationsWriter = objectMapper.writerFor(Map.class);
+        this.bulkhead = bulkheads.get(Bulkheads.EXPORT);
+    }
+
+    /**
+     * Claims an export slot, to be held until the export has been written.
+     *
+     * @throws com.flashcardgroup.flashcard_backend.exception.BulkheadFullException if all slots stay taken
+     */
+    public Bulkhead.Permit reserve() {
+        return bulkhead.acquire();
+    }
+
+    public void export(Integer deckId, Format format, OutputStream target) throws IOException {
+        OutputStream out = new BufferedOutputStream(target, BUFFER_SIZE);
+        boolean[] first = {true};
+        if (format == Format.CSV) {
+            out.write(CSV_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            dataService.exportDeck(deckId, card -> {
+                try {
+                    if (format == Format.NDJSON) {
+                        out.write(cardWriter.writeValueAsBytes(card));
+                        out.write('\n');
+                    } else {
+                        out.write(toCsvLine(card).getBytes(StandardCharsets.UTF_8));
+                    }
+                    // Push the first record out immediately instead of waiting for the buffer to fill
+                    if (first[0]) {
+                        out.flush();
+                        first[0] = false;
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    private String toCsvLine(FlashcardDTO card) throws IOException {
+        String translations = card.Translations().isEmpty() ? "" : translationsWriter.writeValueAsString(card.Translations());
+        return String.join(",",
+                csv(card.CardID()),
+                csv(card.DeckID()),
+                csv(card.Front()),
+                csv(card.Back()),
+                csv(card.LastReviewed()),
+                csv(card.Stage()),
+                csv(card.Metadata()),
+                csv(card.Example()),
+                csv(card.OccurrenceIndices()),
+                csv(card.Synonyms()),
+                csv(card.PartOfSpeech()),
+                csv(card.Classifiers()),
+                csv(translations),
+                csv(card.ImageNo())
+        ) + "\r\n";
+    }
+
+    // RFC 4180 quoting: wrap in quotes when needed and double embedded quotes
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String s = value.toString();
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0 && s.indexOf('\n') < 0 && s.indexOf('\r') < 0) {
+            return s;
+        }
+        return '"' + s.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,136 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.flashcardgroup.flashcard_backend.model.EnrichmentTask;
+import com.flashcardgroup.flashcard_backend.repo.EnrichmentTaskRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Durable queue of cards whose AI-generated fields still need filling, kept in enrichment_tasks.
+ * Tasks are enqueued in the same transaction that creates the cards and claimed by EnrichmentWorkerPool
+ * on any instance. Claiming skips rows another instance has locked, and a claim leases the task for
+ * app.enrichment.lease, so no two workers enrich the same card at the same time. Workers renew the lease
+ * of each task right before its lookup, so a batch may take longer than one lease to work off.
+ *
+ * Enqueuing is a no-op unless app.enrichment.enabled is set.
+ */
+@Service
+public class EnrichmentQueue {
+
+    private static final String INSERT =
+            "INSERT INTO enrichment_tasks (cardid, status, attempts, available_at, created_at) VALUES (?, ?, 0, ?, ?)";
+
+    private final EnrichmentTaskRepository taskRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration lease;
+    private final Duration retryDelay;
+    private final int maxAttempts;
+
+    public EnrichmentQueue(
+            EnrichmentTaskRepository taskRepo,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.enrichment.enabled:false}") boolean enabled,
+            @Value("${app.enrichment.lease:5m}") Duration lease,
+            @Value("${app.enrichment.retry-delay:1m}") Duration retryDelay,
+            @Value("${app.enrichment.max-attempts:5}") int maxAttempts
+    ) {
+        this.taskRepo = taskRepo;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.lease = lease;
+        this.retryDelay = retryDelay;
+        this.maxAttempts = maxAttempts;
+        Gauge.builder("enrichment.failed.tasks", taskRepo, repo -> repo.countByStatus(EnrichmentTask.Status.FAILED))
+                .register(meterRegistry);
+    }
+
+    // A card is worth a Gemini call when any of the fields the lookup fills are empty
+    public static boolean needsEnrichment(String example, String synonyms, String partOfSpeech) {
+        return isBlank(example) || isBlank(synonyms) || isBlank(partOfSpeech);
+    }
+
+    static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    /** Queues the cards for enrichment; call inside the transaction that created them. */
+    public void enqueue(Collection<Integer> cardIds) {
+        if (!enabled || cardIds.isEmpty()) {
+            return;
+        }
+        long now = Instant.now().getEpochSecond();
+        String pending = EnrichmentTask.Status.PENDING.name();
+        jdbcTemplate.batchUpdate(INSERT, cardIds.stream()
+                .map(cardId -> new Object[]{cardId, pending, now, now})
+                .toList());
+    }
+
+    /** Claims up to max due tasks for the worker, leasing each one. */
+    List<EnrichmentTask> claim(String workerId, int max) {
+        return transactionTemplate.execute(status -> {
+            long now = Instant.now().getEpochSecond();
+            List<EnrichmentTask> tasks = taskRepo.findClaimable(EnrichmentTask.Status.PENDING, now, Limit.of(max));
+            for (EnrichmentTask task : tasks) {
+                task.claim(workerId, now + lease.toSeconds());
+            }
+            return tasks;
+        });
+    }
+
+    /**
+     * Extends the lease of the worker's tasks by app.enrichment.lease from now. Returns the tasks it still
+     * holds; a task whose lease ran out and that another worker has claimed since belongs to that worker.
+     */
+    List<EnrichmentTask> renew(String workerId, Collection<EnrichmentTask> tasks) {
+        return transactionTemplate.execute(status -> {
+            long leaseUntil = Instant.now().getEpochSecond() + lease.toSeconds();
+            return tasks.stream()
+                    .filter(task -> taskRepo.renewLease(task.getTaskId(), workerId, EnrichmentTask.Status.PENDING, leaseUntil) == 1)
+                    .toList();
+        });
+    }
+
+    /** Removes the worker's finished tasks; tasks another worker has claimed since are left to it. */
+    void complete(String workerId, Collection<EnrichmentTask> tasks) {
+        transactionTemplate.executeWithoutResult(status ->
+                taskRepo.deleteHeld(taskIds(tasks), workerId, EnrichmentTask.Status.PENDING));
+    }
+
+    /**
+     * Puts the worker's tasks back with exponential backoff, or marks them FAILED after max-attempts tries.
+     * Tasks another worker has claimed since are left to it.
+     */
+    void retry(String workerId, Collection<EnrichmentTask> tasks, String error) {
+        String message = error == null ? "" : error.substring(0, Math.min(error.length(), 500));
+        transactionTemplate.executeWithoutResult(status -> {
+            long now = Instant.now().getEpochSecond();
+            for (EnrichmentTask task : taskRepo.findHeld(taskIds(tasks), workerId, EnrichmentTask.Status.PENDING)) {
+                if (task.getAttempts() >= maxAttempts) {
+                    task.fail(message);
+                } else {
+                    long backoff = retryDelay.toSeconds() << Math.min(task.getAttempts() - 1, 10);
+                    task.retryAt(now + backoff, message);
+                }
+            }
+        });
+    }
+
+    private static List<Long> taskIds(Collection<EnrichmentTask> tasks) {
+        return tasks.stream().map(EnrichmentTask::getTaskId).toList();
+    }
+}
@@ -0,0 +1,195 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.flashcardgroup.flashcard_backend.dto.LookupDTO;
+import com.flashcardgroup.flashcard_backend.model.EnrichmentTask;
+import com.flashcardgroup.flashcard_backend.resilience.TokenBucket;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fills Example, OccurrenceIndices, Synonyms and PartOfSpeech of queued cards through LookupService, off
+ * the request path. app.enrichment.workers workers per instance claim tasks from EnrichmentQueue, group
+ * the claimed cards by word so identical words cost one lookup, and wait on a shared token bucket
+ * (app.enrichment.rate-per-minute, burst app.enrichment.burst) before each lookup. Waiting for tokens can
+ * outlast the claim's lease, so each word's tasks are renewed right before its lookup; tasks another
+ * worker has reclaimed meanwhile are left to it. LookupService adds
+ * the cache, the shared lookup_entries store and coalescing of identical in-flight lookups on top.
+ * Only empty fields are written, so edits made meanwhile are kept.
+ *
+ * Metrics: enrichment.cards{result=enriched|skipped|failed}, enrichment.lookups and ratelimit.wait.
+ */
+@Service
+@ConditionalOnProperty(name = "app.enrichment.enabled", havingValue = "true")
+public class EnrichmentWorkerPool {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrichmentWorkerPool.class);
+
+    private static final String SELECT_CARDS =
+            "SELECT cardid, back, example, synonyms, part_of_speech FROM flashcards WHERE cardid IN (%s) ORDER BY cardid";
+    // occurrence_indices is assigned first: MySQL evaluates SET left to right with already-updated values
+    private static final String FILL_CARD =
+            "UPDATE flashcards SET " +
+            "occurrence_indices = CASE WHEN example IS NULL OR example = '' THEN ? ELSE occurrence_indices END, " +
+            "example = CASE WHEN example IS NULL OR example = '' THEN ? ELSE example END, " +
+            "synonyms = CASE WHEN synonyms IS NULL OR synonyms = '' THEN ? ELSE synonyms END, " +
+            "part_of_speech = CASE WHEN part_of_speech IS NULL OR part_of_speech = '' THEN ? ELSE part_of_speech END " +
+            "WHERE cardid = ?";
+
+    private record Card(int cardId, String back, boolean needsEnrichment) {}
+
+    private final EnrichmentQueue queue;
+    private final LookupService lookupService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TokenBucket rateLimit;
+    private final String responseLang;
+    private final int workers;
+    private final int claimSize;
+    private final Duration pollInterval;
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("enrichment-worker-", 0).factory());
+    private final Counter enriched;
+    private final Counter skipped;
+    private final Counter failed;
+    private final Counter lookups;
+    private volatile boolean running = true;
+
+    public EnrichmentWorkerPool(
+            EnrichmentQueue queue,
+            LookupService lookupService,
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.enrichment.response-language:en}") String responseLang,
+            @Value("${app.enrichment.workers:4}") int workers,
+            @Value("${app.enrichment.claim-size:20}") int claimSize,
+            @Value("${app.enrichment.poll-interval:5s}") Duration pollInterval,
+            @Value("${app.enrichment.rate-per-minute:60}") int ratePerMinute,
+            @Value("${app.enrichment.burst:10}") int burst
+    ) {
+        this.queue = queue;
+        this.lookupService = lookupService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.responseLang = responseLang;
+        this.workers = workers;
+        this.claimSize = claimSize;
+        this.pollInterval = pollInterval;
+        this.rateLimit = new TokenBucket("enrichment", ratePerMinute / 60.0, burst, meterRegistry);
+        this.enriched = Counter.builder("enrichment.cards").tag("result", "enriched").register(meterRegistry);
+        this.skipped = Counter.builder("enrichment.cards").tag("result", "skipped").register(meterRegistry);
+        this.failed = Counter.builder("enrichment.cards").tag("result", "failed").register(meterRegistry);
+        this.lookups = Counter.builder("enrichment.lookups").register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        for (int i = 0; i < workers; i++) {
+            String workerId = instanceId + "-" + i;
+            executor.submit(() -> runWorker(workerId));
+        }
+        log.info("Started {} enrichment workers", workers);
+    }
+
+    private void runWorker(String workerId) {
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                if (processOnce(workerId) == 0) {
+                    Thread.sleep(pollInterval.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.warn("Enrichment worker {} failed; retrying after {}", workerId, pollInterval, e);
+                try {
+                    Thread.sleep(pollInterval.toMillis());
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Claims and works off one batch of tasks.
+     *
+     * @return the number of tasks claimed
+     */
+    int processOnce(String workerId) throws InterruptedException {
+        List<EnrichmentTask> tasks = queue.claim(workerId, claimSize);
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+
+        Map<Integer, EnrichmentTask> tasksByCard = new LinkedHashMap<>();
+        tasks.forEach(task -> tasksByCard.put(task.getCardId(), task));
+        String placeholders = String.join(", ", Collections.nCopies(tasksByCard.size(), "?"));
+        List<Card> cards = jdbcTemplate.query(String.format(SELECT_CARDS, placeholders), (rs, i) -> new Card(
+                rs.getInt("cardid"),
+                rs.getString("back"),
+                EnrichmentQueue.needsEnrichment(rs.getString("example"), rs.getString("synonyms"), rs.getString("part_of_speech"))
+        ), tasksByCard.keySet().toArray());
+
+        // Cards deleted or already filled in since they were queued need no lookup
+        List<EnrichmentTask> done = new ArrayList<>(tasksByCard.values());
+        Map<LookupService.LookupKey, List<Card>> byWord = new LinkedHashMap<>();
+        for (Card card : cards) {
+            if (card.needsEnrichment() && !EnrichmentQueue.isBlank(card.back())) {
+                byWord.computeIfAbsent(LookupService.LookupKey.of(card.back(), responseLang, List.of()), k -> new ArrayList<>())
+                        .add(card);
+                done.remove(tasksByCard.get(card.cardId()));
+            }
+        }
+        if (!done.isEmpty()) {
+            queue.complete(workerId, done);
+            skipped.increment(done.size());
+        }
+
+        for (Map.Entry<LookupService.LookupKey, List<Card>> word : byWord.entrySet()) {
+            rateLimit.acquire();
+            List<EnrichmentTask> wordTasks = queue.renew(workerId,
+                    word.getValue().stream().map(card -> tasksByCard.get(card.cardId())).toList());
+            if (wordTasks.isEmpty()) {
+                continue;
+            }
+            List<Integer> heldCards = wordTasks.stream().map(EnrichmentTask::getCardId).toList();
+            try {
+                lookups.increment();
+                LookupDTO dto = lookupService.lookup(word.getKey().word(), responseLang, List.of());
+                jdbcTemplate.batchUpdate(FILL_CARD, heldCards.stream()
+                        .map(cardId -> new Object[]{dto.OccurrenceIndices(), dto.Example(), dto.Synonyms(), dto.PartOfSpeech(), cardId})
+                        .toList());
+                queue.complete(workerId, wordTasks);
+                enriched.increment(wordTasks.size());
+            } catch (Exception e) {
+                log.debug("Enrichment of '{}' failed", word.getKey().word(), e);
+                queue.retry(workerId, wordTasks, e.getMessage());
+                failed.increment(wordTasks.size());
+            }
+        }
+        return tasks.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,242 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.flashcardgroup.flashcard_backend.dto.LookupDTO;
+import com.flashcardgroup.flashcard_backend.resilience.Bulkhead;
+import com.flashcardgroup.flashcard_backend.resilience.Bulkheads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Offline stand-in for GeminiService, enabled with app.lookup.engine=fake, for local runs and load
+ * benchmarks. Answers are replayed from recorded responses (app.lookup.fake.responses: a JSON object
+ * mapping each word to the response object the model wrote for it); other words get a synthesized card.
+ * Requested translation languages missing from a recording are synthesized too.
+ *
+ * Each call sleeps for a log-normally distributed latency with the configured median and p99 while
+ * holding a Gemini bulkhead permit, so caching, coalescing and the concurrency limit behave as they do
+ * against the real API. A share of answers (app.lookup.fake.malformed-rate) is cut off halfway and goes
+ * through GeminiService's parser, failing exactly like a malformed model answer.
+ *
+ * Metrics: lookup.fake.calls{operation=lookup|stream|batch|translate} and lookup.fake.malformed.
+ */
+@Service
+@ConditionalOnProperty(name = "app.lookup.engine", havingValue = "fake")
+public class FakeLookupEngine implements LookupEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(FakeLookupEngine.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // Standard normal quantile of 0.99: p99 = median * exp(Z_99 * sigma)
+    private static final double Z_99 = 2.3263;
+    private static final int STREAM_CHUNKS = 6;
+
+    private final Map<String, ObjectNode> recorded;
+    private final long medianNanos;
+    private final double sigma;
+    private final double malformedRate;
+    private final Bulkhead bulkhead;
+    private final MeterRegistry meterRegistry;
+    private final Counter malformed;
+
+    @Autowired
+    public FakeLookupEngine(
+            ResourceLoader resourceLoader,
+            Bulkheads bulkheads,
+            MeterRegistry meterRegistry,
+            @Value("${app.lookup.fake.responses:classpath:lookup/fake-responses.json}") String responsesLocation,
+            @Value("${app.lookup.fake.latency-median:800ms}") Duration latencyMedian,
+            @Value("${app.lookup.fake.latency-p99:4s}") Duration latencyP99,
+            @Value("${app.lookup.fake.malformed-rate:0}") double malformedRate
+    ) throws IOException {
+        this(readRecorded(resourceLoader.getResource(responsesLocation)), bulkheads.get(Bulkheads.GEMINI), meterRegistry,
+                latencyMedian, latencyP99, malformedRate);
+        log.warn("Using the fake lookup engine: {} recorded words, latency median {} / p99 {}, malformed rate {}",
+                recorded.size(), latencyMedian, latencyP99, malformedRate);
+    }
+
+    FakeLookupEngine(Map<String, ObjectNode> recorded, Bulkhead bulkhead, MeterRegistry meterRegistry,
+                     Duration latencyMedian, Duration latencyP99, double malformedRate) {
+        this.recorded = recorded;
+        this.bulkhead = bulkhead;
+        this.meterRegistry = meterRegistry;
+        this.medianNanos = latencyMedian.toNanos();
+        this.sigma = medianNanos > 0 && latencyP99.toNanos() > medianNanos
+                ? Math.log((double) latencyP99.toNanos() / medianNanos) / Z_99
+                : 0;
+        this.malformedRate = malformedRate;
+        this.malformed = Counter.builder("lookup.fake.malformed")
+                .description("Fake lookup answers deliberately cut short")
+                .register(meterRegistry);
+    }
+
+    static Map<String, ObjectNode> readRecorded(Resource resource) throws IOException {
+        Map<String, ObjectNode> recorded = new HashMap<>();
+        if (!resource.exists()) {
+            log.warn("Fake lookup responses {} not found; every word gets a synthesized card", resource);
+            return recorded;
+        }
+        try (InputStream in = resource.getInputStream()) {
+            for (Map.Entry<String, JsonNode> entry : MAPPER.readTree(in).properties()) {
+                if (entry.getValue().isObject()) {
+                    recorded.put(entry.getKey().toLowerCase(Locale.ROOT), (ObjectNode) entry.getValue());
+                }
+            }
+        }
+        return recorded;
+    }
+
+    @Override
+    public LookupDTO lookup(String word, String responseLang, List<String> translateTo) throws IOException {
+        count("lookup");
+        String text = maybeMalformed(answer(word, responseLang, translateTo).toString());
+        try (Bulkhead.Permit permit = bulkhead.acquire()) {
+            sleep(latencyNanos());
+        }
+        return GeminiService.validated(GeminiService.parseLookup(word, text), translateTo);
+    }
+
+    @Override
+    public Map<String, String> translate(String word, String meaning, List<String> languages) throws IOException {
+        count("translate");
+        String text = maybeMalformed(answer(word, "en", languages).get("Translations").toString());
+        try (Bulkhead.Permit permit = bulkhead.acquire()) {
+            // Only the translations are generated, so roughly a third of a full lookup
+            sleep(latencyNanos() / 3);
+        }
+        return GeminiService.parseTranslations(languages, text);
+    }
+
+    @Override
+    public LookupDTO lookupStream(String word, String responseLang, List<String> translateTo,
+                                  LookupStreamListener listener) throws IOException {
+        count("stream");
+        String text = maybeMalformed(answer(word, responseLang, translateTo).toString());
+        LookupStreamParser parser = new LookupStreamParser(MAPPER, listener);
+        try (Bulkhead.Permit permit = bulkhead.acquire()) {
+            long chunkNanos = latencyNanos() / STREAM_CHUNKS;
+            int chunkLength = Math.max(1, (text.length() + STREAM_CHUNKS - 1) / STREAM_CHUNKS);
+            int from = 0;
+            while (from < text.length()) {
+                int to = Math.min(text.length(), from + chunkLength);
+                // The parser needs whole characters in each chunk
+                if (to < text.length() && Character.isHighSurrogate(text.charAt(to - 1))) {
+                    to++;
+                }
+                sleep(chunkNanos);
+                parser.feed(text.substring(from, to));
+                from = to;
+            }
+        }
+        return parser.finish(word);
+    }
+
+    @Override
+    public Map<String, LookupDTO> lookupBatch(List<String> words, String responseLang, List<String> translateTo) throws IOException {
+        count("batch");
+        List<String> answers = new ArrayList<>(words.size());
+        for (String word : words) {
+            answers.add(maybeMalformed(answer(word, responseLang, translateTo).toString()));
+        }
+        try (Bulkhead.Permit permit = bulkhead.acquire()) {
+            // One call, but the answer grows with the number of words
+            sleep(latencyNanos() * (2 + words.size()) / 3);
+        }
+        Map<String, LookupDTO> results = new LinkedHashMap<>();
+        for (int i = 0; i < words.size(); i++) {
+            try {
+                results.put(words.get(i), GeminiService.validated(GeminiService.parseLookup(words.get(i), answers.get(i)), translateTo));
+            } catch (IOException e) {
+                log.debug("Fake batch entry for '{}' dropped: {}", words.get(i), e.getMessage());
+            }
+        }
+        return results;
+    }
+
+    // The response object the model would have written for the word
+    private ObjectNode answer(String word, String responseLang, List<String> translateTo) {
+        ObjectNode recordedCard = recorded.get(word.toLowerCase(Locale.ROOT));
+        ObjectNode card = recordedCard != null ? recordedCard.deepCopy() : synthesized(word, responseLang);
+
+        JsonNode recordedTranslations = card.get("Translations");
+        ObjectNode translations = card.putObject("Translations");
+        for (String lang : translateTo) {
+            JsonNode translation = recordedTranslations == null ? null : recordedTranslations.get(lang);
+            translations.put(lang, translation != null && translation.isTextual()
+                    ? translation.asText()
+                    : word + " (" + lang + ")");
+        }
+        return card;
+    }
+
+    private static ObjectNode synthesized(String word, String responseLang) {
+        int tokens = word.strip().split("\\s+").length;
+        List<String> indices = new ArrayList<>(tokens);
+        for (int i = 0; i < tokens; i++) {
+            indices.add(String.valueOf(3 + i));
+        }
+        ObjectNode card = MAPPER.createObjectNode();
+        card.put("Front", "Meaning of '" + word + "' (" + responseLang + ")");
+        card.put("Back", word);
+        card.put("Example", "We looked up " + word + " today.");
+        card.put("OccurrenceIndices", String.join(",", indices));
+        card.put("Synonyms", "");
+        card.put("PartOfSpeech", "noun");
+        card.put("Classifiers", "");
+        return card;
+    }
+
+    private String maybeMalformed(String text) {
+        if (malformedRate > 0 && ThreadLocalRandom.current().nextDouble() < malformedRate) {
+            malformed.increment();
+            return text.substring(0, text.length() / 2);
+        }
+        return text;
+    }
+
+    private long latencyNanos() {
+        if (medianNanos == 0) {
+            return 0;
+        }
+        return (long) (medianNanos * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian()));
+    }
+
+    private static void sleep(long nanos) throws InterruptedIOException {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Fake lookup interrupted");
+        }
+    }
+
+    private void count(String operation) {
+        Counter.builder("lookup.fake.calls").tag("operation", operation).register(meterRegistry).increment();
+    }
+}
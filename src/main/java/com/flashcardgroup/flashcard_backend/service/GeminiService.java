@@ -1,36 +1,83 @@
 package com.flashcardgroup.flashcard_backend.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.flashcardgroup.flashcard_backend.dto.LookupDTO;
+import com.flashcardgroup.flashcard_backend.exception.BulkheadFullException;
+import com.flashcardgroup.flashcard_backend.exception.CircuitOpenException;
+import com.flashcardgroup.flashcard_backend.exception.DeadlineExceededException;
+import com.flashcardgroup.flashcard_backend.resilience.Bulkhead;
+import com.flashcardgroup.flashcard_backend.resilience.Bulkheads;
+import com.flashcardgroup.flashcard_backend.resilience.CircuitBreaker;
+import com.flashcardgroup.flashcard_backend.resilience.CircuitBreakers;
+import com.flashcardgroup.flashcard_backend.resilience.HedgedCaller;
 import com.google.genai.Client;
+import com.google.genai.ResponseStream;
+import com.google.genai.types.GenerateContentConfig;
 import com.google.genai.types.GenerateContentResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Profile("!test")
-public class GeminiService {
+@ConditionalOnProperty(name = "app.lookup.engine", havingValue = "gemini", matchIfMissing = true)
+public class GeminiService implements LookupEngine {
 
     private static final Logger logger = LoggerFactory.getLogger(GeminiService.class);
 
+    private static final ObjectReader LOOKUP_READER = new ObjectMapper()
+            .readerFor(LookupDTO.class)
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private static final ObjectReader TRANSLATIONS_READER = new ObjectMapper().readerForMapOf(String.class);
+
     private final Client client;
     private final ObjectMapper objectMapper;
     private final String modelName;
+    private final String fastModelName;
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final MeterRegistry meterRegistry;
+    private final Duration timeout;
+    private final boolean hedging;
+    private final Duration hedgeDelay;
+    private final Map<String, HedgedCaller> callers = new ConcurrentHashMap<>();
+    private final LookupPrompts prompts = new LookupPrompts();
 
-    public GeminiService(@Value("${gemini.api.model}") String modelName, @Value("${gemini.api.key}") String apiKey) {
+    public GeminiService(@Value("${gemini.api.model}") String modelName, @Value("${gemini.api.key}") String apiKey,
+                         @Value("${gemini.api.fast-model:}") String fastModelName,
+                         @Value("${app.gemini.timeout:20s}") Duration timeout,
+                         @Value("${app.gemini.hedging.enabled:false}") boolean hedging,
+                         @Value("${app.gemini.hedging.delay:3s}") Duration hedgeDelay,
+                         Bulkheads bulkheads, CircuitBreakers circuitBreakers, MeterRegistry meterRegistry) {
         this.client = new Client.Builder().apiKey(apiKey).build();
         this.objectMapper = new ObjectMapper();
         this.modelName = modelName;
-        logger.info("GeminiService initialized with model: {}", modelName);
+        this.fastModelName = fastModelName;
+        this.bulkhead = bulkheads.get(Bulkheads.GEMINI);
+        this.circuitBreaker = circuitBreakers.get(Bulkheads.GEMINI);
+        this.meterRegistry = meterRegistry;
+        this.timeout = timeout;
+        this.hedging = hedging;
+        this.hedgeDelay = hedgeDelay;
+        logger.info("GeminiService initialized with model: {} (fast model: {}, timeout: {}, hedging: {})",
+                modelName, fastModelName.isBlank() ? "none" : fastModelName, timeout, hedging);
     }
 
 
@@ -39,55 +86,188 @@ public class GeminiService {
     }
 
     // New overload supporting response language and target translation languages
+    @Override
     public LookupDTO lookup(String word, String responseLang, List<String> translateTo) throws IOException {
         logger.info("GeminiService.lookup: word='{}' responseLang='{}' translateTo={}", word, responseLang, translateTo);
-        String prompt = buildLookupPrompt(word, responseLang, translateTo);
-
-        GenerateContentResponse response = client.models.generateContent(modelName, prompt, null);
-        String responseText = response.text();
-        return parseGeminiResponse(word, responseText);
-    }
-
-    private String buildLookupPrompt(String word, String responseLang, List<String> translateTo) {
-        if (translateTo == null || translateTo.isEmpty()) {
-            return "You generate flashcard fields. Respond only with strict JSON and no extra text.\n\n" +
-                    String.format("WORD: '%s'\nRESPONSE_LANGUAGE: %s\n\n", word, responseLang) +
-                    "Hard requirements:\n" +
-                    "- Front MUST be a meaning/definition (NOT a translation) written in RESPONSE_LANGUAGE.\n" +
-                    "- If RESPONSE_LANGUAGE is 'en', Front MUST be in English.\n\n" +
-                    "Return JSON exactly in this shape (no extra fields):\n" +
-                    "{\n" +
-                    "  \"Front\": \"meaning/definition of WORD written in RESPONSE_LANGUAGE (1-2 short lines)\",\n" +
-                    "  \"Back\": \"WORD exactly\",\n" +
-                    "  \"Metadata\": \"\",\n" +
-                    "  \"Example\": \"one short example sentence that contains WORD\",\n" +
-                    "  \"OccurrenceIndices\": \"comma-separated 0-based word indices of WORD inside Example; no spaces; e.g. '3' or '3,4'\",\n" +
-                    "  \"Synonyms\": \"3-6 synonyms separated by '; ' (empty string if none)\",\n" +
-                    "  \"PartOfSpeech\": \"noun/verb/adjective/etc (empty string if unknown)\",\n" +
-                    "  \"Classifiers\": \"classifier tags if relevant (otherwise empty string)\"\n" +
-                    "}\n\n" +
-                    "OccurrenceIndices rules:\n" +
-                    "- Tokenize Example by splitting on single spaces. Indices refer to token positions in that list (0-based).\n" +
-                    "- For matching, compare tokens after stripping leading/trailing punctuation characters .,!?:;\"'()[]{} and using case-insensitive comparison.\n" +
-                    "- If WORD contains multiple space-separated tokens (a phrase), include indices for every token of each occurrence.\n" +
-                    "- Ensure Example contains WORD exactly once whenever possible to keep indices simple.\n\n" +
-                    "Rules: Use plain text in all string fields, no markdown. Ensure valid JSON only.";
-        }
-
-        String targets = String.join(",", translateTo);
-        return "You generate flashcard fields. Respond only with strict JSON and no extra text.\n\n" +
-                String.format("WORD: '%s'\nRESPONSE_LANGUAGE: %s\nTRANSLATION_TARGETS: %s\n\n", word, responseLang, targets) +
+        String prompt = prompts.prompt(word, responseLang, translateTo);
+        return tiered("lookup", prompt, prompts.config(translateTo), text -> validated(parseLookup(word, text), translateTo));
+    }
+
+    /**
+     * Translates a word whose card already exists into the given languages only, leaving Front, Example and
+     * the other fields alone. Much shorter to generate than a full lookup.
+     *
+     * @param meaning the card's Front, so the translations follow the same sense of the word
+     * @return one translation per requested language code
+     * @throws IOException if the call fails or a requested language is missing from the response
+     */
+    @Override
+    public Map<String, String> translate(String word, String meaning, List<String> languages) throws IOException {
+        logger.info("GeminiService.translate: word='{}' languages={}", word, languages);
+        String prompt = prompts.translationPrompt(word, meaning, languages);
+        return tiered("translate", prompt, prompts.translationConfig(languages), text -> parseTranslations(languages, text));
+    }
+
+    /**
+     * Same as lookup, but generates with the streaming API and reports each field to the listener as soon
+     * as the model has finished writing it. The Gemini permit is held until the stream is fully consumed.
+     * Streams are guarded by the circuit breaker but have no deadline or hedging; the SSE timeout bounds them.
+     */
+    @Override
+    public LookupDTO lookupStream(String word, String responseLang, List<String> translateTo,
+                                  LookupStreamListener listener) throws IOException {
+        logger.info("GeminiService.lookupStream: word='{}' responseLang='{}' translateTo={}", word, responseLang, translateTo);
+        String prompt = prompts.prompt(word, responseLang, translateTo);
+
+        LookupStreamParser parser = new LookupStreamParser(objectMapper, listener);
+        CircuitBreaker.Permission call = circuitBreaker.acquirePermission();
+        try (Bulkhead.Permit permit = bulkhead.acquire();
+             ResponseStream<GenerateContentResponse> stream =
+                     client.models.generateContentStream(modelName, prompt, prompts.config(translateTo))) {
+            for (GenerateContentResponse chunk : stream) {
+                parser.feed(chunk.text());
+            }
+        } catch (BulkheadFullException | IOException e) {
+            // A full bulkhead, a bad chunk or a client that went away says nothing about Gemini's health
+            call.onIgnored();
+            throw e;
+        } catch (RuntimeException e) {
+            call.onFailure();
+            throw e;
+        }
+        call.onSuccess();
+        return parser.finish(word);
+    }
+
+    /**
+     * Looks up several words with one model call. The instructions are sent once and the model answers
+     * with a JSON array holding one object per word. Entries that are missing or fail to parse are left
+     * out of the result, so callers get whatever did come back.
+     *
+     * @return results keyed by the requested word, in request order
+     * @throws IOException if the call fails or the response is not a JSON array at all
+     */
+    @Override
+    public Map<String, LookupDTO> lookupBatch(List<String> words, String responseLang, List<String> translateTo) throws IOException {
+        logger.info("GeminiService.lookupBatch: {} words responseLang='{}' translateTo={}", words.size(), responseLang, translateTo);
+        String prompt = buildBatchLookupPrompt(words, responseLang, translateTo);
+        GenerateContentResponse response = generate(modelName, prompt, LookupPrompts.JSON_ONLY);
+        return parseBatchResponse(words, response.text());
+    }
+
+    @FunctionalInterface
+    private interface ResponseParser<T> {
+        T parse(String responseText) throws IOException;
+    }
+
+    /**
+     * Tries the fast model first when one is configured and escalates to the main model only if its answer
+     * fails to parse or validate. Call failures (deadline, open circuit, full bulkhead) are not escalated:
+     * the main model would most likely suffer the same.
+     */
+    private <T> T tiered(String operation, String prompt, GenerateContentConfig config, ResponseParser<T> parser) throws IOException {
+        long start = System.nanoTime();
+        String path = "primary";
+        try {
+            if (!fastModelName.isBlank()) {
+                GenerateContentResponse fast = generate(fastModelName, prompt, config);
+                try {
+                    T result = parser.parse(fast.text());
+                    path = "fast";
+                    return result;
+                } catch (IOException e) {
+                    logger.info("GeminiService.{}: {} answer rejected ({}); escalating to {}", operation, fastModelName, e.getMessage(), modelName);
+                    path = "escalated";
+                }
+            }
+            return parser.parse(generate(modelName, prompt, config).text());
+        } finally {
+            Timer.builder("gemini.request").tag("operation", operation).tag("path", path)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // One model call under the circuit breaker, the per-call deadline and (if enabled) hedging
+    private GenerateContentResponse generate(String model, String prompt, GenerateContentConfig config) throws IOException {
+        long start = System.nanoTime();
+        String outcome = "error";
+        CircuitBreaker.Permission call;
+        try {
+            call = circuitBreaker.acquirePermission();
+        } catch (CircuitOpenException e) {
+            recordCall(model, "rejected", start);
+            throw e;
+        }
+        try {
+            GenerateContentResponse response = callers.computeIfAbsent(model, this::newCaller).call(() -> {
+                try (Bulkhead.Permit permit = bulkhead.acquire()) {
+                    return client.models.generateContent(model, prompt, config);
+                }
+            });
+            call.onSuccess();
+            outcome = "success";
+            return response;
+        } catch (BulkheadFullException e) {
+            call.onIgnored();
+            outcome = "rejected";
+            throw e;
+        } catch (DeadlineExceededException e) {
+            call.onFailure();
+            outcome = "timeout";
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            call.onFailure();
+            throw e;
+        } finally {
+            recordCall(model, outcome, start);
+        }
+    }
+
+    private HedgedCaller newCaller(String model) {
+        return new HedgedCaller("gemini:" + model, timeout, hedging, hedgeDelay, meterRegistry);
+    }
+
+    private void recordCall(String model, String outcome, long start) {
+        Timer.builder("gemini.call").tag("model", model).tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    // What a card needs before it is worth caching and storing for everyone
+    static LookupDTO validated(LookupDTO dto, List<String> translateTo) throws IOException {
+        if (dto.Front().isBlank()) {
+            throw new IOException("Gemini response failed validation: Front is empty");
+        }
+        for (String lang : translateTo) {
+            String translation = dto.Translations().get(lang);
+            if (translation == null || translation.isBlank()) {
+                throw new IOException("Gemini response failed validation: no translation for '" + lang + "'");
+            }
+        }
+        return dto;
+    }
+
+    private String buildBatchLookupPrompt(List<String> words, String responseLang, List<String> translateTo) {
+        boolean translate = translateTo != null && !translateTo.isEmpty();
+        StringBuilder wordList = new StringBuilder();
+        for (String word : words) {
+            wordList.append("- '").append(word).append("'\n");
+        }
+        return "You generate flashcard fields for several words. Respond only with a strict JSON array and no extra text.\n\n" +
+                "WORDS:\n" + wordList +
+                String.format("RESPONSE_LANGUAGE: %s\n", responseLang) +
+                (translate ? String.format("TRANSLATION_TARGETS: %s\n", String.join(",", translateTo)) : "") + "\n" +
                 "Hard requirements:\n" +
+                "- Return one object per entry in WORDS, in the same order. Each object is built for its own WORD only.\n" +
                 "- Front MUST be a meaning/definition (NOT a translation) written in RESPONSE_LANGUAGE.\n" +
-                "- Front MUST NOT be written in any language listed in TRANSLATION_TARGETS.\n" +
-                "- Translations are ONLY placed in the Translations object; they must NOT affect Front/Example/Synonyms/etc.\n" +
+                (translate ? "- Front MUST NOT be written in any language listed in TRANSLATION_TARGETS.\n" +
+                        "- Translations are ONLY placed in the Translations object; they must NOT affect Front/Example/Synonyms/etc.\n" : "") +
                 "- If RESPONSE_LANGUAGE is 'en', Front MUST be in English.\n\n" +
-                "Example (for clarity only; do not include in output):\n" +
-                "WORD='puckish' RESPONSE_LANGUAGE=en TRANSLATION_TARGETS=ru\n" +
-                "Front could be: 'playfully mischievous; impish'\n" +
-                "Translations could be: {\"ru\": \"ozornoy\"}\n\n" +
                 "Return JSON exactly in this shape (no extra fields):\n" +
-                "{\n" +
+                "[\n" +
+                "  {\n" +
+                "  \"Word\": \"WORD exactly as listed in WORDS\",\n" +
                 "  \"Front\": \"meaning/definition of WORD written in RESPONSE_LANGUAGE (1-2 short lines)\",\n" +
                 "  \"Back\": \"WORD exactly\",\n" +
                 "  \"Metadata\": \"\",\n" +
@@ -95,66 +275,170 @@ public class GeminiService {
                 "  \"OccurrenceIndices\": \"comma-separated 0-based word indices of WORD inside Example; no spaces; e.g. '3' or '3,4'\",\n" +
                 "  \"Synonyms\": \"3-6 synonyms separated by '; ' (empty string if none)\",\n" +
                 "  \"PartOfSpeech\": \"noun/verb/adjective/etc (empty string if unknown)\",\n" +
-                "  \"Classifiers\": \"classifier tags if relevant (otherwise empty string)\",\n" +
-                "  \"Translations\": {\n" +
-                "    \"<lang>\": \"translation of WORD into that language\"\n" +
+                "  \"Classifiers\": \"classifier tags if relevant (otherwise empty string)\"" +
+                (translate ? ",\n  \"Translations\": {\n    \"<lang>\": \"translation of WORD into that language\"\n  }\n" : "\n") +
                 "  }\n" +
-                "}\n\n" +
-                "Translations rules:\n" +
-                "- Create one entry per language code in TRANSLATION_TARGETS (comma-separated).\n" +
-                "- Only include requested language codes as keys.\n" +
-                "- Values are the best natural translation of WORD (not the definition).\n\n" +
-                "OccurrenceIndices rules:\n" +
-                "- Tokenize Example by splitting on single spaces. Indices refer to token positions in that list (0-based).\n" +
-                "- For matching, compare tokens after stripping leading/trailing punctuation characters .,!?:;\"'()[]{} and using case-insensitive comparison.\n" +
-                "- If WORD contains multiple space-separated tokens (a phrase), include indices for every token of each occurrence.\n" +
-                "- Ensure Example contains WORD exactly once whenever possible to keep indices simple.\n\n" +
+                "]\n\n" +
+                (translate ? "Translations rules:\n" +
+                        "- Create one entry per language code in TRANSLATION_TARGETS (comma-separated).\n" +
+                        "- Only include requested language codes as keys.\n" +
+                        "- Values are the best natural translation of WORD (not the definition).\n\n" : "") +
+                LookupPrompts.OCCURRENCE_RULES +
                 "Rules: Use plain text in all string fields, no markdown. Ensure valid JSON only.";
     }
 
-    private LookupDTO parseGeminiResponse(String word, String responseText) throws IOException {
+    private Map<String, LookupDTO> parseBatchResponse(List<String> words, String responseText) throws IOException {
+        JsonNode array;
         try {
-            // Remove markdown code blocks if present
-            String cleanJson = responseText.trim();
-            if (cleanJson.startsWith("```json")) {
-                cleanJson = cleanJson.substring(7);
-            } else if (cleanJson.startsWith("```")) {
-                cleanJson = cleanJson.substring(3);
+            array = objectMapper.readTree(stripCodeFence(responseText));
+        } catch (Exception e) {
+            throw new IOException("Failed to parse Gemini batch response: " + e.getMessage(), e);
+        }
+        if (array == null || !array.isArray()) {
+            throw new IOException("Failed to parse Gemini batch response: expected a JSON array");
+        }
+
+        Map<String, LookupDTO> byWord = new LinkedHashMap<>();
+        for (int i = 0; i < array.size(); i++) {
+            JsonNode entry = array.get(i);
+            if (entry == null || !entry.isObject()) {
+                logger.warn("Skipping batch entry {}: not a JSON object", i);
+                continue;
+            }
+            // Prefer the echoed word; fall back to position when the model dropped or altered it
+            String word = entry.hasNonNull("Word") ? matchWord(words, entry.get("Word").asText()) : null;
+            if (word == null && i < words.size() && array.size() == words.size()) {
+                word = words.get(i);
+            }
+            if (word == null || byWord.containsKey(word)) {
+                logger.warn("Skipping batch entry {}: does not match an unanswered requested word", i);
+                continue;
             }
-            if (cleanJson.endsWith("```") ) {
-                cleanJson = cleanJson.substring(0, cleanJson.length() - 3);
+            try {
+                byWord.put(word, toLookupDTO(word, entry));
+            } catch (RuntimeException e) {
+                logger.warn("Skipping batch entry {} for '{}': {}", i, word, e.getMessage());
             }
-            cleanJson = cleanJson.trim();
+        }
 
-            JsonNode jsonNode = objectMapper.readTree(cleanJson);
+        Map<String, LookupDTO> ordered = new LinkedHashMap<>();
+        for (String word : words) {
+            LookupDTO dto = byWord.get(word);
+            if (dto != null) {
+                ordered.put(word, dto);
+            }
+        }
+        return ordered;
+    }
 
-            String front = jsonNode.has("Front") ? jsonNode.get("Front").asText() : "";
-            String back = jsonNode.has("Back") ? jsonNode.get("Back").asText() : "";
-            if (back == null || back.isBlank()) {
-                back = word;
+    // Exact match first, so words differing only in case ("Polish"/"polish") each get their own entry;
+    // a case-insensitive match only counts when it is unique
+    static String matchWord(List<String> words, String echoed) {
+        String wanted = echoed.strip();
+        String ignoringCase = null;
+        int ignoringCaseMatches = 0;
+        for (String word : words) {
+            String candidate = word.strip();
+            if (candidate.equals(wanted)) {
+                return word;
             }
+            if (candidate.equalsIgnoreCase(wanted)) {
+                ignoringCase = word;
+                ignoringCaseMatches++;
+            }
+        }
+        return ignoringCaseMatches == 1 ? ignoringCase : null;
+    }
+
+    private static String stripCodeFence(String responseText) {
+        // Remove markdown code blocks if present
+        String cleanJson = responseText.trim();
+        if (cleanJson.startsWith("```json")) {
+            cleanJson = cleanJson.substring(7);
+        } else if (cleanJson.startsWith("```")) {
+            cleanJson = cleanJson.substring(3);
+        }
+        if (cleanJson.endsWith("```") ) {
+            cleanJson = cleanJson.substring(0, cleanJson.length() - 3);
+        }
+        return cleanJson.trim();
+    }
+
+    /**
+     * Binds a schema-constrained response straight to LookupDTO, without an intermediate tree, and fills
+     * the defaults the old hand-written parser applied.
+     */
+    static LookupDTO parseLookup(String word, String responseText) throws IOException {
+        if (responseText == null || responseText.isBlank()) {
+            throw new IOException("Failed to parse Gemini response: empty response");
+        }
+        LookupDTO raw;
+        try {
+            raw = LOOKUP_READER.readValue(responseText);
+        } catch (JsonProcessingException e) {
+            throw new IOException("Failed to parse Gemini response: " + e.getOriginalMessage(), e);
+        }
+
+        Map<String, String> translations = new LinkedHashMap<>();
+        if (raw.Translations() != null) {
+            raw.Translations().forEach((lang, value) -> translations.put(lang, value == null ? "" : value));
+        }
+        String back = (raw.Back() == null || raw.Back().isBlank()) ? word : raw.Back();
+        // Always keep metadata empty (client requested)
+        return new LookupDTO(orEmpty(raw.Front()), back, "", orEmpty(raw.Example()), orEmpty(raw.OccurrenceIndices()),
+                orEmpty(raw.Synonyms()), orEmpty(raw.PartOfSpeech()), orEmpty(raw.Classifiers()), translations);
+    }
 
-            // Always keep metadata empty (client requested)
-            String metadata = "";
-
-            String example = jsonNode.has("Example") ? jsonNode.get("Example").asText() : "";
-            String occurrenceIndices = jsonNode.has("OccurrenceIndices") ? jsonNode.get("OccurrenceIndices").asText() : "";
-            String synonyms = jsonNode.has("Synonyms") ? jsonNode.get("Synonyms").asText() : "";
-            String partOfSpeech = jsonNode.has("PartOfSpeech") ? jsonNode.get("PartOfSpeech").asText() : "";
-            String classifiers = jsonNode.has("Classifiers") ? jsonNode.get("Classifiers").asText() : "";
-
-            Map<String, String> translations = new LinkedHashMap<>();
-            if (jsonNode.has("Translations") && jsonNode.get("Translations").isObject()) {
-                JsonNode t = jsonNode.get("Translations");
-                t.fields().forEachRemaining(entry -> {
-                    JsonNode v = entry.getValue();
-                    translations.put(entry.getKey(), (v == null || v.isNull()) ? "" : v.asText());
-                });
+    static Map<String, String> parseTranslations(List<String> languages, String responseText) throws IOException {
+        if (responseText == null || responseText.isBlank()) {
+            throw new IOException("Failed to parse Gemini translations: empty response");
+        }
+        Map<String, String> parsed;
+        try {
+            parsed = TRANSLATIONS_READER.readValue(responseText);
+        } catch (JsonProcessingException e) {
+            throw new IOException("Failed to parse Gemini translations: " + e.getOriginalMessage(), e);
+        }
+        Map<String, String> translations = new LinkedHashMap<>();
+        for (String lang : languages) {
+            String value = parsed.get(lang);
+            if (value == null || value.isBlank()) {
+                throw new IOException("Failed to parse Gemini translations: no translation for '" + lang + "'");
             }
+            translations.put(lang, value);
+        }
+        return translations;
+    }
 
-            return new LookupDTO(front, back, metadata, example, occurrenceIndices, synonyms, partOfSpeech, classifiers, translations);
-        } catch (Exception e) {
-            throw new IOException("Failed to parse Gemini response: " + e.getMessage(), e);
+    private static String orEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    static LookupDTO toLookupDTO(String word, JsonNode jsonNode) {
+        String front = jsonNode.has("Front") ? jsonNode.get("Front").asText() : "";
+        String back = jsonNode.has("Back") ? jsonNode.get("Back").asText() : "";
+        if (back == null || back.isBlank()) {
+            back = word;
         }
+
+        // Always keep metadata empty (client requested)
+        String metadata = "";
+
+        String example = jsonNode.has("Example") ? jsonNode.get("Example").asText() : "";
+        String occurrenceIndices = jsonNode.has("OccurrenceIndices") ? jsonNode.get("OccurrenceIndices").asText() : "";
+        String synonyms = jsonNode.has("Synonyms") ? jsonNode.get("Synonyms").asText() : "";
+        String partOfSpeech = jsonNode.has("PartOfSpeech") ? jsonNode.get("PartOfSpeech").asText() : "";
+        String classifiers = jsonNode.has("Classifiers") ? jsonNode.get("Classifiers").asText() : "";
+
+        Map<String, String> translations = new LinkedHashMap<>();
+        if (jsonNode.has("Translations") && jsonNode.get("Translations").isObject()) {
+            JsonNode t = jsonNode.get("Translations");
+            t.fields().forEachRemaining(entry -> {
+                JsonNode v = entry.getValue();
+                translations.put(entry.getKey(), (v == null || v.isNull()) ? "" : v.asText());
+            });
+        }
+
+        return new LookupDTO(front, back, metadata, example, occurrenceIndices, synonyms, partOfSpeech, classifiers, translations);
     }
 }
@@ -1,6 +1,10 @@
 package com.flashcardgroup.flashcard_backend.service;
 
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 
 public interface ImageStorageService {
 
@@ -10,7 +14,38 @@ public interface ImageStorageService {
                        InputStream data,
                        long contentLength);
 
-    record ImageData(byte[] bytes, String contentType, long contentLength) {}
+    record ImageMetadata(String contentType, long contentLength, String eTag, Instant lastModified) {}
 
-    ImageData getImage(String key);
-}
\ No newline at end of file
+    /**
+     * An open image body, read straight from storage. Must be closed, which releases the connection.
+     *
+     * @param contentLength bytes in content: the whole image, or just the range for a partial read
+     * @param contentRange Content-Range of a partial read (e.g. "bytes 0-99/2048"), null for the whole image
+     */
+    record ImageContent(InputStream content, String contentType, long contentLength, String contentRange,
+                        String eTag, Instant lastModified) implements Closeable {
+
+        @Override
+        public void close() {
+            try {
+                content.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    ImageMetadata getImageMetadata(String key);
+
+    /**
+     * Opens the image for streaming, unless the client's cached copy is still current. The conditions are
+     * evaluated by storage itself, so a current copy costs no body transfer.
+     *
+     * @param range a single-range Range header value such as "bytes=0-99" or "bytes=-500", or null for the whole image
+     * @param ifNoneMatch the request's If-None-Match value, or null
+     * @param ifModifiedSince the request's If-Modified-Since, or null
+     * @throws com.flashcardgroup.flashcard_backend.exception.ImageNotModifiedException if the conditions show the
+     *         client's copy is current
+     */
+    ImageContent openImage(String key, String range, String ifNoneMatch, Instant ifModifiedSince);
+}
@@ -0,0 +1,36 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.flashcardgroup.flashcard_backend.dto.LookupDTO;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Whatever generates lookup cards behind LookupService. GeminiService is the production engine;
+ * FakeLookupEngine (app.lookup.engine=fake) answers offline for local runs and load benchmarks.
+ * Selected with app.lookup.engine, default gemini.
+ */
+public interface LookupEngine {
+
+    LookupDTO lookup(String word, String responseLang, List<String> translateTo) throws IOException;
+
+    /**
+     * Translates a word whose card already exists into the given languages only.
+     *
+     * @param meaning the card's Front, so the translations follow the same sense of the word
+     * @return one translation per requested language code
+     */
+    Map<String, String> translate(String word, String meaning, List<String> languages) throws IOException;
+
+    /** Same as lookup, but reports each field to the listener as soon as it is available. */
+    LookupDTO lookupStream(String word, String responseLang, List<String> translateTo,
+                           LookupStreamListener listener) throws IOException;
+
+    /**
+     * Looks up several words at once. Words that fail are left out of the result.
+     *
+     * @return results keyed by the requested word, in request order
+     */
+    Map<String, LookupDTO> lookupBatch(List<String> words, String responseLang, List<String> translateTo) throws IOException;
+}
@@ -0,0 +1,133 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fills lookup_entries from a word-frequency list (one word per line, most frequent first, '#' comments)
+ * so common vocabulary is answered without a Gemini call. Words already in the store are skipped
+ * without waiting; every other word costs one Gemini call, spaced at most rate-per-minute apart.
+ * Each instance starts at a random point in the list so instances booting together don't query the
+ * same words at the same time.
+ */
+@Service
+@ConditionalOnProperty(name = "app.lookup-prewarm.enabled", havingValue = "true")
+public class LookupPrewarmJob {
+
+    private static final Logger log = LoggerFactory.getLogger(LookupPrewarmJob.class);
+
+    private final LookupService lookupService;
+    private final LookupStore lookupStore;
+    private final ResourceLoader resourceLoader;
+    private final String wordsLocation;
+    private final String responseLang;
+    private final List<String> translationLanguages;
+    private final long delayMs;
+    private final int maxWords;
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "lookup-prewarm");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public LookupPrewarmJob(
+            LookupService lookupService,
+            LookupStore lookupStore,
+            ResourceLoader resourceLoader,
+            @Value("${app.lookup-prewarm.words-file}") String wordsLocation,
+            @Value("${app.lookup-prewarm.response-language:en}") String responseLang,
+            @Value("${app.lookup-prewarm.translation-languages:}") List<String> translationLanguages,
+            @Value("${app.lookup-prewarm.rate-per-minute:30}") int ratePerMinute,
+            @Value("${app.lookup-prewarm.max-words:5000}") int maxWords
+    ) {
+        this.lookupService = lookupService;
+        this.lookupStore = lookupStore;
+        this.resourceLoader = resourceLoader;
+        this.wordsLocation = wordsLocation;
+        // Fail at startup rather than run a pre-warm that silently does nothing
+        if (!resourceLoader.getResource(wordsLocation).exists()) {
+            throw new IllegalStateException("Lookup pre-warm word list " + wordsLocation + " not found");
+        }
+        this.responseLang = responseLang;
+        this.translationLanguages = translationLanguages.stream().filter(l -> !l.isBlank()).toList();
+        this.delayMs = 60_000L / Math.max(1, ratePerMinute);
+        this.maxWords = maxWords;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        runner.submit(() -> {
+            try {
+                run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Lookup pre-warm stopped", e);
+            }
+        });
+    }
+
+    void run() throws IOException, InterruptedException {
+        List<String> words = readWords();
+        if (words.isEmpty()) {
+            return;
+        }
+        int offset = ThreadLocalRandom.current().nextInt(words.size());
+        int fetched = 0;
+        int failed = 0;
+        for (int i = 0; i < words.size(); i++) {
+            String word = words.get((offset + i) % words.size());
+            if (lookupStore.contains(LookupService.LookupKey.of(word, responseLang, translationLanguages))) {
+                continue;
+            }
+            try {
+                lookupService.lookup(word, responseLang, translationLanguages);
+                fetched++;
+            } catch (Exception e) {
+                failed++;
+                log.debug("Pre-warm lookup failed for '{}'", word, e);
+            }
+            Thread.sleep(delayMs);
+        }
+        log.info("Lookup pre-warm finished: {} words fetched from Gemini, {} failed, {} already stored",
+                fetched, failed, words.size() - fetched - failed);
+    }
+
+    private List<String> readWords() throws IOException {
+        Resource resource = resourceLoader.getResource(wordsLocation);
+        List<String> words = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null && words.size() < maxWords) {
+                String word = line.strip();
+                if (!word.isEmpty() && !word.startsWith("#")) {
+                    words.add(word);
+                }
+            }
+        }
+        return words;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runner.shutdownNow();
+    }
+}
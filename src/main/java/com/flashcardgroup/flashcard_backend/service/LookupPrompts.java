@@ -0,0 +1,150 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.genai.types.GenerateContentConfig;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prompts and response schemas for single-word lookups. The field shapes live in a JSON schema that the
+ * model is constrained to (responseMimeType application/json), so the prompt only carries the rules the
+ * schema cannot express. Prompt text is assembled once per (responseLang, hasTranslations) variant and
+ * cached; a lookup only splices the word and translation targets in.
+ */
+class LookupPrompts {
+
+    static final String OCCURRENCE_RULES =
+            "OccurrenceIndices rules:\n" +
+            "- Tokenize Example by splitting on single spaces. Indices refer to token positions in that list (0-based).\n" +
+            "- For matching, compare tokens after stripping leading/trailing punctuation characters .,!?:;\"'()[]{} and using case-insensitive comparison.\n" +
+            "- If WORD contains multiple space-separated tokens (a phrase), include indices for every token of each occurrence.\n" +
+            "- Ensure Example contains WORD exactly once whenever possible to keep indices simple.\n\n";
+
+    private static final int MAX_TEMPLATES = 256;
+
+    // Property order is the order the model writes fields in; Front first lets streamed lookups show it early
+    private static final Map<String, Object> FIELD_PROPERTIES = new LinkedHashMap<>();
+
+    static {
+        FIELD_PROPERTIES.put("Front", stringProperty("meaning/definition of WORD written in RESPONSE_LANGUAGE (1-2 short lines)"));
+        FIELD_PROPERTIES.put("Back", stringProperty("WORD exactly"));
+        FIELD_PROPERTIES.put("Example", stringProperty("one short example sentence that contains WORD"));
+        FIELD_PROPERTIES.put("OccurrenceIndices", stringProperty("comma-separated 0-based word indices of WORD inside Example; no spaces; e.g. '3' or '3,4'"));
+        FIELD_PROPERTIES.put("Synonyms", stringProperty("3-6 synonyms separated by '; ' (empty string if none)"));
+        FIELD_PROPERTIES.put("PartOfSpeech", stringProperty("noun/verb/adjective/etc (empty string if unknown)"));
+        FIELD_PROPERTIES.put("Classifiers", stringProperty("classifier tags if relevant (otherwise empty string)"));
+    }
+
+    private static final GenerateContentConfig UNTRANSLATED_CONFIG = config(schema(List.of()));
+
+    // Batch answers are arrays of per-word objects; JSON mode alone keeps them free of markdown
+    static final GenerateContentConfig JSON_ONLY = GenerateContentConfig.builder()
+            .responseMimeType("application/json")
+            .build();
+
+    record Template(String head, String middle, String tail) {
+
+        String render(String word, List<String> translateTo) {
+            String targets = translateTo.isEmpty() ? "" : String.join(",", translateTo);
+            return new StringBuilder(head.length() + word.length() + middle.length() + targets.length() + tail.length())
+                    .append(head).append(word).append(middle).append(targets).append(tail)
+                    .toString();
+        }
+    }
+
+    private record TemplateKey(String responseLang, boolean translate) {
+    }
+
+    private final Cache<TemplateKey, Template> templates = Caffeine.newBuilder()
+            .maximumSize(MAX_TEMPLATES)
+            .build();
+
+    String prompt(String word, String responseLang, List<String> translateTo) {
+        boolean translate = translateTo != null && !translateTo.isEmpty();
+        Template template = templates.get(new TemplateKey(responseLang, translate), LookupPrompts::compile);
+        return template.render(word, translate ? translateTo : List.of());
+    }
+
+    GenerateContentConfig config(List<String> translateTo) {
+        if (translateTo == null || translateTo.isEmpty()) {
+            return UNTRANSLATED_CONFIG;
+        }
+        return config(schema(translateTo));
+    }
+
+    /**
+     * Prompt for adding translations to a card that already exists. The stored meaning is passed along so
+     * the translations match the sense the card was written for.
+     */
+    String translationPrompt(String word, String meaning, List<String> languages) {
+        return "You translate a flashcard word. The response schema lists one key per language code.\n\n" +
+                "WORD: '" + word + "'\n" +
+                "MEANING: " + meaning + "\n" +
+                "TRANSLATION_TARGETS: " + String.join(",", languages) + "\n\n" +
+                "Give the best natural translation of WORD, in the sense described by MEANING, into each language " +
+                "in TRANSLATION_TARGETS (not the definition). Use plain text, no markdown.";
+    }
+
+    GenerateContentConfig translationConfig(List<String> languages) {
+        return config(translationsSchema(languages));
+    }
+
+    static Map<String, Object> schema(List<String> translateTo) {
+        Map<String, Object> properties = new LinkedHashMap<>(FIELD_PROPERTIES);
+        if (!translateTo.isEmpty()) {
+            properties.put("Translations", translationsSchema(translateTo));
+        }
+        return Map.of(
+                "type", "object",
+                "properties", properties,
+                "required", List.copyOf(properties.keySet())
+        );
+    }
+
+    static Map<String, Object> translationsSchema(List<String> languages) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        for (String lang : languages) {
+            properties.put(lang, stringProperty("translation of WORD into " + lang));
+        }
+        return Map.of(
+                "type", "object",
+                "properties", properties,
+                "required", List.copyOf(properties.keySet())
+        );
+    }
+
+    private static Template compile(TemplateKey key) {
+        String rules = "Hard requirements:\n" +
+                "- Front MUST be a meaning/definition (NOT a translation) written in RESPONSE_LANGUAGE.\n" +
+                (key.translate()
+                        ? "- Front MUST NOT be written in any language listed in TRANSLATION_TARGETS.\n" +
+                          "- Translations are ONLY placed in the Translations object; they must NOT affect Front/Example/Synonyms/etc.\n" +
+                          "- Translations values are the best natural translation of WORD (not the definition).\n"
+                        : "") +
+                ("en".equalsIgnoreCase(key.responseLang()) ? "- If RESPONSE_LANGUAGE is 'en', Front MUST be in English.\n" : "") +
+                "\n" +
+                OCCURRENCE_RULES +
+                "Rules: Use plain text in all string fields, no markdown.";
+
+        String head = "You generate flashcard fields. The response schema describes each field.\n\nWORD: '";
+        String languageLine = "'\nRESPONSE_LANGUAGE: " + key.responseLang() + "\n";
+        if (key.translate()) {
+            return new Template(head, languageLine + "TRANSLATION_TARGETS: ", "\n\n" + rules);
+        }
+        return new Template(head, languageLine, "\n" + rules);
+    }
+
+    private static GenerateContentConfig config(Map<String, Object> schema) {
+        return GenerateContentConfig.builder()
+                .responseMimeType("application/json")
+                .responseJsonSchema(schema)
+                .build();
+    }
+
+    private static Map<String, Object> stringProperty(String description) {
+        return Map.of("type", "string", "description", description);
+    }
+}
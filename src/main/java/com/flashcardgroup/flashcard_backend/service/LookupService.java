@@ -0,0 +1,336 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.flashcardgroup.flashcard_backend.dto.LookupBatchDTO;
+import com.flashcardgroup.flashcard_backend.dto.LookupDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Caching front for LookupEngine.lookup (GeminiService in production). Results are kept in a bounded,
+ * TTL-evicting cache keyed on the normalized (word, responseLang, sorted translation languages), backed
+ * by the shared LookupStore table, and only then by Gemini. Concurrent misses for the same key are
+ * coalesced: the first caller goes to the store or Gemini and every caller arriving meanwhile waits for
+ * and shares that result.
+ * Failures are never cached.
+ *
+ * lookupBatch resolves what it can from the cache and store, then sends the remaining words to Gemini in
+ * groups of app.lookup-batch.group-size, at most app.lookup-batch.max-concurrent-groups groups at a time.
+ *
+ * When the store has the card but not every requested translation language, only the missing languages
+ * are requested from Gemini and merged in; the rest of the card is not regenerated.
+ *
+ * Metrics: cache.gets{cache=lookup,result=hit|miss}, cache.evictions, cache.size, lookup.coalesced,
+ * lookup.delta and lookup.store{result=hit|partial|miss}.
+ */
+@Service
+public class LookupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LookupService.class);
+
+    record LookupKey(String word, String responseLang, List<String> translateTo) {
+
+        static LookupKey of(String word, String responseLang, List<String> translateTo) {
+            return new LookupKey(
+                    Normalizer.normalize(word, Normalizer.Form.NFC).strip().replaceAll("\\s+", " "),
+                    normalizeLang(responseLang),
+                    translateTo.stream().map(LookupKey::normalizeLang).distinct().sorted().toList()
+            );
+        }
+
+        private static String normalizeLang(String lang) {
+            return lang.strip().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final LookupEngine engine;
+    private final LookupStore lookupStore;
+    private final Cache<LookupKey, LookupDTO> cache;
+    private final Map<LookupKey, CompletableFuture<LookupDTO>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalesced;
+    private final Counter batchFailed;
+    private final Counter deltaLookups;
+    private final int batchGroupSize;
+    private final int batchConcurrency;
+
+    public LookupService(
+            LookupEngine engine,
+            LookupStore lookupStore,
+            MeterRegistry meterRegistry,
+            @Value("${app.lookup-cache.max-size:10000}") long maxSize,
+            @Value("${app.lookup-cache.ttl:24h}") Duration ttl,
+            @Value("${app.lookup-batch.group-size:10}") int batchGroupSize,
+            @Value("${app.lookup-batch.max-concurrent-groups:4}") int batchConcurrency
+    ) {
+        this.engine = engine;
+        this.lookupStore = lookupStore;
+        this.batchGroupSize = batchGroupSize;
+        this.batchConcurrency = batchConcurrency;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "lookup");
+        this.coalesced = Counter.builder("lookup.coalesced")
+                .description("Lookups that waited for an identical in-flight Gemini call instead of making their own")
+                .register(meterRegistry);
+        this.deltaLookups = Counter.builder("lookup.delta")
+                .description("Lookups of stored cards that only asked Gemini for missing translation languages")
+                .register(meterRegistry);
+        this.batchFailed = Counter.builder("lookup.batch.failed")
+                .description("Words in batch lookups that came back without a result")
+                .register(meterRegistry);
+    }
+
+    public LookupDTO lookup(String word, String responseLang, List<String> translateTo) throws IOException {
+        LookupKey key = LookupKey.of(word, responseLang, translateTo);
+        LookupDTO cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return inRequestedOrder(cached, translateTo);
+        }
+
+        CompletableFuture<LookupDTO> mine = new CompletableFuture<>();
+        CompletableFuture<LookupDTO> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.increment();
+            return inRequestedOrder(await(leader), translateTo);
+        }
+
+        try {
+            // A previous leader may have filled the cache between our miss and claiming the key
+            LookupDTO result = cache.asMap().get(key);
+            if (result == null) {
+                LookupDTO stored = lookupStore.findPartial(key).orElse(null);
+                if (stored == null) {
+                    result = engine.lookup(key.word(), key.responseLang(), key.translateTo());
+                    lookupStore.save(key, result);
+                } else {
+                    result = withMissingTranslations(key, stored);
+                }
+                cache.put(key, result);
+            }
+            mine.complete(result);
+            return inRequestedOrder(result, translateTo);
+        } catch (IOException | RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Streaming variant of lookup: fields are handed to the listener as they become available and the
+     * complete result is returned at the end. Cache and store hits are replayed field by field at once.
+     * Streamed misses are not coalesced with other in-flight lookups, since every caller needs its own stream.
+     */
+    public LookupDTO lookupStream(String word, String responseLang, List<String> translateTo,
+                                  LookupStreamListener listener) throws IOException {
+        LookupKey key = LookupKey.of(word, responseLang, translateTo);
+        LookupDTO known = cache.getIfPresent(key);
+        if (known != null) {
+            LookupDTO ordered = inRequestedOrder(known, translateTo);
+            replay(ordered, listener);
+            return ordered;
+        }
+
+        LookupDTO stored = lookupStore.findPartial(key).orElse(null);
+        if (stored != null) {
+            // Show what is stored right away; only the missing translations still have to be generated
+            replay(stored, listener);
+            LookupDTO complete = withMissingTranslations(key, stored);
+            for (String lang : key.translateTo()) {
+                if (!stored.Translations().containsKey(lang)) {
+                    listener.onTranslation(lang, complete.Translations().get(lang));
+                }
+            }
+            cache.put(key, complete);
+            return inRequestedOrder(complete, translateTo);
+        }
+
+        LookupDTO result = engine.lookupStream(key.word(), key.responseLang(), key.translateTo(), listener);
+        lookupStore.save(key, result);
+        cache.put(key, result);
+        return inRequestedOrder(result, translateTo);
+    }
+
+    // Fills in the translations a stored card lacks with a translation-only call, and stores them
+    private LookupDTO withMissingTranslations(LookupKey key, LookupDTO stored) throws IOException {
+        List<String> missing = key.translateTo().stream()
+                .filter(lang -> !stored.Translations().containsKey(lang))
+                .toList();
+        if (missing.isEmpty()) {
+            return stored;
+        }
+        deltaLookups.increment();
+        Map<String, String> added = engine.translate(key.word(), stored.Front(), missing);
+        Map<String, String> translations = new LinkedHashMap<>();
+        for (String lang : key.translateTo()) {
+            translations.put(lang, stored.Translations().containsKey(lang) ? stored.Translations().get(lang) : added.get(lang));
+        }
+        LookupDTO complete = new LookupDTO(stored.Front(), stored.Back(), stored.Metadata(), stored.Example(),
+                stored.OccurrenceIndices(), stored.Synonyms(), stored.PartOfSpeech(), stored.Classifiers(), translations);
+        lookupStore.save(key, complete);
+        return complete;
+    }
+
+    private static void replay(LookupDTO dto, LookupStreamListener listener) throws IOException {
+        listener.onField("Front", dto.Front());
+        listener.onField("Back", dto.Back());
+        listener.onField("Example", dto.Example());
+        listener.onField("OccurrenceIndices", dto.OccurrenceIndices());
+        listener.onField("Synonyms", dto.Synonyms());
+        listener.onField("PartOfSpeech", dto.PartOfSpeech());
+        listener.onField("Classifiers", dto.Classifiers());
+        if (dto.Translations() != null) {
+            for (Map.Entry<String, String> translation : dto.Translations().entrySet()) {
+                listener.onTranslation(translation.getKey(), translation.getValue());
+            }
+        }
+    }
+
+    /**
+     * Looks up many words at once. Words already in the cache or store are answered from there; the rest
+     * are packed into multi-word Gemini calls. A group that fails, or an entry the model got wrong, only
+     * costs the affected words: they are listed in Failed and everything else is returned.
+     */
+    public LookupBatchDTO lookupBatch(List<String> words, String responseLang, List<String> translateTo) {
+        Map<String, LookupKey> keys = new LinkedHashMap<>();
+        for (String word : words) {
+            keys.putIfAbsent(word, LookupKey.of(word, responseLang, translateTo));
+        }
+
+        Map<LookupKey, LookupDTO> resolved = new ConcurrentHashMap<>();
+        List<LookupKey> misses = new ArrayList<>();
+        for (LookupKey key : keys.values()) {
+            if (resolved.containsKey(key) || misses.contains(key)) {
+                continue;
+            }
+            LookupDTO known = cache.getIfPresent(key);
+            if (known == null) {
+                known = lookupStore.find(key).orElse(null);
+                if (known != null) {
+                    cache.put(key, known);
+                }
+            }
+            if (known != null) {
+                resolved.put(key, known);
+            } else {
+                misses.add(key);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            Semaphore groupsInFlight = new Semaphore(batchConcurrency);
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int from = 0; from < misses.size(); from += batchGroupSize) {
+                    List<LookupKey> group = misses.subList(from, Math.min(from + batchGroupSize, misses.size()));
+                    executor.submit(() -> {
+                        try {
+                            groupsInFlight.acquire();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        try {
+                            lookupGroup(group, resolved);
+                        } finally {
+                            groupsInFlight.release();
+                        }
+                    });
+                }
+            }
+        }
+
+        Map<String, LookupDTO> results = new LinkedHashMap<>();
+        List<String> failed = new ArrayList<>();
+        keys.forEach((word, key) -> {
+            LookupDTO dto = resolved.get(key);
+            if (dto != null) {
+                results.put(word, inRequestedOrder(dto, translateTo));
+            } else {
+                failed.add(word);
+            }
+        });
+        batchFailed.increment(failed.size());
+        return new LookupBatchDTO(results, failed);
+    }
+
+    private void lookupGroup(List<LookupKey> group, Map<LookupKey, LookupDTO> resolved) {
+        LookupKey first = group.get(0);
+        List<String> words = group.stream().map(LookupKey::word).toList();
+        Map<String, LookupDTO> answers;
+        try {
+            answers = engine.lookupBatch(words, first.responseLang(), first.translateTo());
+        } catch (IOException | RuntimeException e) {
+            // Includes a full bulkhead, an open circuit and a missed deadline
+            logger.warn("Batch lookup of {} words failed: {}", words.size(), e.getMessage());
+            return;
+        }
+        for (LookupKey key : group) {
+            LookupDTO dto = answers.get(key.word());
+            if (dto != null) {
+                lookupStore.save(key, dto);
+                cache.put(key, dto);
+                resolved.put(key, dto);
+            }
+        }
+    }
+
+    private static LookupDTO await(CompletableFuture<LookupDTO> leader) throws IOException {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for an in-flight lookup");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IOException(e.getCause());
+        }
+    }
+
+    // Cached results are shared across translation-language orderings; give each caller theirs back
+    private static LookupDTO inRequestedOrder(LookupDTO dto, List<String> translateTo) {
+        if (dto.Translations() == null || dto.Translations().size() < 2) {
+            return dto;
+        }
+        Map<String, String> ordered = new LinkedHashMap<>();
+        for (String lang : translateTo) {
+            dto.Translations().entrySet().stream()
+                    .filter(e -> e.getKey().equalsIgnoreCase(lang.strip()))
+                    .findFirst()
+                    .ifPresent(e -> ordered.putIfAbsent(e.getKey(), e.getValue()));
+        }
+        dto.Translations().forEach(ordered::putIfAbsent);
+        return new LookupDTO(dto.Front(), dto.Back(), dto.Metadata(), dto.Example(), dto.OccurrenceIndices(),
+                dto.Synonyms(), dto.PartOfSpeech(), dto.Classifiers(), ordered);
+    }
+}
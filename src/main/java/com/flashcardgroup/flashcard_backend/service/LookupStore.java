@@ -0,0 +1,206 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.flashcardgroup.flashcard_backend.dto.LookupDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Durable lookup dictionary in lookup_entries, shared by every instance. A lookup is answered from the
+ * store only when the base row and a row for every requested translation language exist. When only the
+ * base row and some languages exist (findPartial), the caller asks Gemini for the missing translations
+ * alone; otherwise it goes to Gemini for the whole card. Either way it saves the result, adding whichever
+ * rows are missing. The store is an optimization: database errors are logged and treated as a miss or a
+ * skipped write.
+ */
+@Service
+public class LookupStore {
+
+    private static final Logger log = LoggerFactory.getLogger(LookupStore.class);
+
+    // translation_lang of the row holding the card fields
+    static final String BASE_ROW = "";
+
+    private static final String INSERT =
+            "INSERT INTO lookup_entries (word_hash, word, response_lang, translation_lang, front, back, metadata, example, " +
+            "occurrence_indices, synonyms, part_of_speech, classifiers, translation, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter partials;
+
+    public LookupStore(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.hits = Counter.builder("lookup.store").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("lookup.store").tag("result", "miss").register(meterRegistry);
+        this.partials = Counter.builder("lookup.store").tag("result", "partial").register(meterRegistry);
+    }
+
+    Optional<LookupDTO> find(LookupService.LookupKey key) {
+        Optional<LookupDTO> stored = read(key);
+        if (stored.isEmpty() || stored.get().Translations().size() < key.translateTo().size()) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return stored;
+    }
+
+    /**
+     * Like find, but also returns a result when only some of the requested translation languages are
+     * stored, so the caller can ask Gemini for just the missing ones. Empty when the base row is missing.
+     */
+    Optional<LookupDTO> findPartial(LookupService.LookupKey key) {
+        Optional<LookupDTO> stored = read(key);
+        if (stored.isEmpty()) {
+            misses.increment();
+        } else if (stored.get().Translations().size() < key.translateTo().size()) {
+            partials.increment();
+        } else {
+            hits.increment();
+        }
+        return stored;
+    }
+
+    // The base row plus whichever of the requested translations exist, in requested order
+    private Optional<LookupDTO> read(LookupService.LookupKey key) {
+        List<Object> args = new ArrayList<>();
+        args.add(wordHash(key.word()));
+        args.add(key.responseLang());
+        args.add(BASE_ROW);
+        args.addAll(key.translateTo());
+        String placeholders = String.join(", ", Collections.nCopies(key.translateTo().size() + 1, "?"));
+
+        List<Map<String, Object>> rows;
+        try {
+            rows = jdbcTemplate.queryForList(
+                    "SELECT translation_lang, front, back, metadata, example, occurrence_indices, synonyms, " +
+                    "part_of_speech, classifiers, translation FROM lookup_entries " +
+                    "WHERE word_hash = ? AND response_lang = ? AND translation_lang IN (" + placeholders + ")",
+                    args.toArray());
+        } catch (DataAccessException e) {
+            log.warn("Lookup store read failed for '{}'; falling back to Gemini", key.word(), e);
+            return Optional.empty();
+        }
+
+        Map<String, Object> base = null;
+        Map<String, String> found = new LinkedHashMap<>();
+        for (Map<String, Object> row : rows) {
+            String lang = (String) row.get("translation_lang");
+            if (BASE_ROW.equals(lang)) {
+                base = row;
+            } else {
+                found.put(lang, (String) row.get("translation"));
+            }
+        }
+        if (base == null) {
+            return Optional.empty();
+        }
+
+        Map<String, String> translations = new LinkedHashMap<>();
+        for (String lang : key.translateTo()) {
+            if (found.containsKey(lang)) {
+                translations.put(lang, found.get(lang));
+            }
+        }
+        return Optional.of(new LookupDTO(
+                (String) base.get("front"),
+                (String) base.get("back"),
+                (String) base.get("metadata"),
+                (String) base.get("example"),
+                (String) base.get("occurrence_indices"),
+                (String) base.get("synonyms"),
+                (String) base.get("part_of_speech"),
+                (String) base.get("classifiers"),
+                translations
+        ));
+    }
+
+    /**
+     * Whether find would answer the key from the store, without reading the rows or counting a hit
+     * or miss, so background callers don't skew the lookup.store metrics.
+     */
+    boolean contains(LookupService.LookupKey key) {
+        List<Object> args = new ArrayList<>();
+        args.add(wordHash(key.word()));
+        args.add(key.responseLang());
+        args.add(BASE_ROW);
+        args.addAll(key.translateTo());
+        String placeholders = String.join(", ", Collections.nCopies(key.translateTo().size() + 1, "?"));
+        try {
+            Integer rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM lookup_entries " +
+                    "WHERE word_hash = ? AND response_lang = ? AND translation_lang IN (" + placeholders + ")",
+                    Integer.class, args.toArray());
+            return rows != null && rows == key.translateTo().size() + 1;
+        } catch (DataAccessException e) {
+            log.warn("Lookup store check failed for '{}'", key.word(), e);
+            return false;
+        }
+    }
+
+    // Inserts each row that isn't there yet; rows another instance wrote first are left as they are
+    void save(LookupService.LookupKey key, LookupDTO dto) {
+        String hash = wordHash(key.word());
+        long now = Instant.now().getEpochSecond();
+        insertIfAbsent(hash, key, BASE_ROW, dto, null, now);
+        if (dto.Translations() != null) {
+            for (Map.Entry<String, String> t : dto.Translations().entrySet()) {
+                String lang = t.getKey().strip().toLowerCase(Locale.ROOT);
+                if (key.translateTo().contains(lang)) {
+                    insertIfAbsent(hash, key, lang, null, t.getValue(), now);
+                }
+            }
+        }
+    }
+
+    private void insertIfAbsent(String hash, LookupService.LookupKey key, String lang, LookupDTO base, String translation, long now) {
+        try {
+            jdbcTemplate.update(INSERT,
+                    hash, key.word(), key.responseLang(), lang,
+                    base != null ? base.Front() : null,
+                    base != null ? base.Back() : null,
+                    base != null ? base.Metadata() : null,
+                    base != null ? base.Example() : null,
+                    base != null ? base.OccurrenceIndices() : null,
+                    base != null ? base.Synonyms() : null,
+                    base != null ? base.PartOfSpeech() : null,
+                    base != null ? base.Classifiers() : null,
+                    translation,
+                    now);
+        } catch (DuplicateKeyException e) {
+            // Already stored, possibly by another instance
+        } catch (DataAccessException e) {
+            log.warn("Lookup store write failed for '{}' ({})", key.word(), lang.isEmpty() ? "base" : lang, e);
+        }
+    }
+
+    static String wordHash(String normalizedWord) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(normalizedWord.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
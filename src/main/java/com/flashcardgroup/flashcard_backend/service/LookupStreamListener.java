@@ -0,0 +1,14 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import java.io.IOException;
+
+/**
+ * Receives lookup fields as soon as each one is complete, before the whole LookupDTO is known.
+ * Throwing aborts the lookup, e.g. when the client behind a streamed response has gone away.
+ */
+public interface LookupStreamListener {
+
+    void onField(String field, String value) throws IOException;
+
+    void onTranslation(String language, String value) throws IOException;
+}
@@ -0,0 +1,110 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.flashcardgroup.flashcard_backend.dto.LookupDTO;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Incrementally parses a streamed lookup response with Jackson's non-blocking parser. Text chunks are fed
+ * as the model produces them; each top-level field and each Translations entry is reported to the
+ * listener the moment its value is complete. Anything before the opening brace (a markdown code fence)
+ * and after the closing brace is ignored.
+ */
+class LookupStreamParser {
+
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+    private final LookupStreamListener listener;
+    private final ObjectNode result;
+
+    private boolean started;
+    private boolean finished;
+    private int depth;
+    private String field;
+    private String language;
+    private ObjectNode translations;
+
+    LookupStreamParser(ObjectMapper objectMapper, LookupStreamListener listener) throws IOException {
+        this.parser = objectMapper.getFactory().createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        this.listener = listener;
+        this.result = objectMapper.createObjectNode();
+    }
+
+    void feed(String chunk) throws IOException {
+        if (finished || chunk == null || chunk.isEmpty()) {
+            return;
+        }
+        if (!started) {
+            int brace = chunk.indexOf('{');
+            if (brace < 0) {
+                return;
+            }
+            chunk = chunk.substring(brace);
+            started = true;
+        }
+        // Chunks are whole strings, so multi-byte characters are never split across feeds
+        byte[] bytes = chunk.getBytes(StandardCharsets.UTF_8);
+        feeder.feedInput(bytes, 0, bytes.length);
+        drain();
+    }
+
+    LookupDTO finish(String word) throws IOException {
+        if (!finished) {
+            throw new IOException("Failed to parse Gemini response: stream ended before the JSON object was complete");
+        }
+        return GeminiService.toLookupDTO(word, result);
+    }
+
+    private void drain() throws IOException {
+        JsonToken token;
+        while (!finished && (token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            switch (token) {
+                case START_OBJECT -> {
+                    depth++;
+                    if (depth == 2 && "Translations".equals(field)) {
+                        translations = result.putObject("Translations");
+                    }
+                }
+                case END_OBJECT -> {
+                    depth--;
+                    if (depth == 1) {
+                        translations = null;
+                    } else if (depth == 0) {
+                        finished = true;
+                        feeder.endOfInput();
+                    }
+                }
+                case START_ARRAY -> depth++;
+                case END_ARRAY -> depth--;
+                case FIELD_NAME -> {
+                    if (depth == 1) {
+                        field = parser.currentName();
+                    } else if (depth == 2) {
+                        language = parser.currentName();
+                    }
+                }
+                default -> onScalar(token == JsonToken.VALUE_NULL ? "" : parser.getText());
+            }
+        }
+    }
+
+    private void onScalar(String value) throws IOException {
+        if (depth == 1) {
+            result.put(field, value);
+            // Metadata is always blanked in the final result, so there is nothing to show early
+            if (!"Metadata".equals(field)) {
+                listener.onField(field, value);
+            }
+        } else if (depth == 2 && translations != null) {
+            translations.put(language, value);
+            listener.onTranslation(language, value);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.flashcardgroup.flashcard_backend.scheduling.LeitnerAlgorithm;
+import com.flashcardgroup.flashcard_backend.scheduling.ReviewState;
+import com.flashcardgroup.flashcard_backend.scheduling.SchedulingAlgorithm;
+import com.flashcardgroup.flashcard_backend.scheduling.SchedulingAlgorithmType;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Recomputes next_review_at for every card of a deck after its scheduling algorithm or parameters change.
+ * Cards are read in keyset chunks of chunk-size rows (cardid after the last one read), recomputed on a dedicated fork-join pool and
+ * written back with one JDBC batch per chunk, each chunk in its own short transaction so reviews
+ * keep flowing while a large deck is rescheduled.
+ */
+@Service
+public class ReschedulingJob {
+
+    private static final Logger log = LoggerFactory.getLogger(ReschedulingJob.class);
+
+    private static final String SELECT_CHUNK =
+            "SELECT cardid, stage, last_reviewed, stability, difficulty FROM flashcards " +
+            "WHERE deckid = ? AND cardid > ? ORDER BY cardid LIMIT ?";
+    // last_reviewed guard: a review that lands mid-job already used the new algorithm, so keep it
+    private static final String UPDATE_CARD =
+            "UPDATE flashcards SET next_review_at = ?, stability = ?, difficulty = ? " +
+            "WHERE cardid = ? AND last_reviewed = ?";
+
+    private record CardRow(int cardId, ReviewState state) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final ForkJoinPool computePool;
+    private final ExecutorService jobRunner = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "rescheduling-job");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ReschedulingJob(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.rescheduling.chunk-size:5000}") int chunkSize,
+            @Value("${app.rescheduling.parallelism:0}") int parallelism
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.computePool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Queues a rescheduling run for a deck. Runs are executed one at a time in submission order,
+     * so the last switch of a deck always wins.
+     *
+     * @param resetDifficulty true when the algorithm itself changed, since SM-2 ease and FSRS difficulty are not comparable
+     * @return future completing with the number of cards rescheduled
+     */
+    public CompletableFuture<Integer> submit(int deckId, SchedulingAlgorithm algorithm, boolean resetDifficulty) {
+        return CompletableFuture.supplyAsync(() -> run(deckId, algorithm, resetDifficulty), jobRunner)
+                .whenComplete((count, ex) -> {
+                    if (ex != null) {
+                        log.error("Rescheduling deck {} to {} failed", deckId, algorithm.type(), ex);
+                    }
+                });
+    }
+
+    int run(int deckId, SchedulingAlgorithm algorithm, boolean resetDifficulty) {
+        long started = System.nanoTime();
+        // Card ids come from one global sequence, so a deck's ids are scattered; walk them by keyset instead of by id range
+        int total = 0;
+        int afterCardId = Integer.MIN_VALUE;
+        List<CardRow> rows;
+        do {
+            rows = readChunk(deckId, afterCardId, resetDifficulty);
+            if (!rows.isEmpty()) {
+                total += rescheduleChunk(rows, algorithm);
+                afterCardId = rows.get(rows.size() - 1).cardId();
+            }
+        } while (rows.size() == chunkSize);
+        log.info("Rescheduled {} cards of deck {} with {} in {} ms",
+                total, deckId, algorithm.type(), (System.nanoTime() - started) / 1_000_000);
+        return total;
+    }
+
+    private List<CardRow> readChunk(int deckId, int afterCardId, boolean resetDifficulty) {
+        return jdbcTemplate.query(SELECT_CHUNK, (rs, i) -> new CardRow(
+                rs.getInt("cardid"),
+                new ReviewState(
+                        rs.getInt("stage"),
+                        rs.getLong("last_reviewed"),
+                        rs.getObject("stability", Double.class),
+                        resetDifficulty ? null : rs.getObject("difficulty", Double.class))
+        ), deckId, afterCardId, chunkSize);
+    }
+
+    // Returns the rows actually updated; cards reviewed since they were read are skipped by the last_reviewed guard
+    private int rescheduleChunk(List<CardRow> rows, SchedulingAlgorithm algorithm) {
+        List<Object[]> updates;
+        try {
+            updates = computePool.submit(() -> rows.parallelStream()
+                    .map(row -> toUpdate(row, algorithm))
+                    .toList()
+            ).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Rescheduling interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Rescheduling computation failed", e.getCause());
+        }
+
+        int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(UPDATE_CARD, updates));
+        int updated = 0;
+        for (int count : counts) {
+            // SUCCESS_NO_INFO: the driver ran the statement but did not report a count
+            updated += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+        }
+        return updated;
+    }
+
+    private static Object[] toUpdate(CardRow row, SchedulingAlgorithm algorithm) {
+        ReviewState state = row.state();
+        // Cards that never had algorithm state start from their current Leitner interval
+        Double stability = state.stability();
+        if (stability == null && algorithm.type() != SchedulingAlgorithmType.LEITNER) {
+            stability = LeitnerAlgorithm.intervalSeconds(state.stage()) / (double) SchedulingAlgorithm.DAY;
+        }
+        ReviewState seeded = new ReviewState(state.stage(), state.lastReviewed(), stability, state.difficulty());
+        return new Object[]{algorithm.nextReviewAt(seeded), stability, state.difficulty(), row.cardId(), state.lastReviewed()};
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobRunner.shutdownNow();
+        computePool.shutdownNow();
+    }
+}
@@ -0,0 +1,199 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.flashcardgroup.flashcard_backend.model.ReviewEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for review_events. Reviews are queued in memory after their transaction
+ * commits and written by a single background thread in multi-row INSERTs, either when
+ * batch-size events are waiting or every flush-interval-ms, whichever comes first.
+ * When the buffer is full, producers wait up to offer-timeout-ms for space before the event is dropped.
+ */
+@Service
+public class ReviewEventBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewEventBuffer.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LinkedBlockingDeque<ReviewEvent> buffer;
+    private final int batchSize;
+    private final long offerTimeoutMs;
+    private final ScheduledExecutorService flusher;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private final Counter flushedCounter;
+    private final Counter backpressureCounter;
+    private final Counter droppedCounter;
+    private final Counter failedFlushCounter;
+    private final Timer flushTimer;
+
+    public ReviewEventBuffer(
+            JdbcTemplate jdbcTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.review-events.capacity:10000}") int capacity,
+            @Value("${app.review-events.batch-size:200}") int batchSize,
+            @Value("${app.review-events.flush-interval-ms:1000}") long flushIntervalMs,
+            @Value("${app.review-events.offer-timeout-ms:50}") long offerTimeoutMs
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new LinkedBlockingDeque<>(capacity);
+        this.batchSize = batchSize;
+        this.offerTimeoutMs = offerTimeoutMs;
+
+        this.flushedCounter = meterRegistry.counter("review_events.flushed");
+        this.backpressureCounter = meterRegistry.counter("review_events.backpressure");
+        this.droppedCounter = meterRegistry.counter("review_events.dropped");
+        this.failedFlushCounter = meterRegistry.counter("review_events.flush.failures");
+        this.flushTimer = meterRegistry.timer("review_events.flush");
+        Gauge.builder("review_events.buffer.size", buffer, LinkedBlockingDeque::size).register(meterRegistry);
+        Gauge.builder("review_events.buffer.remaining", buffer, LinkedBlockingDeque::remainingCapacity).register(meterRegistry);
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "review-event-flusher");
+            t.setDaemon(true);
+            return t;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Queues a review; inside a transaction the event is only queued once it commits
+    public void record(int cardId, boolean remembered, long reviewedAtSeconds) {
+        ReviewEvent event = new ReviewEvent(cardId, remembered, reviewedAtSeconds);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(event);
+                }
+            });
+        } else {
+            enqueue(event);
+        }
+    }
+
+    private void enqueue(ReviewEvent event) {
+        if (!buffer.offer(event)) {
+            // Full: wake the flusher and hold the producer briefly instead of growing without bound
+            backpressureCounter.increment();
+            requestFlush();
+            try {
+                if (!buffer.offer(event, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+                    droppedCounter.increment();
+                    log.warn("Review event buffer full; dropped event for cardId={}", event.getCardId());
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                droppedCounter.increment();
+                return;
+            }
+        }
+        if (buffer.size() >= batchSize) {
+            requestFlush();
+        }
+    }
+
+    private void requestFlush() {
+        if (!flushRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        } catch (RejectedExecutionException e) {
+            // Shutting down; the shutdown drain writes whatever is still buffered
+            flushRequested.set(false);
+        }
+    }
+
+    /**
+     * Writes the events queued at call time in chunks of batch-size rows.
+     * A failed chunk is put back at the head of the buffer for the next attempt.
+     *
+     * @return the number of events written
+     */
+    public int flush() {
+        flushLock.lock();
+        try {
+            int written = 0;
+            int remaining = buffer.size();
+            List<ReviewEvent> batch = new ArrayList<>(batchSize);
+            while (remaining > 0 && buffer.drainTo(batch, Math.min(batchSize, remaining)) > 0) {
+                try {
+                    flushTimer.record(() -> insertBatch(batch));
+                } catch (DataAccessException e) {
+                    failedFlushCounter.increment();
+                    log.error("Failed to write {} review events; will retry", batch.size(), e);
+                    requeue(batch);
+                    break;
+                }
+                flushedCounter.increment(batch.size());
+                written += batch.size();
+                remaining -= batch.size();
+                batch.clear();
+            }
+            return written;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void insertBatch(List<ReviewEvent> batch) {
+        StringBuilder sql = new StringBuilder("INSERT INTO review_events (cardid, remembered, reviewed_at) VALUES ");
+        Object[] args = new Object[batch.size() * 3];
+        for (int i = 0; i < batch.size(); i++) {
+            ReviewEvent event = batch.get(i);
+            sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+            args[i * 3] = event.getCardId();
+            args[i * 3 + 1] = event.getRemembered();
+            args[i * 3 + 2] = event.getReviewedAt();
+        }
+        jdbcTemplate.update(sql.toString(), args);
+    }
+
+    private void requeue(List<ReviewEvent> batch) {
+        for (int i = batch.size() - 1; i >= 0; i--) {
+            if (!buffer.offerFirst(batch.get(i))) {
+                droppedCounter.increment();
+            }
+        }
+    }
+
+    // Drains everything still buffered before the DataSource goes away
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        while (!buffer.isEmpty()) {
+            if (flush() == 0) {
+                log.error("Discarding {} review events that could not be written on shutdown", buffer.size());
+                break;
+            }
+        }
+    }
+}
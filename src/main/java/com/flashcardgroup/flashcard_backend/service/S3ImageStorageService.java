@@ -5,19 +5,32 @@ import com.flashcardgroup.flashcard_backend.exception.ImageUploadException;
 import com.flashcardgroup.flashcard_backend.exception.ImageRetrievalException;
 import com.flashcardgroup.flashcard_backend.exception.UnsupportedImageTypeException;
 import com.flashcardgroup.flashcard_backend.exception.ImageNotFoundException;
+import com.flashcardgroup.flashcard_backend.exception.ImageNotModifiedException;
+import com.flashcardgroup.flashcard_backend.exception.ImageRangeNotSatisfiableException;
+import com.flashcardgroup.flashcard_backend.resilience.Bulkhead;
+import com.flashcardgroup.flashcard_backend.resilience.Bulkheads;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import software.amazon.awssdk.core.sync.RequestBody;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectRequest;
 import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
 import software.amazon.awssdk.core.ResponseInputStream;
 import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 
+import java.io.FilterInputStream;
 import java.io.InputStream;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.slf4j.Logger;
@@ -31,6 +44,8 @@ public class S3ImageStorageService implements ImageStorageService {
     private static final Logger log = LoggerFactory.getLogger(S3ImageStorageService.class);
 
     private final S3Client s3Client;
+    private final Bulkhead bulkhead;
+    private final Bulkhead downloads;
 
     @Value("${aws.s3.bucket-name}")
     private String bucketName;
@@ -41,8 +56,10 @@ public class S3ImageStorageService implements ImageStorageService {
     @Value("${aws.s3.allowed-content-types}")
     private List<String> allowedContentTypes;
 
-    public S3ImageStorageService(S3Client s3Client) {
+    public S3ImageStorageService(S3Client s3Client, Bulkheads bulkheads) {
         this.s3Client = s3Client;
+        this.bulkhead = bulkheads.get(Bulkheads.S3);
+        this.downloads = bulkheads.get(Bulkheads.S3_DOWNLOADS);
     }
 
     @Override
@@ -52,6 +69,13 @@ public class S3ImageStorageService implements ImageStorageService {
         String extension = extractExtension(originalFilename);
         String key = buildKey(logicalKeyPrefix, extension);
 
+        // Acquired outside the inner try so a full bulkhead surfaces as 503 rather than an upload failure
+        try (Bulkhead.Permit permit = bulkhead.acquire()) {
+            return putImage(key, contentType, data, contentLength);
+        }
+    }
+
+    private String putImage(String key, String contentType, InputStream data, long contentLength) {
         try {
             log.info("Uploading image to S3 bucket='{}', key='{}', contentType='{}', size={} bytes", bucketName, key, contentType, contentLength);
 
@@ -72,34 +96,147 @@ public class S3ImageStorageService implements ImageStorageService {
     }
 
     @Override
-    public ImageData getImage(String key) {
+    public ImageMetadata getImageMetadata(String key) {
+        try (Bulkhead.Permit permit = bulkhead.acquire()) {
+            return fetchMetadata(key);
+        }
+    }
+
+    private ImageMetadata fetchMetadata(String key) {
+        try {
+            HeadObjectResponse head = s3Client.headObject(HeadObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .build());
+            return new ImageMetadata(orOctetStream(head.contentType()), head.contentLength(), head.eTag(), head.lastModified());
+        } catch (Exception e) {
+            throw retrievalFailure(key, e);
+        }
+    }
+
+    @Override
+    public ImageContent openImage(String key, String range, String ifNoneMatch, Instant ifModifiedSince) {
+        // Open bodies stream at the client's pace, each on its own SDK connection, so they have a bulkhead
+        // of their own that is released when the body is closed; S3Config sizes the pool for both
+        Bulkhead.Permit download = downloads.acquire();
+        try {
+            ResponseInputStream<GetObjectResponse> response;
+            // The shared S3 slot is only held until S3 has answered with headers
+            try (Bulkhead.Permit permit = bulkhead.acquire()) {
+                response = fetchImage(key, range, ifNoneMatch, ifModifiedSince);
+            }
+            GetObjectResponse object = response.response();
+            return new ImageContent(new S3ObjectStream(response, download), orOctetStream(object.contentType()),
+                    object.contentLength(), object.contentRange(), object.eTag(), object.lastModified());
+        } catch (RuntimeException e) {
+            download.close();
+            throw e;
+        }
+    }
+
+    private ResponseInputStream<GetObjectResponse> fetchImage(String key, String range, String ifNoneMatch, Instant ifModifiedSince) {
         try {
             GetObjectRequest req = GetObjectRequest.builder()
                     .bucket(bucketName)
                     .key(key)
+                    .range(range)
+                    .ifNoneMatch(ifNoneMatch)
+                    .ifModifiedSince(ifModifiedSince)
                     .build();
-            try (ResponseInputStream<GetObjectResponse> response = s3Client.getObject(req)) {
-                byte[] bytes = response.readAllBytes();
-                String contentType = response.response().contentType();
-                long length = response.response().contentLength();
-                return new ImageData(bytes, contentType != null ? contentType : "application/octet-stream", length);
-            }
-        } catch (NoSuchKeyException e) {
-            log.warn("S3 image not found: key='{}'", key);
-            throw new ImageNotFoundException("Image not found: " + key);
+            return s3Client.getObject(req);
         } catch (S3Exception e) {
-            if (e.statusCode() == 404) {
-                log.warn("S3 404 for key='{}'", key);
-                throw new ImageNotFoundException("Image not found: " + key);
+            if (e.statusCode() == 304) {
+                // S3 sends no body with 304; only the validators are worth passing on
+                throw new ImageNotModifiedException(responseHeader(e, HttpHeaders.ETAG).orElse(null),
+                        responseHeader(e, HttpHeaders.LAST_MODIFIED).map(S3ImageStorageService::parseHttpDate).orElse(null));
+            }
+            if (e.statusCode() == 416) {
+                // S3 does not say how long the object is; clients need it in Content-Range to retry
+                throw new ImageRangeNotSatisfiableException("Range not satisfiable: " + range, fetchMetadata(key).contentLength());
             }
-            log.error("S3 error retrieving image: key='{}' status={} message={}", key, e.statusCode(), e.awsErrorDetails() != null ? e.awsErrorDetails().errorMessage() : e.getMessage());
-            throw new ImageRetrievalException("Failed to retrieve image from S3", e);
-        } catch (IOException e) {
-            log.error("IO error reading S3 object: key='{}'", key, e);
-            throw new ImageRetrievalException("Failed to read image stream", e);
+            throw retrievalFailure(key, e);
         } catch (Exception e) {
-            log.error("Unexpected error retrieving image: key='{}'", key, e);
-            throw new ImageRetrievalException("Failed to retrieve image from S3", e);
+            throw retrievalFailure(key, e);
+        }
+    }
+
+    private RuntimeException retrievalFailure(String key, Exception e) {
+        if (e instanceof NoSuchKeyException || (e instanceof S3Exception s3 && s3.statusCode() == 404)) {
+            log.warn("S3 image not found: key='{}'", key);
+            return new ImageNotFoundException("Image not found: " + key);
+        }
+        if (e instanceof S3Exception s3) {
+            log.error("S3 error retrieving image: key='{}' status={} message={}", key, s3.statusCode(), s3.awsErrorDetails() != null ? s3.awsErrorDetails().errorMessage() : s3.getMessage());
+            return new ImageRetrievalException("Failed to retrieve image from S3", e);
+        }
+        log.error("Unexpected error retrieving image: key='{}'", key, e);
+        return new ImageRetrievalException("Failed to retrieve image from S3", e);
+    }
+
+    private static Optional<String> responseHeader(S3Exception e, String name) {
+        if (e.awsErrorDetails() == null || e.awsErrorDetails().sdkHttpResponse() == null) {
+            return Optional.empty();
+        }
+        return e.awsErrorDetails().sdkHttpResponse().firstMatchingHeader(name);
+    }
+
+    private static Instant parseHttpDate(String value) {
+        try {
+            return ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String orOctetStream(String contentType) {
+        return contentType != null ? contentType : "application/octet-stream";
+    }
+
+    /**
+     * S3 object body that is aborted rather than drained when closed before the end, so a client that
+     * goes away mid-download does not cost the rest of the object. Closing it frees the download slot.
+     */
+    private static final class S3ObjectStream extends FilterInputStream {
+
+        private final ResponseInputStream<GetObjectResponse> response;
+        private final Bulkhead.Permit download;
+        private boolean finished;
+        private boolean closed;
+
+        S3ObjectStream(ResponseInputStream<GetObjectResponse> response, Bulkhead.Permit download) {
+            super(response);
+            this.response = response;
+            this.download = download;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            finished |= b < 0;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            finished |= n < 0;
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                if (!finished) {
+                    response.abort();
+                }
+                response.close();
+            } finally {
+                download.close();
+            }
         }
     }
 
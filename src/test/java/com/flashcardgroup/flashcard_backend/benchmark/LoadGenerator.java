@@ -0,0 +1,117 @@
+package com.flashcardgroup.flashcard_backend.benchmark;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Open-loop HTTP load generator. Requests start on a fixed schedule at the target rate whether or not
+ * earlier ones have finished, and latency is measured from each request's scheduled start, so a server
+ * that falls behind shows up as latency rather than as a quietly lower offered rate.
+ */
+final class LoadGenerator {
+
+    private static final String OK = "ok";
+
+    /**
+     * @param failures count per failure kind: the HTTP status for 4xx/5xx answers, the exception name otherwise
+     * @param latenciesNanos latencies of the successful requests, sorted
+     */
+    record Report(int sent, int succeeded, Map<String, Integer> failures, Duration elapsed, long[] latenciesNanos) {
+
+        double throughput() {
+            return succeeded / (elapsed.toNanos() / 1e9);
+        }
+
+        double errorRate() {
+            return sent == 0 ? 0 : (double) (sent - succeeded) / sent;
+        }
+
+        // Nearest-rank percentile of the successful requests
+        Duration percentile(double percent) {
+            if (latenciesNanos.length == 0) {
+                return Duration.ZERO;
+            }
+            int rank = (int) Math.ceil(percent / 100 * latenciesNanos.length);
+            return Duration.ofNanos(latenciesNanos[Math.max(0, rank - 1)]);
+        }
+
+        String format() {
+            return String.format(Locale.ROOT,
+                    "%d requests in %.1fs: %.1f ok/s, errors %.2f%% %s, latency p50 %d ms, p90 %d ms, p99 %d ms, max %d ms",
+                    sent, elapsed.toNanos() / 1e9, throughput(), errorRate() * 100, failures,
+                    percentile(50).toMillis(), percentile(90).toMillis(), percentile(99).toMillis(), percentile(100).toMillis());
+        }
+    }
+
+    private final HttpClient client;
+
+    LoadGenerator(HttpClient client) {
+        this.client = client;
+    }
+
+    /**
+     * Sends ratePerSecond * duration requests, request i built by requests.apply(i), and waits for all
+     * of them to finish.
+     */
+    Report run(int ratePerSecond, Duration duration, IntFunction<HttpRequest> requests) throws InterruptedException {
+        int total = (int) (ratePerSecond * duration.toNanos() / TimeUnit.SECONDS.toNanos(1));
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / ratePerSecond;
+        long[] latencies = new long[total];
+        String[] outcomes = new String[total];
+
+        long start = System.nanoTime();
+        // close() waits for every request, which also publishes the array writes to this thread
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < total; i++) {
+                long scheduled = start + i * intervalNanos;
+                long wait = scheduled - System.nanoTime();
+                if (wait > 0) {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                }
+                int index = i;
+                executor.submit(() -> {
+                    outcomes[index] = send(requests.apply(index));
+                    latencies[index] = System.nanoTime() - scheduled;
+                });
+            }
+        }
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+
+        Map<String, Integer> failures = new TreeMap<>();
+        long[] succeeded = new long[total];
+        int ok = 0;
+        for (int i = 0; i < total; i++) {
+            if (OK.equals(outcomes[i])) {
+                succeeded[ok++] = latencies[i];
+            } else {
+                failures.merge(String.valueOf(outcomes[i]), 1, Integer::sum);
+            }
+        }
+        long[] okLatencies = Arrays.copyOf(succeeded, ok);
+        Arrays.sort(okLatencies);
+        return new Report(total, ok, failures, elapsed, okLatencies);
+    }
+
+    private String send(HttpRequest request) {
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() < 400 ? OK : String.valueOf(response.statusCode());
+        } catch (IOException e) {
+            return e.getClass().getSimpleName();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "interrupted";
+        }
+    }
+}
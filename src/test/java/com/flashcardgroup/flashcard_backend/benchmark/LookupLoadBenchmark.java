@@ -0,0 +1,112 @@
+package com.flashcardgroup.flashcard_backend.benchmark;
+
+import com.flashcardgroup.flashcard_backend.security.JwtService;
+import io.micrometer.core.instrument.Measurement;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.search.Search;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * End-to-end load benchmark of GET /lookup/{word} against the fake lookup engine, with no network access.
+ * Not part of the regular test run; start it with
+ *
+ *   ./gradlew lookupBenchmark -Pbenchmark.rps=100 -Pbenchmark.duration=60s -Papp.lookup.fake.latency-median=500ms
+ *
+ * benchmark.rps (default 50), benchmark.duration (30s), benchmark.vocabulary (distinct words, 2000),
+ * benchmark.zipf (skew of word popularity, 1.0), benchmark.translation-languages (none) and
+ * benchmark.max-error-rate (1.0, i.e. never fail) tune the load; any app.* property tunes the server.
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "app.lookup.engine=fake")
+@ActiveProfiles("test")
+class LookupLoadBenchmark {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void lookupUnderLoad() throws Exception {
+        int rps = Integer.getInteger("benchmark.rps", 50);
+        Duration duration = DurationStyle.detectAndParse(System.getProperty("benchmark.duration", "30s"));
+        int vocabulary = Integer.getInteger("benchmark.vocabulary", 2000);
+        double zipf = Double.parseDouble(System.getProperty("benchmark.zipf", "1.0"));
+        String translationLanguages = System.getProperty("benchmark.translation-languages", "");
+        double maxErrorRate = Double.parseDouble(System.getProperty("benchmark.max-error-rate", "1.0"));
+
+        String token = jwtService.generateToken(1L, duration.toSeconds() + 600);
+        String query = translationLanguages.isBlank() ? "" : "?translationLanguages=" + translationLanguages;
+        // Same word sequence on every run, so runs before and after a change are comparable
+        int[] ranks = zipfRanks(vocabulary, zipf, (int) (rps * duration.toSeconds()) + 1, new Random(42));
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        LoadGenerator.Report report = new LoadGenerator(client).run(rps, duration, i -> HttpRequest.newBuilder()
+                .uri(URI.create("http://localhost:" + port + "/lookup/"
+                        + URLEncoder.encode("word" + ranks[i % ranks.length], StandardCharsets.UTF_8) + query))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build());
+
+        System.out.println("[lookup benchmark] " + rps + " req/s for " + duration + ", " + vocabulary
+                + " words (zipf " + zipf + ")");
+        System.out.println("[lookup benchmark] " + report.format());
+        System.out.printf(Locale.ROOT, "[lookup benchmark] cache hits %.0f, misses %.0f, coalesced %.0f, engine calls %.0f, malformed %.0f%n",
+                sum(meterRegistry.find("cache.gets").tag("cache", "lookup").tag("result", "hit")),
+                sum(meterRegistry.find("cache.gets").tag("cache", "lookup").tag("result", "miss")),
+                sum(meterRegistry.find("lookup.coalesced")),
+                sum(meterRegistry.find("lookup.fake.calls")),
+                sum(meterRegistry.find("lookup.fake.malformed")));
+
+        assertThat(report.sent()).isPositive();
+        assertThat(report.errorRate()).isLessThanOrEqualTo(maxErrorRate);
+    }
+
+    // Word ranks drawn from a Zipf distribution: rank 1 is the most popular word
+    private static int[] zipfRanks(int vocabulary, double exponent, int count, Random random) {
+        double[] cumulative = new double[vocabulary];
+        double total = 0;
+        for (int rank = 1; rank <= vocabulary; rank++) {
+            total += 1 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = total;
+        }
+        int[] ranks = new int[count];
+        for (int i = 0; i < count; i++) {
+            int index = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            ranks[i] = (index >= 0 ? index : -index - 1) + 1;
+        }
+        return ranks;
+    }
+
+    private static double sum(Search search) {
+        return search.meters().stream()
+                .flatMap(meter -> StreamSupport.stream(meter.measure().spliterator(), false))
+                .mapToDouble(Measurement::getValue)
+                .sum();
+    }
+}
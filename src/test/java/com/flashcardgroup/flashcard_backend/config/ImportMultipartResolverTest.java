@@ -0,0 +1,54 @@
+package com.flashcardgroup.flashcard_backend.config;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockPart;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.multipart.MultipartHttpServletRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImportMultipartResolverTest {
+
+    private final ImportMultipartResolver resolver = new ImportMultipartResolver(1024, 2048);
+
+    // A multipart request whose parts the container has already parsed, without a declared length
+    private static MockHttpServletRequest upload(String path, int fileSize) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        request.setContentType("multipart/form-data; boundary=test");
+        request.addPart(new MockPart("file", "upload.bin", new byte[fileSize]));
+        return request;
+    }
+
+    @Test
+    @DisplayName("the import endpoint takes files over the regular limit")
+    void importTakesLargeFiles() {
+        MultipartHttpServletRequest multipart = resolver.resolveMultipart(upload("/decks/7/import", 4096));
+
+        assertThat(multipart.getFile("file").getSize()).isEqualTo(4096);
+    }
+
+    @Test
+    @DisplayName("other endpoints are held to the regular file size limit")
+    void otherEndpointsKeepFileLimit() {
+        assertThat(resolver.resolveMultipart(upload("/add-card", 1024)).getFile("file").getSize()).isEqualTo(1024);
+
+        assertThatThrownBy(() -> resolver.resolveMultipart(upload("/add-card", 1025)))
+                .isInstanceOf(MaxUploadSizeExceededException.class);
+        assertThatThrownBy(() -> resolver.resolveMultipart(upload("/decks/7/import/extra", 1025)))
+                .isInstanceOf(MaxUploadSizeExceededException.class);
+    }
+
+    @Test
+    @DisplayName("other endpoints refuse a declared body over the regular request limit before parsing it")
+    void otherEndpointsRefuseLargeContentLength() {
+        MockHttpServletRequest request = upload("/add-card", 10);
+        request.setContent(new byte[4096]);
+
+        assertThatThrownBy(() -> resolver.resolveMultipart(request))
+                .isInstanceOf(MaxUploadSizeExceededException.class)
+                .satisfies(e -> assertThat(((MaxUploadSizeExceededException) e).getMaxUploadSize()).isEqualTo(2048));
+    }
+}
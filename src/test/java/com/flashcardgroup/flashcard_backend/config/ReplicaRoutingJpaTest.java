@@ -0,0 +1,124 @@
+package com.flashcardgroup.flashcard_backend.config;
+
+import com.flashcardgroup.flashcard_backend.model.Deck;
+import com.flashcardgroup.flashcard_backend.model.User;
+import com.flashcardgroup.flashcard_backend.repo.DeckRepository;
+import com.flashcardgroup.flashcard_backend.repo.UserRepository;
+import com.flashcardgroup.flashcard_backend.service.DataService;
+import com.flashcardgroup.flashcard_backend.service.EnrichmentQueue;
+import com.flashcardgroup.flashcard_backend.service.ReschedulingJob;
+import com.flashcardgroup.flashcard_backend.service.ReviewEventBuffer;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing through JpaTransactionManager with Hibernate releasing connections after each transaction.
+ * The replica is a copy of the primary whose deck has been renamed, so the name read back tells
+ * which database served it. The second-level cache is off so every read reaches a database.
+ */
+@DataJpaTest(properties = {
+        "app.datasource.routing.enabled=true",
+        "spring.datasource.url=jdbc:h2:mem:jpa_routing_primary;DB_CLOSE_DELAY=-1",
+        "app.datasource.replicas[0].jdbc-url=" + ReplicaRoutingJpaTest.REPLICA_URL,
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReplicaRoutingConfig.class, DataService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReplicaRoutingJpaTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:jpa_routing_replica;DB_CLOSE_DELAY=-1";
+
+    @TempDir
+    private Path tempDir;
+
+    @Autowired
+    private DataService dataService;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private DeckRepository deckRepo;
+
+    @Autowired
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private ReviewEventBuffer reviewEvents;
+
+    @MockitoBean
+    private ReschedulingJob reschedulingJob;
+
+    @MockitoBean
+    private EnrichmentQueue enrichmentQueue;
+
+    private final JdbcTemplate replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.unpin();
+        deckRepo.deleteAll();
+        userRepo.deleteAll();
+    }
+
+    // Copies the primary's schema and rows to the replica, then renames the replica's decks
+    private void replicate() {
+        String script = tempDir.resolve("primary.sql").toString();
+        new JdbcTemplate(primaryDataSource).execute("SCRIPT TO '" + script + "'");
+        replica.execute("DROP ALL OBJECTS");
+        replica.execute("RUNSCRIPT FROM '" + script + "'");
+        replica.update("UPDATE decks SET name = 'Replica copy'");
+    }
+
+    private static List<String> names(List<Deck> decks) {
+        return decks.stream().map(Deck::getName).toList();
+    }
+
+    @Test
+    @DisplayName("read-only DataService reads are served by the replica, reads inside a write transaction by the primary")
+    void readOnlyServiceReadsGoToReplica() {
+        User user = userRepo.save(new User(null, "alice", "alice@example.com", "hash"));
+        deckRepo.save(new Deck(null, user, "Deck", "Description"));
+        replicate();
+
+        assertThat(names(dataService.getDecksByUserId(user.getUserId()))).containsExactly("Replica copy");
+        assertThat(names(transactionTemplate.execute(status -> dataService.getDecksByUserId(user.getUserId()))))
+                .containsExactly("Deck");
+    }
+
+    @Test
+    @DisplayName("a request pinned by read-your-writes reads from the primary through JPA too")
+    void pinnedServiceReadsGoToPrimary() {
+        User user = userRepo.save(new User(null, "bob", "bob@example.com", "hash"));
+        deckRepo.save(new Deck(null, user, "Deck", "Description"));
+        replicate();
+        ReadYourWrites.pinToPrimary();
+
+        assertThat(names(dataService.getDecksByUserId(user.getUserId()))).containsExactly("Deck");
+    }
+}
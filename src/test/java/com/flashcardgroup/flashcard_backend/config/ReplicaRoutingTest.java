@@ -0,0 +1,102 @@
+package com.flashcardgroup.flashcard_backend.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing against two in-memory H2 databases standing in for the primary and a replica;
+ * each holds a one-row table naming itself.
+ */
+class ReplicaRoutingTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS whoami (name VARCHAR(20))");
+        jdbc.execute("DELETE FROM whoami");
+        jdbc.update("INSERT INTO whoami VALUES (?)", name);
+        return dataSource;
+    }
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = database("routing_primary");
+        DataSource replica = database("routing_replica");
+        LazyConnectionDataSourceProxy routing = new LazyConnectionDataSourceProxy(primary);
+        routing.setReadOnlyDataSource(new ReplicaDataSource(primary, List.of(replica)));
+
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.unpin();
+        SecurityContextHolder.clearContext();
+    }
+
+    private String whoami(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class));
+    }
+
+    @Test
+    @DisplayName("read-only transactions go to the replica, read-write ones to the primary")
+    void routesByTransactionReadOnlyFlag() {
+        assertThat(whoami(readOnly)).isEqualTo("routing_replica");
+        assertThat(whoami(readWrite)).isEqualTo("routing_primary");
+        assertThat(jdbcTemplate.queryForObject("SELECT name FROM whoami", String.class)).isEqualTo("routing_primary");
+    }
+
+    @Test
+    @DisplayName("a request pinned by read-your-writes reads from the primary")
+    void pinnedRequestReadsPrimary() {
+        ReadYourWrites.pinToPrimary();
+
+        assertThat(whoami(readOnly)).isEqualTo("routing_primary");
+    }
+
+    @Test
+    @DisplayName("a user's successful write pins their following requests to the primary")
+    void writePinsFollowingRequests() {
+        ReadYourWrites readYourWrites = new ReadYourWrites(Duration.ofMinutes(1), 100);
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(7L, null));
+
+        MockHttpServletResponse ok = new MockHttpServletResponse();
+        readYourWrites.preHandle(new MockHttpServletRequest("GET", "/all-cards/1"), ok, null);
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isFalse();
+        readYourWrites.afterCompletion(new MockHttpServletRequest("POST", "/update-card"), ok, null, null);
+
+        readYourWrites.preHandle(new MockHttpServletRequest("GET", "/all-cards/1"), ok, null);
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isTrue();
+        readYourWrites.afterCompletion(new MockHttpServletRequest("GET", "/all-cards/1"), ok, null, null);
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isFalse();
+
+        SecurityContextHolder.getContext().setAuthentication(new TestingAuthenticationToken(8L, null));
+        readYourWrites.preHandle(new MockHttpServletRequest("GET", "/all-cards/1"), ok, null);
+        assertThat(ReadYourWrites.isPinnedToPrimary()).isFalse();
+    }
+}
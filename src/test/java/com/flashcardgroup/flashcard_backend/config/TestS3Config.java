@@ -1,6 +1,7 @@
 package com.flashcardgroup.flashcard_backend.config;
 
 import com.flashcardgroup.flashcard_backend.service.GeminiService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -19,6 +20,7 @@ public class TestS3Config {
     }
 
     @Bean
+    @ConditionalOnProperty(name = "app.lookup.engine", havingValue = "gemini", matchIfMissing = true)
     public GeminiService geminiService() {
         // Mock GeminiService to avoid real external calls during tests
         return mock(GeminiService.class);
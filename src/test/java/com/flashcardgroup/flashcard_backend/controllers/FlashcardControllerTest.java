@@ -1,29 +1,50 @@
 package com.flashcardgroup.flashcard_backend.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcardgroup.flashcard_backend.dto.CardImportResultDTO;
+import com.flashcardgroup.flashcard_backend.dto.DeckDTO;
+import com.flashcardgroup.flashcard_backend.dto.ReviewOutcomeDTO;
+import com.flashcardgroup.flashcard_backend.exception.BulkheadFullException;
 import com.flashcardgroup.flashcard_backend.model.Flashcard;
 import com.flashcardgroup.flashcard_backend.model.Deck;
 import com.flashcardgroup.flashcard_backend.model.User;
+import com.flashcardgroup.flashcard_backend.resilience.Bulkhead;
+import com.flashcardgroup.flashcard_backend.resilience.Bulkheads;
+import com.flashcardgroup.flashcard_backend.scheduling.SchedulingAlgorithmType;
+import com.flashcardgroup.flashcard_backend.service.CardImportService;
 import com.flashcardgroup.flashcard_backend.service.DataService;
+import com.flashcardgroup.flashcard_backend.service.DeckExportService;
 import com.flashcardgroup.flashcard_backend.service.ImageStorageService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.core.Authentication;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.sql.SQLException;
 import java.util.*;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(FlashcardController.class)
@@ -42,6 +63,12 @@ class FlashcardControllerTest {
     @MockitoBean
     private ImageStorageService imageStorageService;
 
+    @MockitoBean
+    private DeckExportService deckExportService;
+
+    @MockitoBean
+    private CardImportService cardImportService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -67,22 +94,6 @@ class FlashcardControllerTest {
         return flashcard;
     }
 
-    private Deck createMockDeck(Integer deckId, Integer userId, String name, String description) {
-        Deck deck = new Deck();
-        deck.setDeckId(deckId);
-        deck.setName(name);
-        deck.setDescription(description);
-
-        // Initialize flashcards set to avoid null pointer when cardCount is calculated
-        deck.setFlashcards(Collections.emptySet());
-
-        User user = new User();
-        user.setUserId(userId);
-        deck.setUser(user);
-
-        return deck;
-    }
-
     private User createMockUser(Integer userId, String username) {
         User user = new User();
         user.setUserId(userId);
@@ -140,47 +151,108 @@ class FlashcardControllerTest {
         verify(dataService, times(1)).getReviewableCards(deckId);
     }
 
-    // Tests for updateCard endpoint
+    // Tests for due-cards endpoint
     @Test
-    @DisplayName("POST /update-card updates flashcard when remembered")
-    void updateCard_rememberedTrue_increasesStage() throws Exception {
-        Long cardId = 1L;
-        Flashcard mockCard = createMockFlashcard(1, 1, "Hello", "Bonjour", 3);
+    @DisplayName("GET /due-cards returns a full page with a cursor pointing at the last card")
+    void getDueCards_fullPageReturnsCursor() throws Exception {
+        Long userId = 1L;
+        Flashcard first = createMockFlashcard(1, 1, "Hello", "Bonjour", 2);
+        first.setNextReviewAt(100L);
+        Flashcard second = createMockFlashcard(7, 2, "Goodbye", "Au revoir", 1);
+        second.setNextReviewAt(200L);
 
-        Map<String, Object> payload = Map.of(
-                "CardID", cardId.toString(),
-                "Remembered", true
-        );
+        when(dataService.getDueCardsForUser(userId.intValue(), Long.MIN_VALUE, 0, 2))
+                .thenReturn(Arrays.asList(first, second));
 
-        when(dataService.getFlashcardById(cardId)).thenReturn(Optional.of(mockCard));
-        when(dataService.addFlashcard(any(Flashcard.class))).thenReturn(mockCard);
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(userId);
 
-        mockMvc.perform(post("/update-card")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(payload)))
+        mockMvc.perform(get("/due-cards").param("limit", "2").principal(authentication))
                 .andExpect(status().isOk())
-                .andExpect(content().string("Flashcard updated successfully."));
+                .andExpect(jsonPath("$.Cards.length()").value(2))
+                .andExpect(jsonPath("$.NextCursor").value("200:7"));
+    }
 
-        verify(dataService, times(1)).getFlashcardById(cardId);
-        verify(dataService, times(1)).addFlashcard(argThat(card ->
-                card.getStage().equals(4) && // Stage increased from 3 to 4
-                        card.getLastReviewed() > 0
-        ));
+    @Test
+    @DisplayName("GET /due-cards resumes after the cursor and ends with a null cursor")
+    void getDueCards_lastPageHasNoCursor() throws Exception {
+        Long userId = 1L;
+        Flashcard card = createMockFlashcard(9, 2, "Thank you", "Merci", 1);
+        card.setNextReviewAt(300L);
+
+        when(dataService.getDueCardsForUser(userId.intValue(), 200L, 7, 2))
+                .thenReturn(List.of(card));
+
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(userId);
+
+        mockMvc.perform(get("/due-cards").param("limit", "2").param("cursor", "200:7").principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.Cards.length()").value(1))
+                .andExpect(jsonPath("$.NextCursor").doesNotExist());
     }
 
     @Test
-    @DisplayName("POST /update-card updates flashcard when not remembered")
-    void updateCard_rememberedFalse_decreasesStage() throws Exception {
-        Long cardId = 1L;
-        Flashcard mockCard = createMockFlashcard(1, 1, "Hello", "Bonjour", 3);
+    @DisplayName("GET /due-cards rejects a malformed cursor")
+    void getDueCards_invalidCursor() throws Exception {
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(1L);
+
+        mockMvc.perform(get("/due-cards").param("cursor", "abc").principal(authentication))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Invalid cursor."));
+
+        verifyNoInteractions(dataService);
+    }
 
+    @Test
+    @DisplayName("POST /flashcards maps a duplicate back rejected by the unique index to 400")
+    void addFlashcard_duplicateBack() throws Exception {
+        Deck deck = new Deck();
+        deck.setDeckId(10);
+        when(dataService.getDeckById(10)).thenReturn(Optional.of(deck));
+        when(dataService.addFlashcard(any())).thenThrow(new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Duplicate entry", new SQLException(), "flashcards.uk_flashcards_deck_back_hash")));
+
+        mockMvc.perform(multipart("/flashcards")
+                        .param("DeckID", "10")
+                        .param("Front", "dog")
+                        .param("Back", "der Hund"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Flashcard with the same back already exists in this deck."));
+
+        // Without an image there is no up-front existence check; the insert is the check
+        verify(dataService, never()).checkIfFlashcardExistsByBackAndDeckId(any(), any());
+    }
+
+    @Test
+    @DisplayName("POST /flashcards does not report other integrity violations as a duplicate back")
+    void addFlashcard_otherViolation() {
+        Deck deck = new Deck();
+        deck.setDeckId(10);
+        when(dataService.getDeckById(10)).thenReturn(Optional.of(deck));
+        DataIntegrityViolationException violation = new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("Cannot add or update a child row", new SQLException(), "fk_flashcards_deck"));
+        when(dataService.addFlashcard(any())).thenThrow(violation);
+
+        assertThatThrownBy(() -> mockMvc.perform(multipart("/flashcards")
+                        .param("DeckID", "10")
+                        .param("Front", "dog")
+                        .param("Back", "der Hund")))
+                // Not mapped to a response: the violation propagates instead of becoming a 400
+                .hasRootCauseInstanceOf(SQLException.class);
+    }
+
+    // Tests for updateCard endpoint
+    @Test
+    @DisplayName("POST /update-card records a remembered review without loading the card")
+    void updateCard_rememberedTrue_promotes() throws Exception {
         Map<String, Object> payload = Map.of(
-                "CardID", cardId.toString(),
-                "Remembered", false
+                "CardID", "1",
+                "Remembered", true
         );
 
-        when(dataService.getFlashcardById(cardId)).thenReturn(Optional.of(mockCard));
-        when(dataService.addFlashcard(any(Flashcard.class))).thenReturn(mockCard);
+        when(dataService.recordReview(1, true)).thenReturn(true);
 
         mockMvc.perform(post("/update-card")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -188,70 +260,53 @@ class FlashcardControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().string("Flashcard updated successfully."));
 
-        verify(dataService, times(1)).getFlashcardById(cardId);
-        verify(dataService, times(1)).addFlashcard(argThat(card ->
-                card.getStage().equals(2) // Stage decreased from 3 to 2
-        ));
+        verify(dataService, times(1)).recordReview(1, true);
+        verify(dataService, never()).getFlashcardById(any());
+        verify(dataService, never()).addFlashcard(any());
     }
 
     @Test
-    @DisplayName("POST /update-card caps stage at maximum value 6")
-    void updateCard_stageCapAtMaximum() throws Exception {
-        Long cardId = 1L;
-        Flashcard mockCard = createMockFlashcard(1, 1, "Hello", "Bonjour", 6);
-
+    @DisplayName("POST /update-card records a forgotten review")
+    void updateCard_rememberedFalse_demotes() throws Exception {
         Map<String, Object> payload = Map.of(
-                "CardID", cardId.toString(),
-                "Remembered", true
+                "CardID", 1,
+                "Remembered", false
         );
 
-        when(dataService.getFlashcardById(cardId)).thenReturn(Optional.of(mockCard));
-        when(dataService.addFlashcard(any(Flashcard.class))).thenReturn(mockCard);
+        when(dataService.recordReview(1, false)).thenReturn(true);
 
         mockMvc.perform(post("/update-card")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(payload)))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(content().string("Flashcard updated successfully."));
 
-        verify(dataService, times(1)).addFlashcard(argThat(card ->
-                card.getStage().equals(6) // Stage stays at 6
-        ));
+        verify(dataService, times(1)).recordReview(1, false);
     }
 
     @Test
-    @DisplayName("POST /update-card caps stage at minimum value 1")
-    void updateCard_stageCapAtMinimum() throws Exception {
-        Long cardId = 1L;
-        Flashcard mockCard = createMockFlashcard(1, 1, "Hello", "Bonjour", 1);
-
-        Map<String, Object> payload = Map.of(
-                "CardID", cardId.toString(),
-                "Remembered", false
-        );
-
-        when(dataService.getFlashcardById(cardId)).thenReturn(Optional.of(mockCard));
-        when(dataService.addFlashcard(any(Flashcard.class))).thenReturn(mockCard);
+    @DisplayName("POST /update-card rejects a payload without Remembered")
+    void updateCard_missingRemembered() throws Exception {
+        Map<String, Object> payload = Map.of("CardID", 1);
 
         mockMvc.perform(post("/update-card")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(payload)))
-                .andExpect(status().isOk());
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("CardID and Remembered are required."));
 
-        verify(dataService, times(1)).addFlashcard(argThat(card ->
-                card.getStage().equals(1) // Stage stays at 1
-        ));
+        verifyNoInteractions(dataService);
     }
 
     @Test
-    @DisplayName("POST /update-card returns 404 when flashcard not found")
+    @DisplayName("POST /update-card returns 404 when no row was updated")
     void updateCard_flashcardNotFound() throws Exception {
-        Long cardId = 999L;
         Map<String, Object> payload = Map.of(
-                "CardID", cardId.toString(),
+                "CardID", "999",
                 "Remembered", true
         );
 
-        when(dataService.getFlashcardById(cardId)).thenReturn(Optional.empty());
+        when(dataService.recordReview(999, true)).thenReturn(false);
 
         mockMvc.perform(post("/update-card")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -259,20 +314,18 @@ class FlashcardControllerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(content().string("Flashcard not found."));
 
-        verify(dataService, times(1)).getFlashcardById(cardId);
-        verify(dataService, never()).addFlashcard(any());
+        verify(dataService, times(1)).recordReview(999, true);
     }
 
     @Test
     @DisplayName("POST /update-card handles service exception")
     void updateCard_serviceException() throws Exception {
-        Long cardId = 1L;
         Map<String, Object> payload = Map.of(
-                "CardID", cardId.toString(),
+                "CardID", "1",
                 "Remembered", true
         );
 
-        when(dataService.getFlashcardById(cardId)).thenThrow(new RuntimeException("Database error"));
+        when(dataService.recordReview(1, true)).thenThrow(new RuntimeException("Database error"));
 
         mockMvc.perform(post("/update-card")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -280,7 +333,96 @@ class FlashcardControllerTest {
                 .andExpect(status().isInternalServerError())
                 .andExpect(content().string("Error updating flashcard: Database error"));
 
-        verify(dataService, times(1)).getFlashcardById(cardId);
+        verify(dataService, times(1)).recordReview(1, true);
+    }
+
+    // Tests for updateCards (batch) endpoint
+    @Test
+    @DisplayName("POST /update-cards returns per-card outcomes from the service")
+    void updateCards_returnsOutcomes() throws Exception {
+        List<Map<String, Object>> payload = List.of(
+                Map.of("CardID", 1, "Remembered", true, "ReviewedAt", 1_700_000_000L),
+                Map.of("CardID", 2, "Remembered", false)
+        );
+
+        when(dataService.applyReviews(anyList())).thenReturn(List.of(
+                new ReviewOutcomeDTO(1, ReviewOutcomeDTO.UPDATED, 3, 1_700_604_800L),
+                ReviewOutcomeDTO.of(2, ReviewOutcomeDTO.NOT_FOUND)
+        ));
+
+        mockMvc.perform(post("/update-cards")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(payload)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].Status").value("updated"))
+                .andExpect(jsonPath("$[0].Stage").value(3))
+                .andExpect(jsonPath("$[1].Status").value("not_found"));
+
+        verify(dataService, times(1)).applyReviews(argThat(reviews ->
+                reviews.size() == 2
+                        && reviews.get(0).CardID().equals(1)
+                        && reviews.get(0).ReviewedAt().equals(1_700_000_000L)
+                        && reviews.get(1).ReviewedAt() == null
+        ));
+    }
+
+    @Test
+    @DisplayName("POST /update-cards rejects an empty batch")
+    void updateCards_emptyBatch() throws Exception {
+        mockMvc.perform(post("/update-cards")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("No reviews submitted."));
+
+        verify(dataService, never()).applyReviews(any());
+    }
+
+    // Tests for deck scheduling endpoint
+    @Test
+    @DisplayName("PUT /decks/{deckId}/scheduling switches the algorithm and accepts the rescheduling")
+    void updateDeckScheduling_accepted() throws Exception {
+        Long userId = 1L;
+        when(dataService.changeDeckScheduling(5, 1, SchedulingAlgorithmType.FSRS, 0.85)).thenReturn(true);
+
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(userId);
+
+        mockMvc.perform(put("/decks/{deckId}/scheduling", 5)
+                        .principal(authentication)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"Algorithm\":\"fsrs\",\"DesiredRetention\":0.85}"))
+                .andExpect(status().isAccepted());
+
+        verify(dataService, times(1)).changeDeckScheduling(5, 1, SchedulingAlgorithmType.FSRS, 0.85);
+    }
+
+    @Test
+    @DisplayName("PUT /decks/{deckId}/scheduling returns 404 for a deck the user does not own")
+    void updateDeckScheduling_notOwned() throws Exception {
+        when(dataService.changeDeckScheduling(5, 1, SchedulingAlgorithmType.SM2, null)).thenReturn(false);
+
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(1L);
+
+        mockMvc.perform(put("/decks/{deckId}/scheduling", 5)
+                        .principal(authentication)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"Algorithm\":\"SM2\"}"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Deck not found."));
+    }
+
+    @Test
+    @DisplayName("PUT /decks/{deckId}/scheduling rejects an unknown algorithm")
+    void updateDeckScheduling_unknownAlgorithm() throws Exception {
+        mockMvc.perform(put("/decks/{deckId}/scheduling", 5)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"Algorithm\":\"ANKI\"}"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(dataService);
     }
 
     // Tests for getAllCards endpoint
@@ -324,12 +466,12 @@ class FlashcardControllerTest {
     @DisplayName("GET /user-decks returns user decks successfully")
     void getUserDecks_success() throws Exception {
         Long userId = 1L;
-        List<Deck> mockDecks = Arrays.asList(
-                createMockDeck(1, userId.intValue(), "Deck 1", "Description 1"),
-                createMockDeck(2, userId.intValue(), "Deck 2", "Description 2")
+        List<DeckDTO> mockDecks = Arrays.asList(
+                new DeckDTO(1, userId.intValue(), "Deck 1", "Description 1", 10, 3),
+                new DeckDTO(2, userId.intValue(), "Deck 2", "Description 2", 0, 0)
         );
 
-        when(dataService.getDecksByUserId(userId.intValue())).thenReturn(mockDecks);
+        when(dataService.getDeckSummariesByUserId(userId.intValue())).thenReturn(mockDecks);
 
         Authentication authentication = mock(Authentication.class);
         when(authentication.getPrincipal()).thenReturn(userId);
@@ -338,9 +480,11 @@ class FlashcardControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$").isArray())
-                .andExpect(jsonPath("$.length()").value(2));
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].CardCount").value(10))
+                .andExpect(jsonPath("$[0].DueCount").value(3));
 
-        verify(dataService, times(1)).getDecksByUserId(userId.intValue());
+        verify(dataService, times(1)).getDeckSummariesByUserId(userId.intValue());
     }
 
     @Test
@@ -348,7 +492,7 @@ class FlashcardControllerTest {
     void getUserDecks_emptyList() throws Exception {
         Long userId = 1L;
 
-        when(dataService.getDecksByUserId(userId.intValue())).thenReturn(Collections.emptyList());
+        when(dataService.getDeckSummariesByUserId(userId.intValue())).thenReturn(Collections.emptyList());
 
         Authentication authentication = mock(Authentication.class);
         when(authentication.getPrincipal()).thenReturn(userId);
@@ -359,7 +503,7 @@ class FlashcardControllerTest {
                 .andExpect(jsonPath("$").isArray())
                 .andExpect(jsonPath("$.length()").value(0));
 
-        verify(dataService, times(1)).getDecksByUserId(userId.intValue());
+        verify(dataService, times(1)).getDeckSummariesByUserId(userId.intValue());
     }
 
     @Test
@@ -367,7 +511,7 @@ class FlashcardControllerTest {
     void getUserDecks_serviceException() throws Exception {
         Long userId = 1L;
 
-        when(dataService.getDecksByUserId(userId.intValue())).thenThrow(new RuntimeException("Database error"));
+        when(dataService.getDeckSummariesByUserId(userId.intValue())).thenThrow(new RuntimeException("Database error"));
 
         Authentication authentication = mock(Authentication.class);
         when(authentication.getPrincipal()).thenReturn(userId);
@@ -376,7 +520,7 @@ class FlashcardControllerTest {
                 .andExpect(status().isInternalServerError())
                 .andExpect(content().string("Error retrieving decks: Database error"));
 
-        verify(dataService, times(1)).getDecksByUserId(userId.intValue());
+        verify(dataService, times(1)).getDeckSummariesByUserId(userId.intValue());
     }
 
     // Tests for get-username endpoint using Authentication principal
@@ -433,4 +577,252 @@ class FlashcardControllerTest {
 
         verify(dataService, times(1)).getUserById(userId);
     }
+
+    @Test
+    @DisplayName("GET /decks/{id}/export streams the deck as NDJSON")
+    void exportDeck_ndjson() throws Exception {
+        Long userId = 1L;
+        when(dataService.isDeckOwnedBy(10, 1)).thenReturn(true);
+        doAnswer(invocation -> {
+            java.io.OutputStream out = invocation.getArgument(2);
+            out.write("{\"CardID\":1}\n".getBytes());
+            return null;
+        }).when(deckExportService).export(eq(10), eq(DeckExportService.Format.NDJSON), any());
+        Bulkhead.Permit permit = mock(Bulkhead.Permit.class);
+        when(deckExportService.reserve()).thenReturn(permit);
+
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(userId);
+
+        var result = mockMvc.perform(get("/decks/10/export").principal(authentication))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        // Exports get their own async timeout (app.export.request-timeout, 10m by default)
+        assertThat(result.getRequest().getAsyncContext().getTimeout()).isEqualTo(600_000L);
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"deck-10.ndjson\""))
+                .andExpect(content().string("{\"CardID\":1}\n"));
+        verify(permit).close();
+    }
+
+    @Test
+    @DisplayName("GET /decks/{id}/export returns 503 while every export slot is taken")
+    void exportDeck_tooManyExports() throws Exception {
+        when(dataService.isDeckOwnedBy(10, 1)).thenReturn(true);
+        when(deckExportService.reserve()).thenThrow(new BulkheadFullException(Bulkheads.EXPORT));
+
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(1L);
+
+        mockMvc.perform(get("/decks/10/export").principal(authentication))
+                .andExpect(status().isServiceUnavailable());
+
+        verify(deckExportService, never()).export(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /decks/{id}/export returns 404 for a deck the user does not own")
+    void exportDeck_notOwned() throws Exception {
+        Long userId = 1L;
+        when(dataService.isDeckOwnedBy(10, 1)).thenReturn(false);
+
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(userId);
+
+        mockMvc.perform(get("/decks/10/export").param("format", "csv").principal(authentication))
+                .andExpect(status().isNotFound());
+
+        verifyNoInteractions(deckExportService);
+    }
+
+    @Test
+    @DisplayName("GET /decks/{id}/export rejects unknown formats")
+    void exportDeck_badFormat() throws Exception {
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(1L);
+
+        mockMvc.perform(get("/decks/10/export").param("format", "xml").principal(authentication))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(deckExportService);
+    }
+
+    @Test
+    @DisplayName("POST /decks/{id}/import infers the format from the file name")
+    void importCards_success() throws Exception {
+        Long userId = 1L;
+        Deck deck = new Deck();
+        deck.setDeckId(10);
+        when(dataService.isDeckOwnedBy(10, 1)).thenReturn(true);
+        when(dataService.getDeckById(10)).thenReturn(Optional.of(deck));
+        when(cardImportService.importCards(eq(deck), eq(CardImportService.Format.CSV), any()))
+                .thenReturn(new CardImportResultDTO(2, 1, 0));
+
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(userId);
+
+        MockMultipartFile file = new MockMultipartFile("file", "deck.csv", "text/csv", "Front,Back\na,b\n".getBytes());
+        mockMvc.perform(multipart("/decks/10/import").file(file).principal(authentication))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.Imported").value(2))
+                .andExpect(jsonPath("$.Duplicates").value(1))
+                .andExpect(jsonPath("$.Invalid").value(0));
+    }
+
+    @Test
+    @DisplayName("POST /decks/{id}/import streams NDJSON progress lines to clients that accept them")
+    void importCards_progress() throws Exception {
+        Deck deck = new Deck();
+        deck.setDeckId(10);
+        when(dataService.isDeckOwnedBy(10, 1)).thenReturn(true);
+        when(dataService.getDeckById(10)).thenReturn(Optional.of(deck));
+        when(cardImportService.importCards(eq(deck), eq(CardImportService.Format.CSV), any(), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<CardImportResultDTO> progress = invocation.getArgument(3);
+                    progress.accept(new CardImportResultDTO(1000, 2, 0));
+                    progress.accept(new CardImportResultDTO(1500, 3, 1));
+                    return new CardImportResultDTO(1500, 3, 1);
+                });
+
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(1L);
+
+        MockMultipartFile file = new MockMultipartFile("file", "deck.csv", "text/csv", "Front,Back\na,b\n".getBytes());
+        var result = mockMvc.perform(multipart("/decks/10/import").file(file).principal(authentication)
+                        .accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/x-ndjson"))
+                .andExpect(content().string(
+                        "{\"Imported\":1000,\"Duplicates\":2,\"Invalid\":0,\"Done\":false}\n" +
+                        "{\"Imported\":1500,\"Duplicates\":3,\"Invalid\":1,\"Done\":false}\n" +
+                        "{\"Imported\":1500,\"Duplicates\":3,\"Invalid\":1,\"Done\":true}\n"));
+    }
+
+    @Test
+    @DisplayName("POST /decks/{id}/import ends the progress stream with the error when the file turns out malformed")
+    void importCards_progressMalformed() throws Exception {
+        Deck deck = new Deck();
+        deck.setDeckId(10);
+        when(dataService.isDeckOwnedBy(10, 1)).thenReturn(true);
+        when(dataService.getDeckById(10)).thenReturn(Optional.of(deck));
+        when(cardImportService.importCards(eq(deck), eq(CardImportService.Format.NDJSON), any(), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<CardImportResultDTO> progress = invocation.getArgument(3);
+                    progress.accept(new CardImportResultDTO(1000, 0, 0));
+                    throw new IllegalArgumentException("Malformed card data: line 1001");
+                });
+
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(1L);
+
+        MockMultipartFile file = new MockMultipartFile("file", "deck.ndjson", "application/x-ndjson", "{}".getBytes());
+        var result = mockMvc.perform(multipart("/decks/10/import").file(file).principal(authentication)
+                        .accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "{\"Imported\":1000,\"Duplicates\":0,\"Invalid\":0,\"Done\":false}\n" +
+                        "{\"Imported\":1000,\"Duplicates\":0,\"Invalid\":0,\"Done\":true," +
+                        "\"Error\":\"Invalid import file: Malformed card data: line 1001\"}\n"));
+    }
+
+    @Test
+    @DisplayName("POST /decks/{id}/import ends the progress stream with the error when the database fails mid-import")
+    void importCards_progressDatabaseFailure() throws Exception {
+        Deck deck = new Deck();
+        deck.setDeckId(10);
+        when(dataService.isDeckOwnedBy(10, 1)).thenReturn(true);
+        when(dataService.getDeckById(10)).thenReturn(Optional.of(deck));
+        when(cardImportService.importCards(eq(deck), eq(CardImportService.Format.NDJSON), any(), any()))
+                .thenAnswer(invocation -> {
+                    Consumer<CardImportResultDTO> progress = invocation.getArgument(3);
+                    progress.accept(new CardImportResultDTO(1000, 0, 0));
+                    throw new DataAccessResourceFailureException("connection lost");
+                });
+
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(1L);
+
+        MockMultipartFile file = new MockMultipartFile("file", "deck.ndjson", "application/x-ndjson", "{}".getBytes());
+        var result = mockMvc.perform(multipart("/decks/10/import").file(file).principal(authentication)
+                        .accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(
+                        "{\"Imported\":1000,\"Duplicates\":0,\"Invalid\":0,\"Done\":false}\n" +
+                        "{\"Imported\":1000,\"Duplicates\":0,\"Invalid\":0,\"Done\":true," +
+                        "\"Error\":\"Error importing cards: connection lost\"}\n"));
+    }
+
+    @Test
+    @DisplayName("POST /decks/{id}/import returns 404 for a deck the user does not own")
+    void importCards_notOwned() throws Exception {
+        when(dataService.isDeckOwnedBy(10, 1)).thenReturn(false);
+
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(1L);
+
+        MockMultipartFile file = new MockMultipartFile("file", "deck.csv", "text/csv", "Front,Back\na,b\n".getBytes());
+        mockMvc.perform(multipart("/decks/10/import").file(file).principal(authentication))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string("Deck not found."));
+
+        verifyNoInteractions(cardImportService);
+    }
+
+    @Test
+    @DisplayName("POST /decks/{id}/import rejects files whose format cannot be determined")
+    void importCards_unknownFormat() throws Exception {
+        Authentication authentication = mock(Authentication.class);
+        when(authentication.getPrincipal()).thenReturn(1L);
+
+        MockMultipartFile file = new MockMultipartFile("file", "deck.xlsx", "application/octet-stream", new byte[]{1});
+        mockMvc.perform(multipart("/decks/10/import").file(file).principal(authentication))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("format must be csv, ndjson or anki."));
+    }
+
+    @Test
+    @DisplayName("GET /all-cards/{id}?limit=N returns a page with a cursor when it is full")
+    void getAllCards_page() throws Exception {
+        List<Map<String, Object>> cards = List.of(
+                new LinkedHashMap<>(Map.of("CardID", 4, "Front", "a")),
+                new LinkedHashMap<>(Map.of("CardID", 7, "Front", "b")));
+        when(dataService.getCardsPage(eq(1), eq(Set.of("Front")), eq(3), eq(2))).thenReturn(cards);
+
+        mockMvc.perform(get("/all-cards/1").param("after", "3").param("limit", "2").param("fields", "front"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.Cards.length()").value(2))
+                .andExpect(jsonPath("$.Cards[1].Front").value("b"))
+                .andExpect(jsonPath("$.NextCursor").value("7"));
+
+        verify(dataService, never()).getAllCards(any());
+    }
+
+    @Test
+    @DisplayName("GET /all-cards/{id} rejects unknown fields and out-of-range limits")
+    void getAllCards_invalidParams() throws Exception {
+        mockMvc.perform(get("/all-cards/1").param("fields", "Front,Password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Unknown field: Password"));
+
+        mockMvc.perform(get("/all-cards/1").param("limit", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("limit must be between 1 and 500."));
+
+        verifyNoInteractions(dataService);
+    }
 }
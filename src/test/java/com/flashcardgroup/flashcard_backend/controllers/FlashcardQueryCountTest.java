@@ -0,0 +1,165 @@
+package com.flashcardgroup.flashcard_backend.controllers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcardgroup.flashcard_backend.model.Deck;
+import com.flashcardgroup.flashcard_backend.model.Flashcard;
+import com.flashcardgroup.flashcard_backend.model.User;
+import com.flashcardgroup.flashcard_backend.repo.DeckRepository;
+import com.flashcardgroup.flashcard_backend.repo.FlashcardRepository;
+import com.flashcardgroup.flashcard_backend.repo.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Regression guard for N+1 loading: listing a deck must cost a fixed number of
+ * statements however many cards (and translations) it holds.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class FlashcardQueryCountTest {
+
+    private static final int CARD_COUNT = 40;
+    private static final long MAX_STATEMENTS_PER_REQUEST = 2;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private DeckRepository deckRepo;
+
+    @Autowired
+    private FlashcardRepository cardRepo;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Deck deck;
+
+    @BeforeEach
+    void setUp() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = userRepo.save(new User(null, "user-" + suffix, suffix + "@example.com", "hash"));
+        deck = deckRepo.save(new Deck(null, user, "Deck " + suffix, "Description"));
+
+        long longAgo = System.currentTimeMillis() / 1000 - 30L * 86400;
+        List<Flashcard> cards = new ArrayList<>();
+        for (int i = 0; i < CARD_COUNT; i++) {
+            Flashcard card = new Flashcard();
+            card.setDeck(deck);
+            card.setFront("front " + i);
+            card.setBack("back " + i);
+            card.setStage(1);
+            card.setLastReviewed(longAgo);
+            card.setTranslations(Map.of("fr", "fr " + i, "de", "de " + i));
+            cards.add(card);
+        }
+        cardRepo.saveAll(cards);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    @Test
+    @DisplayName("GET /all-cards/{deckId} loads cards and translations in a bounded number of statements")
+    void getAllCards_boundedStatements() throws Exception {
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/all-cards/{deckId}", deck.getDeckId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(CARD_COUNT))
+                .andExpect(jsonPath("$[0].Translations.fr").exists());
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_STATEMENTS_PER_REQUEST);
+    }
+
+    @Test
+    @DisplayName("GET /reviewable-cards/{deckId} loads cards and translations in a bounded number of statements")
+    void getReviewableCards_boundedStatements() throws Exception {
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/reviewable-cards/{deckId}", deck.getDeckId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(CARD_COUNT))
+                .andExpect(jsonPath("$[0].Translations.de").exists());
+
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_STATEMENTS_PER_REQUEST);
+    }
+
+    @Test
+    @DisplayName("GET /all-cards/{deckId}?fields=Front,Back selects only those columns and skips translations")
+    void getAllCards_projected_singleStatement() throws Exception {
+        Statistics statistics = statistics();
+
+        mockMvc.perform(get("/all-cards/{deckId}", deck.getDeckId()).param("fields", "Front,Back"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(CARD_COUNT))
+                .andExpect(jsonPath("$[0].CardID").exists())
+                .andExpect(jsonPath("$[0].Front").value("front 0"))
+                .andExpect(jsonPath("$[0].Example").doesNotExist())
+                .andExpect(jsonPath("$[0].Translations").doesNotExist());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("GET /all-cards/{deckId}?limit=N pages through the deck by cardId")
+    void getAllCards_keysetPages() throws Exception {
+        int pageSize = 15;
+        List<String> fronts = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            Statistics statistics = statistics();
+            var request = get("/all-cards/{deckId}", deck.getDeckId())
+                    .param("limit", String.valueOf(pageSize))
+                    .param("fields", "front,translations");
+            if (after != null) {
+                request.param("after", after);
+            }
+            String body = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.Cards[0].Translations.fr").exists())
+                    .andReturn().getResponse().getContentAsString();
+            assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(MAX_STATEMENTS_PER_REQUEST);
+
+            Map<?, ?> page = objectMapper.readValue(body, Map.class);
+            for (Object card : (List<?>) page.get("Cards")) {
+                fronts.add((String) ((Map<?, ?>) card).get("Front"));
+            }
+            after = (String) page.get("NextCursor");
+            pages++;
+        } while (after != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(fronts).hasSize(CARD_COUNT).doesNotHaveDuplicates().startsWith("front 0", "front 1");
+    }
+}
@@ -0,0 +1,155 @@
+package com.flashcardgroup.flashcard_backend.controllers;
+
+import com.flashcardgroup.flashcard_backend.exception.ImageNotModifiedException;
+import com.flashcardgroup.flashcard_backend.exception.ImageRangeNotSatisfiableException;
+import com.flashcardgroup.flashcard_backend.service.ImageStorageService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(ImageController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class ImageControllerTest {
+
+    private static final Instant MODIFIED = Instant.parse("2025-01-01T00:00:00Z");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ImageStorageService imageStorageService;
+
+    private static ImageStorageService.ImageContent content(String body, String contentRange, AtomicBoolean closed) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        InputStream in = new ByteArrayInputStream(bytes) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        return new ImageStorageService.ImageContent(in, "image/png", bytes.length, contentRange, "\"abc\"", MODIFIED);
+    }
+
+    @Test
+    @DisplayName("GET /images streams the whole image and advertises range support")
+    void getImage_streamsWholeImage() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(imageStorageService.openImage(eq("cards/1.png"), isNull(), isNull(), isNull())).thenReturn(content("PNGDATA", null, closed));
+
+        MvcResult result = mockMvc.perform(get("/images/cards/1.png"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/png"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 7))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(content().string("PNGDATA"));
+
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    @DisplayName("GET /images with a single Range returns 206 Partial Content")
+    void getImage_range() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(imageStorageService.openImage(eq("cards/1.png"), eq("bytes=0-2"), isNull(), isNull())).thenReturn(content("PNG", "bytes 0-2/7", closed));
+
+        MvcResult result = mockMvc.perform(get("/images/cards/1.png").header(HttpHeaders.RANGE, "bytes=0-2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 0-2/7"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 3))
+                .andExpect(content().string("PNG"));
+    }
+
+    @Test
+    @DisplayName("GET /images ignores multi-range and If-Range requests and serves the whole image")
+    void getImage_unsupportedRangesServeWholeImage() throws Exception {
+        when(imageStorageService.openImage(eq("cards/1.png"), isNull(), isNull(), isNull()))
+                .thenAnswer(invocation -> content("PNGDATA", null, new AtomicBoolean()));
+
+        mockMvc.perform(get("/images/cards/1.png").header(HttpHeaders.RANGE, "bytes=0-1,4-5"))
+                .andExpect(request().asyncStarted());
+        mockMvc.perform(get("/images/cards/1.png").header(HttpHeaders.RANGE, "bytes=0-1").header(HttpHeaders.IF_RANGE, "\"old\""))
+                .andExpect(request().asyncStarted());
+
+        verify(imageStorageService, times(2)).openImage(eq("cards/1.png"), isNull(), isNull(), isNull());
+    }
+
+    @Test
+    @DisplayName("GET /images passes If-None-Match to storage and answers its 304 without a body")
+    void getImage_notModified() throws Exception {
+        when(imageStorageService.openImage(eq("cards/1.png"), isNull(), eq("\"abc\""), isNull()))
+                .thenThrow(new ImageNotModifiedException("\"abc\"", MODIFIED));
+
+        mockMvc.perform(get("/images/cards/1.png")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"abc\"")
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 01 Jan 2025 00:00:00 GMT"))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"abc\""))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @DisplayName("GET /images passes If-Modified-Since to storage when there is no If-None-Match")
+    void getImage_ifModifiedSince() throws Exception {
+        when(imageStorageService.openImage(eq("cards/1.png"), isNull(), isNull(), eq(MODIFIED)))
+                .thenThrow(new ImageNotModifiedException(null, MODIFIED));
+
+        mockMvc.perform(get("/images/cards/1.png").header(HttpHeaders.IF_MODIFIED_SINCE, "Wed, 01 Jan 2025 00:00:00 GMT"))
+                .andExpect(status().isNotModified())
+                .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, MODIFIED.toEpochMilli()));
+    }
+
+    @Test
+    @DisplayName("GET /images with an unsatisfiable Range returns 416 with the image length")
+    void getImage_rangeNotSatisfiable() throws Exception {
+        when(imageStorageService.openImage(eq("cards/1.png"), eq("bytes=100-200"), isNull(), isNull()))
+                .thenThrow(new ImageRangeNotSatisfiableException("Range not satisfiable: bytes=100-200", 7));
+
+        mockMvc.perform(get("/images/cards/1.png").header(HttpHeaders.RANGE, "bytes=100-200"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */7"));
+    }
+
+    @Test
+    @DisplayName("HEAD /images returns the headers from object metadata without opening the image")
+    void headImage() throws Exception {
+        when(imageStorageService.getImageMetadata("cards/1.png"))
+                .thenReturn(new ImageStorageService.ImageMetadata("image/png", 7, "\"abc\"", MODIFIED));
+
+        mockMvc.perform(head("/images/cards/1.png"))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 7))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(content().bytes(new byte[0]));
+
+        verify(imageStorageService, never()).openImage(anyString(), any(), any(), any());
+    }
+}
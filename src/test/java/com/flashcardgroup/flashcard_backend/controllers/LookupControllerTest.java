@@ -0,0 +1,131 @@
+package com.flashcardgroup.flashcard_backend.controllers;
+
+import com.flashcardgroup.flashcard_backend.dto.LookupBatchDTO;
+import com.flashcardgroup.flashcard_backend.dto.LookupDTO;
+import com.flashcardgroup.flashcard_backend.exception.CircuitOpenException;
+import com.flashcardgroup.flashcard_backend.service.LookupService;
+import com.flashcardgroup.flashcard_backend.service.LookupStreamListener;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.allOf;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(LookupController.class)
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+class LookupControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private LookupService lookupService;
+
+    @Test
+    @DisplayName("POST /lookup/batch returns results and failed words")
+    void lookupBatch_partialResults() throws Exception {
+        LookupDTO cat = new LookupDTO("a small pet", "cat", "", "", "", "", "noun", "", Map.of());
+        when(lookupService.lookupBatch(List.of("cat", "dog"), "en", List.of("de")))
+                .thenReturn(new LookupBatchDTO(Map.of("cat", cat), List.of("dog")));
+
+        mockMvc.perform(post("/lookup/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"Words\":[\"cat\",\"dog\",\" \",\"cat\"],\"TranslationLanguages\":[\"de\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.Results.cat.Front").value("a small pet"))
+                .andExpect(jsonPath("$.Failed[0]").value("dog"));
+    }
+
+    @Test
+    @DisplayName("POST /lookup/batch rejects an empty word list")
+    void lookupBatch_empty() throws Exception {
+        mockMvc.perform(post("/lookup/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"Words\":[]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Words must contain at least one word."));
+
+        verify(lookupService, never()).lookupBatch(anyList(), anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("GET /lookup/{word}/stream sends each field as an event, then the full result")
+    void lookupStream_sendsFieldEvents() throws Exception {
+        LookupDTO dog = new LookupDTO("a pet", "dog", "", "", "", "", "noun", "", Map.of("de", "Hund"));
+        when(lookupService.lookupStream(eq("dog"), eq("en"), eq(List.of("de")), any())).thenAnswer(invocation -> {
+            LookupStreamListener listener = invocation.getArgument(3);
+            listener.onField("Front", "a pet");
+            listener.onTranslation("de", "Hund");
+            return dog;
+        });
+
+        MvcResult result = mockMvc.perform(get("/lookup/{word}/stream", "dog").param("translationLanguages", "de"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("event:Front\ndata:a pet"),
+                        containsString("event:Translation\ndata:{\"de\":\"Hund\"}"),
+                        containsString("event:result\ndata:{\"Front\":\"a pet\""))));
+    }
+
+    @Test
+    @DisplayName("GET /lookup/{word}/stream reports failures as an error event")
+    void lookupStream_error() throws Exception {
+        when(lookupService.lookupStream(anyString(), anyString(), anyList(), any()))
+                .thenThrow(new IOException("Failed to parse Gemini response"));
+
+        MvcResult result = mockMvc.perform(get("/lookup/{word}/stream", "dog"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(content().string(containsString("event:error\ndata:Error: Failed to parse Gemini response")));
+    }
+
+    @Test
+    @DisplayName("GET /lookup/{word} returns 502 when Gemini's answer is unusable")
+    void lookupWord_unusableAnswer() throws Exception {
+        when(lookupService.lookup("dog", "en", List.of()))
+                .thenThrow(new IOException("Gemini response failed validation: Front is empty"));
+
+        mockMvc.perform(get("/lookup/{word}", "dog"))
+                .andExpect(status().isBadGateway())
+                .andExpect(content().string("Error looking up word: Gemini response failed validation: Front is empty"));
+    }
+
+    @Test
+    @DisplayName("GET /lookup/{word} fails fast with 503 and Retry-After while the circuit is open")
+    void lookupWord_circuitOpen() throws Exception {
+        when(lookupService.lookup("dog", "en", List.of()))
+                .thenThrow(new CircuitOpenException("gemini", Duration.ofMillis(12_500)));
+
+        mockMvc.perform(get("/lookup/{word}", "dog"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string("Retry-After", "13"));
+    }
+}
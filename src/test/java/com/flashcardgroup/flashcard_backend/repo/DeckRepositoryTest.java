@@ -0,0 +1,64 @@
+package com.flashcardgroup.flashcard_backend.repo;
+
+import com.flashcardgroup.flashcard_backend.dto.DeckDTO;
+import com.flashcardgroup.flashcard_backend.model.Deck;
+import com.flashcardgroup.flashcard_backend.model.Flashcard;
+import com.flashcardgroup.flashcard_backend.model.User;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class DeckRepositoryTest {
+
+    private static final long NOW = 1_700_000_000L;
+    private static final long DAY = 86400L;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private DeckRepository deckRepo;
+
+    private void persistCard(Deck deck, String back, long lastReviewed) {
+        Flashcard card = new Flashcard();
+        card.setDeck(deck);
+        card.setFront("front of " + back);
+        card.setBack(back);
+        card.setStage(1);
+        card.setLastReviewed(lastReviewed);
+        em.persist(card);
+    }
+
+    @Test
+    @DisplayName("findSummariesByUserId returns total and due counts per deck, including empty decks")
+    void findSummariesByUserId_countsCards() {
+        User user = em.persist(new User(null, "alice", "alice@example.com", "hash"));
+        User other = em.persist(new User(null, "bob", "bob@example.com", "hash"));
+        Deck spanish = em.persist(new Deck(null, user, "Spanish", "Verbs"));
+        Deck empty = em.persist(new Deck(null, user, "Empty", null));
+        Deck foreign = em.persist(new Deck(null, other, "Bob's", null));
+
+        persistCard(spanish, "uno", NOW - 2 * DAY);
+        persistCard(spanish, "dos", NOW - 2 * DAY);
+        persistCard(spanish, "tres", NOW);
+        persistCard(foreign, "eins", NOW - 2 * DAY);
+        em.flush();
+        em.clear();
+
+        List<DeckDTO> summaries = deckRepo.findSummariesByUserId(user.getUserId(), NOW);
+
+        assertThat(summaries).containsExactlyInAnyOrder(
+                new DeckDTO(spanish.getDeckId(), user.getUserId(), "Spanish", "Verbs", 3, 2),
+                new DeckDTO(empty.getDeckId(), user.getUserId(), "Empty", null, 0, 0)
+        );
+    }
+}
@@ -0,0 +1,199 @@
+package com.flashcardgroup.flashcard_backend.repo;
+
+import com.flashcardgroup.flashcard_backend.model.Deck;
+import com.flashcardgroup.flashcard_backend.model.Flashcard;
+import com.flashcardgroup.flashcard_backend.model.User;
+import com.flashcardgroup.flashcard_backend.scheduling.LeitnerAlgorithm;
+import com.flashcardgroup.flashcard_backend.scheduling.ReviewState;
+import com.flashcardgroup.flashcard_backend.scheduling.SchedulingAlgorithmType;
+import com.flashcardgroup.flashcard_backend.service.DataService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class FlashcardRepositoryTest {
+
+    private static final long NOW = 1_700_000_000L;
+    private static final long DAY = 86400L;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private FlashcardRepository cardRepo;
+
+    private Deck deck;
+
+    @BeforeEach
+    void setUp() {
+        User user = em.persist(new User(null, "alice", "alice@example.com", "hash"));
+        deck = em.persist(new Deck(null, user, "Deck", "Description"));
+    }
+
+    private Flashcard persistCard(String back, int stage, long lastReviewed) {
+        Flashcard card = new Flashcard();
+        card.setDeck(deck);
+        card.setFront("front of " + back);
+        card.setBack(back);
+        card.setStage(stage);
+        card.setLastReviewed(lastReviewed);
+        return em.persist(card);
+    }
+
+    @Test
+    @DisplayName("next_review_at is derived from lastReviewed and stage on persist")
+    void persist_setsNextReviewAt() {
+        Flashcard card = persistCard("uno", 2, NOW);
+        em.flush();
+
+        assertThat(card.getNextReviewAt()).isEqualTo(NOW + 4 * DAY);
+    }
+
+    @Test
+    @DisplayName("findDueByDeckId returns only cards whose next_review_at has passed")
+    void findDueByDeckId_returnsOnlyDueCards() {
+        Flashcard due = persistCard("uno", 1, NOW - 2 * DAY);
+        persistCard("dos", 1, NOW);
+        persistCard("tres", 6, NOW - 30 * DAY);
+        em.flush();
+        em.clear();
+
+        List<Flashcard> result = cardRepo.findDueByDeckId(deck.getDeckId(), NOW);
+
+        assertThat(result).extracting(Flashcard::getCardId).containsExactly(due.getCardId());
+    }
+
+    @Test
+    @DisplayName("backfillNextReviewAt fills rows that have no next_review_at yet")
+    void backfillNextReviewAt_fillsNullRows() {
+        Flashcard card = persistCard("uno", 3, NOW);
+        em.flush();
+        em.getEntityManager()
+                .createQuery("UPDATE Flashcard f SET f.nextReviewAt = NULL")
+                .executeUpdate();
+        em.clear();
+
+        int updated = cardRepo.backfillNextReviewAt(3, 7 * DAY);
+
+        assertThat(updated).isEqualTo(1);
+        em.clear();
+        assertThat(cardRepo.findByCardId(card.getCardId()).getNextReviewAt()).isEqualTo(NOW + 7 * DAY);
+    }
+
+    @Test
+    @DisplayName("promote moves every stage up one step, capped at the last stage, in a single update")
+    void promote_clampsAndReschedules() {
+        for (int stage = ReviewState.MIN_STAGE; stage <= ReviewState.MAX_STAGE; stage++) {
+            Flashcard card = persistCard("promote-" + stage, stage, NOW - DAY);
+            em.flush();
+            em.clear();
+
+            assertThat(cardRepo.promote(card.getCardId(), NOW)).isEqualTo(1);
+
+            Flashcard updated = cardRepo.findByCardId(card.getCardId());
+            int expectedStage = Math.min(stage + 1, ReviewState.MAX_STAGE);
+            assertThat(updated.getStage()).isEqualTo(expectedStage);
+            assertThat(updated.getLastReviewed()).isEqualTo(NOW);
+            assertThat(updated.getNextReviewAt()).isEqualTo(NOW + LeitnerAlgorithm.intervalSeconds(expectedStage));
+            em.clear();
+        }
+    }
+
+    @Test
+    @DisplayName("demote moves every stage down one step, floored at the first stage, in a single update")
+    void demote_clampsAndReschedules() {
+        for (int stage = ReviewState.MIN_STAGE; stage <= ReviewState.MAX_STAGE; stage++) {
+            Flashcard card = persistCard("demote-" + stage, stage, NOW - DAY);
+            em.flush();
+            em.clear();
+
+            assertThat(cardRepo.demote(card.getCardId(), NOW)).isEqualTo(1);
+
+            Flashcard updated = cardRepo.findByCardId(card.getCardId());
+            int expectedStage = Math.max(stage - 1, ReviewState.MIN_STAGE);
+            assertThat(updated.getStage()).isEqualTo(expectedStage);
+            assertThat(updated.getNextReviewAt()).isEqualTo(NOW + LeitnerAlgorithm.intervalSeconds(expectedStage));
+            em.clear();
+        }
+    }
+
+    @Test
+    @DisplayName("promote reports zero affected rows for an unknown card")
+    void promote_unknownCard() {
+        assertThat(cardRepo.promote(-1, NOW)).isZero();
+    }
+
+    @Test
+    @DisplayName("promote leaves cards in non-Leitner decks to the algorithm-aware path")
+    void promote_skipsNonLeitnerDeck() {
+        deck.setSchedulingAlgorithm(SchedulingAlgorithmType.FSRS);
+        Flashcard card = persistCard("uno", 2, NOW - DAY);
+        em.flush();
+        em.clear();
+
+        assertThat(cardRepo.promote(card.getCardId(), NOW)).isZero();
+        assertThat(cardRepo.findByCardId(card.getCardId()).getStage()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("back_hash folds case and whitespace")
+    void hashBack_normalizes() {
+        assertThat(Flashcard.hashBack("  Der   Hund\t")).isEqualTo(Flashcard.hashBack("der hund"));
+        assertThat(Flashcard.hashBack("der Hund")).isNotEqualTo(Flashcard.hashBack("die Katze"));
+    }
+
+    @Test
+    @DisplayName("existsByDeck_DeckIdAndBackHash finds normalized duplicates in the same deck only")
+    void existsByBackHash() {
+        persistCard("Der Hund", 1, NOW);
+        Deck other = em.persist(new Deck(null, deck.getUser(), "Other", "Description"));
+        em.flush();
+
+        assertThat(cardRepo.existsByDeck_DeckIdAndBackHash(deck.getDeckId(), Flashcard.hashBack("der  hund"))).isTrue();
+        assertThat(cardRepo.existsByDeck_DeckIdAndBackHash(other.getDeckId(), Flashcard.hashBack("der hund"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("the unique (deckid, back_hash) index rejects a duplicate back")
+    void uniqueBackHash_rejectsDuplicate() {
+        persistCard("Der Hund", 1, NOW);
+        em.flush();
+
+        assertThatThrownBy(() -> cardRepo.saveAndFlush(newCard("der hund")))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .satisfies(e -> assertThat(DataService.isDuplicateBack(e)).isTrue());
+    }
+
+    @Test
+    @DisplayName("other integrity violations are not taken for a duplicate back")
+    void otherViolation_isNotDuplicateBack() {
+        Flashcard card = newCard("der Hund");
+        card.setDeck(em.getEntityManager().getReference(Deck.class, 999_999));
+
+        assertThatThrownBy(() -> cardRepo.saveAndFlush(card))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .satisfies(e -> assertThat(DataService.isDuplicateBack(e)).isFalse());
+    }
+
+    private Flashcard newCard(String back) {
+        Flashcard card = new Flashcard();
+        card.setDeck(deck);
+        card.setFront("front of " + back);
+        card.setBack(back);
+        card.setStage(1);
+        card.setLastReviewed(NOW);
+        return card;
+    }
+}
@@ -0,0 +1,95 @@
+package com.flashcardgroup.flashcard_backend.repo;
+
+import com.flashcardgroup.flashcard_backend.model.Deck;
+import com.flashcardgroup.flashcard_backend.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private DeckRepository deckRepo;
+
+    @Autowired
+    private UserRepository userRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User user;
+    private Deck deck;
+
+    @BeforeEach
+    void setUp() {
+        user = em.persist(new User(null, "alice", "alice@example.com", "old-hash"));
+        deck = em.persist(new Deck(null, user, "Deck", "Description"));
+        em.flush();
+        em.clear();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    @Test
+    @DisplayName("Deck lookups by id are served from the decks region after the first load")
+    void deckById_hitsSecondLevelCache() {
+        deckRepo.findById(Long.valueOf(deck.getDeckId()));
+        em.clear();
+        Statistics statistics = statistics();
+
+        Deck cached = deckRepo.findById(Long.valueOf(deck.getDeckId())).orElseThrow();
+
+        assertThat(cached.getName()).isEqualTo("Deck");
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getDomainDataRegionStatistics("decks").getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deck ownership checks are answered from the query cache")
+    void ownershipCheck_hitsQueryCache() {
+        assertThat(deckRepo.existsByDeckIdAndUser_UserId(deck.getDeckId(), user.getUserId())).isTrue();
+        Statistics statistics = statistics();
+
+        assertThat(deckRepo.existsByDeckIdAndUser_UserId(deck.getDeckId(), user.getUserId())).isTrue();
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findByUsername reads password_hash from the database even when the user is cached")
+    void findByUsername_bypassesCache() {
+        userRepo.findById(Long.valueOf(user.getUserId()));
+        em.clear();
+        // A credential change that this instance's cache has not seen (e.g. made by another instance)
+        jdbcTemplate.update("UPDATE users SET password_hash = 'new-hash' WHERE userid = ?", user.getUserId());
+
+        assertThat(userRepo.findByUsername("alice").orElseThrow().getPasswordHash()).isEqualTo("new-hash");
+        em.clear();
+        // REFRESH store mode also replaced the stale cached copy
+        assertThat(userRepo.findById(Long.valueOf(user.getUserId())).orElseThrow().getPasswordHash()).isEqualTo("new-hash");
+    }
+}
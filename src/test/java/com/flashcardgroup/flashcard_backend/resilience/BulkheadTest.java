@@ -0,0 +1,59 @@
+package com.flashcardgroup.flashcard_backend.resilience;
+
+import com.flashcardgroup.flashcard_backend.exception.BulkheadFullException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkheadTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Bulkhead bulkhead = new Bulkhead("test", 2, Duration.ofMillis(20), registry);
+
+    @Test
+    @DisplayName("rejects callers beyond the limit once the wait times out")
+    void rejectsWhenFull() {
+        Bulkhead.Permit first = bulkhead.acquire();
+        Bulkhead.Permit second = bulkhead.acquire();
+
+        assertThatThrownBy(bulkhead::acquire).isInstanceOf(BulkheadFullException.class);
+        assertThat(registry.get("bulkhead.rejected").tag("name", "test").counter().count()).isEqualTo(1);
+        assertThat(registry.get("bulkhead.active").tag("name", "test").gauge().value()).isEqualTo(2);
+
+        first.close();
+        second.close();
+    }
+
+    @Test
+    @DisplayName("closing a permit frees its slot exactly once")
+    void releasesOnClose() {
+        Bulkhead.Permit permit = bulkhead.acquire();
+        permit.close();
+        permit.close();
+
+        try (Bulkhead.Permit a = bulkhead.acquire(); Bulkhead.Permit b = bulkhead.acquire()) {
+            assertThat(bulkhead.activeCalls()).isEqualTo(2);
+        }
+        assertThat(bulkhead.activeCalls()).isZero();
+    }
+
+    @Test
+    @DisplayName("a waiting caller gets the slot released within its wait time")
+    void waiterGetsReleasedSlot() throws Exception {
+        Bulkhead patient = new Bulkhead("patient", 1, Duration.ofSeconds(5), registry);
+        Bulkhead.Permit held = patient.acquire();
+
+        Thread waiter = Thread.ofVirtual().start(() -> patient.acquire().close());
+        Thread.sleep(50);
+        held.close();
+        waiter.join(5000);
+
+        assertThat(waiter.isAlive()).isFalse();
+        assertThat(registry.get("bulkhead.rejected").tag("name", "patient").counter().count()).isZero();
+    }
+}
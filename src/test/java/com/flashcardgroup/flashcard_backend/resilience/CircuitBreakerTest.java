@@ -0,0 +1,113 @@
+package com.flashcardgroup.flashcard_backend.resilience;
+
+import com.flashcardgroup.flashcard_backend.exception.CircuitOpenException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong();
+    private final CircuitBreaker circuitBreaker =
+            new CircuitBreaker("test", 10, 4, 50, Duration.ofSeconds(30), registry, now::get);
+
+    private void call(boolean fails) {
+        CircuitBreaker.Permission call = circuitBreaker.acquirePermission();
+        if (fails) {
+            call.onFailure();
+        } else {
+            call.onSuccess();
+        }
+    }
+
+    @Test
+    @DisplayName("opens once the failure rate over the window reaches the threshold")
+    void opensOnFailureRate() {
+        call(false);
+        call(true);
+        call(false);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        call(true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(circuitBreaker::acquirePermission)
+                .isInstanceOf(CircuitOpenException.class)
+                .satisfies(e -> assertThat(((CircuitOpenException) e).getRetryAfter()).isEqualTo(Duration.ofSeconds(30)));
+        assertThat(registry.get("circuit.rejected").tag("name", "test").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("does not open before the minimum number of calls")
+    void needsMinimumCalls() {
+        call(true);
+        call(true);
+        call(true);
+
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("lets one trial call through after the open duration; its outcome closes or reopens the circuit")
+    void halfOpenTrial() {
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        CircuitBreaker.Permission trial = circuitBreaker.acquirePermission();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        // Only one trial at a time
+        assertThatThrownBy(circuitBreaker::acquirePermission).isInstanceOf(CircuitOpenException.class);
+        trial.onFailure();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+        call(false);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        // The window starts over after closing
+        call(true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    @DisplayName("ignored outcomes hand the half-open trial slot back")
+    void ignoredReleasesTrial() {
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+
+        circuitBreaker.acquirePermission().onIgnored();
+        circuitBreaker.acquirePermission();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    @DisplayName("only the trial call's outcome decides the half-open state, not a late answer from before opening")
+    void lateOutcomesDoNotDecideHalfOpen() {
+        CircuitBreaker.Permission slow = circuitBreaker.acquirePermission();
+        CircuitBreaker.Permission slowFailure = circuitBreaker.acquirePermission();
+        for (int i = 0; i < 4; i++) {
+            call(true);
+        }
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+        CircuitBreaker.Permission trial = circuitBreaker.acquirePermission();
+
+        slow.onSuccess();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        slowFailure.onFailure();
+        slowFailure.onIgnored();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThatThrownBy(circuitBreaker::acquirePermission).isInstanceOf(CircuitOpenException.class);
+
+        trial.onSuccess();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+}
@@ -0,0 +1,62 @@
+package com.flashcardgroup.flashcard_backend.resilience;
+
+import com.flashcardgroup.flashcard_backend.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HedgedCallerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("calls that miss the deadline fail with DeadlineExceededException")
+    void enforcesDeadline() {
+        HedgedCaller caller = new HedgedCaller("test", Duration.ofMillis(50), false, Duration.ofSeconds(1), registry);
+        CountDownLatch never = new CountDownLatch(1);
+
+        assertThatThrownBy(() -> caller.call(() -> never.await(5, TimeUnit.SECONDS)))
+                .isInstanceOf(DeadlineExceededException.class);
+        assertThat(registry.get("hedge.timeouts").tag("name", "test").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("a slow first attempt is hedged and the faster second attempt wins")
+    void hedgesSlowCalls() throws IOException {
+        HedgedCaller caller = new HedgedCaller("test", Duration.ofSeconds(5), true, Duration.ofMillis(20), registry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = caller.call(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                Thread.sleep(5_000);
+                return "slow";
+            }
+            return "fast";
+        });
+
+        assertThat(result).isEqualTo("fast");
+        assertThat(attempts).hasValue(2);
+        assertThat(registry.get("hedge.launched").tag("name", "test").counter().count()).isEqualTo(1);
+        assertThat(registry.get("hedge.won").tag("name", "test").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("fast calls are not hedged and failures surface unchanged")
+    void noHedgeForFastCalls() {
+        HedgedCaller caller = new HedgedCaller("test", Duration.ofSeconds(5), true, Duration.ofSeconds(1), registry);
+
+        assertThatThrownBy(() -> caller.call(() -> {
+            throw new IOException("boom");
+        })).isInstanceOf(IOException.class).hasMessage("boom");
+        assertThat(registry.get("hedge.launched").tag("name", "test").counter().count()).isZero();
+    }
+}
@@ -0,0 +1,42 @@
+package com.flashcardgroup.flashcard_backend.resilience;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final TokenBucket bucket = new TokenBucket("test", 2, 3, new SimpleMeterRegistry(), now::get);
+
+    @Test
+    @DisplayName("allows a burst up to capacity, then one call per refill interval")
+    void burstThenRate() {
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isZero();
+
+        long wait = bucket.tryAcquire();
+        assertThat(wait).isBetween(TimeUnit.MILLISECONDS.toNanos(499), TimeUnit.MILLISECONDS.toNanos(501));
+
+        now.addAndGet(wait + TimeUnit.MILLISECONDS.toNanos(1));
+        assertThat(bucket.tryAcquire()).isZero();
+        assertThat(bucket.tryAcquire()).isPositive();
+    }
+
+    @Test
+    @DisplayName("idle time refills no more than capacity")
+    void refillIsCapped() {
+        now.addAndGet(TimeUnit.MINUTES.toNanos(10));
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(bucket.tryAcquire()).isZero();
+        }
+        assertThat(bucket.tryAcquire()).isPositive();
+    }
+}
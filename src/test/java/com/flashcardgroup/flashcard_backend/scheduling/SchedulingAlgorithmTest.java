@@ -0,0 +1,66 @@
+package com.flashcardgroup.flashcard_backend.scheduling;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SchedulingAlgorithmTest {
+
+    private static final long NOW = 1_700_000_000L;
+    private static final long DAY = SchedulingAlgorithm.DAY;
+
+    @Test
+    @DisplayName("Leitner keeps the original fixed intervals and clamps the stage")
+    void leitner_fixedIntervals() {
+        SchedulingAlgorithm leitner = SchedulingAlgorithms.of(SchedulingAlgorithmType.LEITNER, null);
+
+        ReviewState top = leitner.review(new ReviewState(6, NOW - DAY, null, null), true, NOW);
+        ReviewState bottom = leitner.review(new ReviewState(1, NOW - DAY, null, null), false, NOW);
+
+        assertThat(top.stage()).isEqualTo(6);
+        assertThat(leitner.nextReviewAt(top)).isEqualTo(NOW + 180 * DAY);
+        assertThat(bottom.stage()).isEqualTo(1);
+        assertThat(leitner.nextReviewAt(bottom)).isEqualTo(NOW + DAY);
+    }
+
+    @Test
+    @DisplayName("SM-2 follows the 1, 6, interval x ease progression and resets on a lapse")
+    void sm2_intervalProgression() {
+        SchedulingAlgorithm sm2 = SchedulingAlgorithms.of(SchedulingAlgorithmType.SM2, null);
+
+        ReviewState first = sm2.review(new ReviewState(1, NOW, null, null), true, NOW);
+        ReviewState second = sm2.review(first, true, NOW + DAY);
+        ReviewState third = sm2.review(second, true, NOW + 7 * DAY);
+        ReviewState lapse = sm2.review(third, false, NOW + 30 * DAY);
+
+        assertThat(first.stability()).isEqualTo(1.0);
+        assertThat(second.stability()).isEqualTo(6.0);
+        assertThat(third.stability()).isEqualTo(15.0);
+        assertThat(sm2.nextReviewAt(third)).isEqualTo(NOW + 7 * DAY + 15 * DAY);
+        assertThat(lapse.stability()).isEqualTo(1.0);
+        assertThat(lapse.difficulty()).isCloseTo(1.96, within(1e-9));
+    }
+
+    @Test
+    @DisplayName("FSRS grows stability on success, shrinks it on a lapse and targets the desired retention")
+    void fsrs_stabilityAndRetention() {
+        SchedulingAlgorithm fsrs = SchedulingAlgorithms.of(SchedulingAlgorithmType.FSRS, 0.9);
+
+        ReviewState first = fsrs.review(new ReviewState(1, NOW, null, null), true, NOW);
+        long due = fsrs.nextReviewAt(first);
+        ReviewState second = fsrs.review(first, true, due);
+        ReviewState lapse = fsrs.review(second, false, fsrs.nextReviewAt(second));
+
+        assertThat(first.stability()).isCloseTo(3.7145, within(1e-9));
+        // At 90% retention the interval equals the stability
+        assertThat(due).isEqualTo(NOW + Math.round(3.7145 * DAY));
+        assertThat(second.stability()).isGreaterThan(first.stability());
+        assertThat(lapse.stability()).isLessThan(second.stability());
+        assertThat(lapse.difficulty()).isGreaterThan(second.difficulty());
+
+        SchedulingAlgorithm stricter = SchedulingAlgorithms.of(SchedulingAlgorithmType.FSRS, 0.95);
+        assertThat(stricter.nextReviewAt(second)).isLessThan(fsrs.nextReviewAt(second));
+    }
+}
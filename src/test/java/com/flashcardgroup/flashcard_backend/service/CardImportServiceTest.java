@@ -0,0 +1,181 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcardgroup.flashcard_backend.dto.CardImportResultDTO;
+import com.flashcardgroup.flashcard_backend.model.Deck;
+import com.flashcardgroup.flashcard_backend.model.Flashcard;
+import com.flashcardgroup.flashcard_backend.model.User;
+import com.flashcardgroup.flashcard_backend.repo.FlashcardRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class CardImportServiceTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private FlashcardRepository cardRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private EnrichmentQueue enrichmentQueue;
+    private CardImportService importService;
+    private Deck deck;
+
+    @BeforeEach
+    void setUp() {
+        enrichmentQueue = mock(EnrichmentQueue.class);
+        // Small batches so the tests cover more than one JDBC batch
+        importService = new CardImportService(cardRepo, jdbcTemplate, transactionTemplate, new ObjectMapper(), enrichmentQueue, 2);
+
+        User user = em.persist(new User(null, "alice", "alice@example.com", "hash"));
+        deck = em.persist(new Deck(null, user, "Deck", "Description"));
+        Flashcard existing = new Flashcard();
+        existing.setDeck(deck);
+        existing.setFront("one");
+        existing.setBack("uno");
+        existing.setStage(3);
+        existing.setLastReviewed(1_700_000_000L);
+        em.persist(existing);
+        em.flush();
+    }
+
+    private CardImportResultDTO importText(CardImportService.Format format, String text) throws Exception {
+        CardImportResultDTO result = importService.importCards(
+                deck, format, new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)));
+        em.clear();
+        return result;
+    }
+
+    private Map<String, Flashcard> cardsByBack() {
+        Map<String, Flashcard> cards = new java.util.HashMap<>();
+        for (Flashcard card : cardRepo.findByDeck_DeckId(deck.getDeckId())) {
+            cards.put(card.getBack(), card);
+        }
+        return cards;
+    }
+
+    @Test
+    @DisplayName("CSV import skips duplicates and invalid rows and stores translations")
+    void importCsv() throws Exception {
+        String csv = """
+                CardID,Front,Back,Example,Translations
+                ,one,uno,,
+                ,two,dos,"Dos, ""two""
+                on two lines","{""en"":""two"",""de"":""zwei""}"
+                ,three,tres,,
+                ,three again,tres,,
+                ,no back,,,
+                ,four,cuatro,,
+                """;
+
+        CardImportResultDTO result = importText(CardImportService.Format.CSV, csv);
+
+        assertThat(result).isEqualTo(new CardImportResultDTO(3, 2, 1));
+        Map<String, Flashcard> cards = cardsByBack();
+        assertThat(cards).containsOnlyKeys("uno", "dos", "tres", "cuatro");
+        Flashcard dos = cards.get("dos");
+        assertThat(dos.getExample()).isEqualTo("Dos, \"two\"\non two lines");
+        assertThat(dos.getTranslations()).containsExactlyInAnyOrderEntriesOf(Map.of("en", "two", "de", "zwei"));
+        assertThat(dos.getStage()).isEqualTo(1);
+        assertThat(dos.getNextReviewAt()).isEqualTo(dos.getLastReviewed() + 86400L);
+        assertThat(cards.get("uno").getStage()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("NDJSON import reads one card per line")
+    void importNdjson() throws Exception {
+        String ndjson = """
+                {"Front":"two","Back":"dos","Translations":{"en":"two"}}
+                {"Front":"three","Back":"tres"}
+                """;
+
+        CardImportResultDTO result = importText(CardImportService.Format.NDJSON, ndjson);
+
+        assertThat(result).isEqualTo(new CardImportResultDTO(2, 0, 0));
+        assertThat(cardsByBack().get("dos").getTranslations()).containsEntry("en", "two");
+    }
+
+    @Test
+    @DisplayName("the progress listener gets the running totals after every committed batch")
+    void importReportsProgress() throws Exception {
+        String ndjson = """
+                {"Front":"two","Back":"dos"}
+                {"Front":"three","Back":"tres"}
+                {"Front":"one again","Back":"uno"}
+                {"Front":"four","Back":"cuatro"}
+                {"Front":"five","Back":"cinco"}
+                {"Front":"six","Back":"seis"}
+                """;
+        List<CardImportResultDTO> progress = new ArrayList<>();
+
+        CardImportResultDTO result = importService.importCards(deck, CardImportService.Format.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), progress::add);
+
+        assertThat(progress).containsExactly(
+                new CardImportResultDTO(2, 0, 0),
+                new CardImportResultDTO(4, 1, 0),
+                new CardImportResultDTO(5, 1, 0));
+        assertThat(result).isEqualTo(progress.get(progress.size() - 1));
+    }
+
+    @Test
+    @DisplayName("imported cards missing AI-generated fields are queued for enrichment")
+    void importQueuesEnrichment() throws Exception {
+        String ndjson = """
+                {"Front":"two","Back":"dos"}
+                {"Front":"three","Back":"tres","Example":"tres gatos","Synonyms":"trio","PartOfSpeech":"numeral"}
+                """;
+
+        importText(CardImportService.Format.NDJSON, ndjson);
+
+        Integer dosId = cardsByBack().get("dos").getCardId();
+        verify(enrichmentQueue).enqueue(List.of(dosId));
+    }
+
+    @Test
+    @DisplayName("Anki plain-text import skips header lines")
+    void importAnki() throws Exception {
+        String anki = "#separator:tab\n#html:false\ntwo\tdos\tdos gatos\nthree\ttres\n";
+
+        CardImportResultDTO result = importText(CardImportService.Format.ANKI, anki);
+
+        assertThat(result).isEqualTo(new CardImportResultDTO(2, 0, 0));
+        assertThat(cardsByBack().get("dos").getExample()).isEqualTo("dos gatos");
+    }
+
+    @Test
+    @DisplayName("Malformed input is rejected as an invalid file")
+    void importMalformed() {
+        assertThatThrownBy(() -> importText(CardImportService.Format.NDJSON, "{\"Front\":"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> importText(CardImportService.Format.CSV, "Name,Value\na,b\n"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(cardRepo.findByDeck_DeckId(deck.getDeckId())).extracting(Flashcard::getBack).containsExactly("uno");
+    }
+}
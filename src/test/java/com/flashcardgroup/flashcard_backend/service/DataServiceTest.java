@@ -0,0 +1,219 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.flashcardgroup.flashcard_backend.dto.ReviewOutcomeDTO;
+import com.flashcardgroup.flashcard_backend.dto.ReviewSubmissionDTO;
+import com.flashcardgroup.flashcard_backend.model.Deck;
+import com.flashcardgroup.flashcard_backend.model.Flashcard;
+import com.flashcardgroup.flashcard_backend.model.User;
+import com.flashcardgroup.flashcard_backend.scheduling.LeitnerAlgorithm;
+import com.flashcardgroup.flashcard_backend.scheduling.SchedulingAlgorithmType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+// A named database with a generous lock timeout, so a review blocked on another's row lock waits instead of failing
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:data_service;LOCK_TIMEOUT=10000")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DataService.class)
+class DataServiceTest {
+
+    private static final long REVIEWED_AT = 1_700_000_000L;
+
+    @Autowired
+    private DataService dataService;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoBean
+    private ReviewEventBuffer reviewEvents;
+
+    @MockitoBean
+    private ReschedulingJob reschedulingJob;
+
+    @MockitoBean
+    private EnrichmentQueue enrichmentQueue;
+
+    private Deck deck(SchedulingAlgorithmType algorithm) {
+        User user = em.persist(new User(null, "alice", "alice@example.com", "hash"));
+        Deck deck = new Deck(null, user, "Deck", "Description");
+        deck.setSchedulingAlgorithm(algorithm);
+        return em.persist(deck);
+    }
+
+    private Flashcard card(Deck deck, String back) {
+        Flashcard card = new Flashcard();
+        card.setDeck(deck);
+        card.setFront("front of " + back);
+        card.setBack(back);
+        card.setStage(1);
+        card.setLastReviewed(REVIEWED_AT);
+        return em.persist(card);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("concurrent reviews of an SM-2 card apply one after the other instead of losing one")
+    void concurrentReviewsOfOneCardAreSerialized() throws Exception {
+        Integer cardId = transactionTemplate.execute(status -> card(deck(SchedulingAlgorithmType.SM2), "hund").getCardId());
+        CountDownLatch firstApplied = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            // The first review applies and then holds its transaction, and with it the row lock, open
+            Future<Boolean> first = executor.submit(() -> transactionTemplate.execute(status -> {
+                boolean recorded = dataService.recordReview(cardId, true);
+                firstApplied.countDown();
+                await(releaseFirst);
+                return recorded;
+            }));
+            assertThat(firstApplied.await(5, TimeUnit.SECONDS)).isTrue();
+
+            Future<Boolean> second = executor.submit(() -> dataService.recordReview(cardId, true));
+            assertThatThrownBy(() -> second.get(300, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+
+            releaseFirst.countDown();
+            assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(second.get(5, TimeUnit.SECONDS)).isTrue();
+
+            // Two remembered SM-2 reviews: a one-day interval, then six days, two stages up
+            assertThat(jdbcTemplate.queryForObject("SELECT stability FROM flashcards WHERE cardid = ?", Double.class, cardId))
+                    .isEqualTo(6.0);
+            assertThat(jdbcTemplate.queryForObject("SELECT stage FROM flashcards WHERE cardid = ?", Integer.class, cardId))
+                    .isEqualTo(3);
+        } finally {
+            releaseFirst.countDown();
+            executor.shutdownNow();
+            jdbcTemplate.update("DELETE FROM flashcards");
+            jdbcTemplate.update("DELETE FROM decks");
+            jdbcTemplate.update("DELETE FROM users");
+        }
+    }
+
+    private Flashcard reload(Flashcard card) {
+        em.flush();
+        em.clear();
+        return em.find(Flashcard.class, card.getCardId());
+    }
+
+    private static ReviewSubmissionDTO review(Flashcard card, boolean remembered, Long reviewedAt) {
+        return new ReviewSubmissionDTO(card.getCardId(), remembered, reviewedAt);
+    }
+
+    @Test
+    @DisplayName("a review older than the stored one is reported stale and leaves the schedule alone")
+    void applyReviews_skipsStaleReview() {
+        Flashcard card = card(deck(SchedulingAlgorithmType.LEITNER), "hund");
+        Long nextReviewAt = card.getNextReviewAt();
+
+        List<ReviewOutcomeDTO> outcomes = dataService.applyReviews(List.of(review(card, true, REVIEWED_AT - 60)));
+
+        assertThat(outcomes).containsExactly(ReviewOutcomeDTO.of(card.getCardId(), ReviewOutcomeDTO.STALE));
+        Flashcard stored = reload(card);
+        assertThat(stored.getStage()).isEqualTo(1);
+        assertThat(stored.getLastReviewed()).isEqualTo(REVIEWED_AT);
+        assertThat(stored.getNextReviewAt()).isEqualTo(nextReviewAt);
+        verify(reviewEvents, never()).record(anyInt(), anyBoolean(), anyLong());
+    }
+
+    @Test
+    @DisplayName("a review timestamped in the future is applied as of now")
+    void applyReviews_clampsFutureTimestamp() {
+        Flashcard card = card(deck(SchedulingAlgorithmType.LEITNER), "hund");
+        long before = Instant.now().getEpochSecond();
+
+        List<ReviewOutcomeDTO> outcomes = dataService.applyReviews(List.of(review(card, true, before + 86_400)));
+
+        long after = Instant.now().getEpochSecond();
+        Flashcard stored = reload(card);
+        assertThat(stored.getStage()).isEqualTo(2);
+        assertThat(stored.getLastReviewed()).isBetween(before, after);
+        assertThat(stored.getNextReviewAt()).isEqualTo(stored.getLastReviewed() + LeitnerAlgorithm.intervalSeconds(2));
+        assertThat(outcomes).containsExactly(new ReviewOutcomeDTO(card.getCardId(), ReviewOutcomeDTO.UPDATED, 2, stored.getNextReviewAt()));
+        verify(reviewEvents).record(card.getCardId(), true, stored.getLastReviewed());
+    }
+
+    @Test
+    @DisplayName("unknown and incomplete reviews are reported per entry without affecting the rest of the batch")
+    void applyReviews_reportsUnknownCards() {
+        Flashcard card = card(deck(SchedulingAlgorithmType.LEITNER), "hund");
+
+        List<ReviewOutcomeDTO> outcomes = dataService.applyReviews(List.of(
+                new ReviewSubmissionDTO(999_999, true, REVIEWED_AT + 60),
+                new ReviewSubmissionDTO(card.getCardId(), null, REVIEWED_AT + 60),
+                review(card, true, REVIEWED_AT + 60)
+        ));
+
+        assertThat(outcomes).containsExactly(
+                ReviewOutcomeDTO.of(999_999, ReviewOutcomeDTO.NOT_FOUND),
+                ReviewOutcomeDTO.of(card.getCardId(), ReviewOutcomeDTO.INVALID),
+                new ReviewOutcomeDTO(card.getCardId(), ReviewOutcomeDTO.UPDATED, 2, REVIEWED_AT + 60 + LeitnerAlgorithm.intervalSeconds(2)));
+        Flashcard stored = reload(card);
+        assertThat(stored.getStage()).isEqualTo(2);
+        assertThat(stored.getLastReviewed()).isEqualTo(REVIEWED_AT + 60);
+        assertThat(stored.getNextReviewAt()).isEqualTo(REVIEWED_AT + 60 + LeitnerAlgorithm.intervalSeconds(2));
+    }
+
+    @Test
+    @DisplayName("repeated reviews of a card apply in submission order, and one older than its predecessor is stale")
+    void applyReviews_appliesDuplicatesInOrder() {
+        Flashcard card = card(deck(SchedulingAlgorithmType.LEITNER), "hund");
+
+        List<ReviewOutcomeDTO> outcomes = dataService.applyReviews(List.of(
+                review(card, true, REVIEWED_AT + 100),
+                review(card, false, REVIEWED_AT + 300),
+                review(card, true, REVIEWED_AT + 200)
+        ));
+
+        assertThat(outcomes).containsExactly(
+                new ReviewOutcomeDTO(card.getCardId(), ReviewOutcomeDTO.UPDATED, 2, REVIEWED_AT + 100 + LeitnerAlgorithm.intervalSeconds(2)),
+                new ReviewOutcomeDTO(card.getCardId(), ReviewOutcomeDTO.UPDATED, 1, REVIEWED_AT + 300 + LeitnerAlgorithm.intervalSeconds(1)),
+                ReviewOutcomeDTO.of(card.getCardId(), ReviewOutcomeDTO.STALE));
+        Flashcard stored = reload(card);
+        assertThat(stored.getStage()).isEqualTo(1);
+        assertThat(stored.getLastReviewed()).isEqualTo(REVIEWED_AT + 300);
+        assertThat(stored.getNextReviewAt()).isEqualTo(REVIEWED_AT + 300 + LeitnerAlgorithm.intervalSeconds(1));
+    }
+}
@@ -0,0 +1,102 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcardgroup.flashcard_backend.dto.FlashcardDTO;
+import com.flashcardgroup.flashcard_backend.resilience.Bulkheads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class DeckExportServiceTest {
+
+    private static final String CSV_HEADER = "CardID,DeckID,Front,Back,LastReviewed,Stage,Metadata,Example," +
+            "OccurrenceIndices,Synonyms,PartOfSpeech,Classifiers,Translations,ImageNo\r\n";
+
+    private final DataService dataService = mock(DataService.class);
+    private final DeckExportService exportService = new DeckExportService(dataService, new ObjectMapper(),
+            new Bulkheads(new MockEnvironment(), new SimpleMeterRegistry()));
+
+    private static FlashcardDTO card(Integer id, String front, String back, String example, Map<String, String> translations) {
+        return new FlashcardDTO(id, 10, front, back, 1_700_000_000L, 2, null, example, null, null, "noun", null,
+                translations, null);
+    }
+
+    private String export(DeckExportService.Format format, FlashcardDTO... cards) throws IOException {
+        doAnswer(invocation -> {
+            Consumer<FlashcardDTO> sink = invocation.getArgument(1);
+            List.of(cards).forEach(sink);
+            return null;
+        }).when(dataService).exportDeck(eq(10), any());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(10, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("CSV leaves plain values bare and writes nulls and empty translations as empty fields")
+    void csvPlainValues() throws IOException {
+        String csv = export(DeckExportService.Format.CSV, card(1, "dog", "Hund", null, Map.of()));
+
+        assertThat(csv).isEqualTo(CSV_HEADER + "1,10,dog,Hund,1700000000,2,,,,,noun,,,\r\n");
+    }
+
+    @Test
+    @DisplayName("CSV quotes values with commas, quotes or line breaks and doubles embedded quotes")
+    void csvQuotesAndEscapes() throws IOException {
+        String csv = export(DeckExportService.Format.CSV,
+                card(1, "a, b", "say \"hi\"", "line one\nline two", Map.of()),
+                card(2, "carriage\rreturn", "crlf\r\nend", "\"", Map.of()));
+
+        assertThat(csv).isEqualTo(CSV_HEADER
+                + "1,10,\"a, b\",\"say \"\"hi\"\"\",1700000000,2,,\"line one\nline two\",,,noun,,,\r\n"
+                + "2,10,\"carriage\rreturn\",\"crlf\r\nend\",1700000000,2,,\"\"\"\",,,noun,,,\r\n");
+    }
+
+    @Test
+    @DisplayName("CSV writes translations as one quoted JSON field")
+    void csvTranslationsColumn() throws IOException {
+        Map<String, String> translations = new LinkedHashMap<>();
+        translations.put("de", "Hund");
+        translations.put("fr", "chien");
+
+        String csv = export(DeckExportService.Format.CSV, card(1, "dog", "Hund", null, translations));
+
+        assertThat(csv).isEqualTo(CSV_HEADER
+                + "1,10,dog,Hund,1700000000,2,,,,,noun,,\"{\"\"de\"\":\"\"Hund\"\",\"\"fr\"\":\"\"chien\"\"}\",\r\n");
+    }
+
+    @Test
+    @DisplayName("CSV of an empty deck is just the header")
+    void csvEmptyDeck() throws IOException {
+        assertThat(export(DeckExportService.Format.CSV)).isEqualTo(CSV_HEADER);
+    }
+
+    @Test
+    @DisplayName("NDJSON writes one JSON object per line")
+    void ndjson() throws IOException {
+        String ndjson = export(DeckExportService.Format.NDJSON,
+                card(1, "dog", "Hund", null, Map.of()),
+                card(2, "a, b", "line\nbreak", null, Map.of()));
+
+        String[] lines = ndjson.split("\n", -1);
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("{\"CardID\":1,").contains("\"Front\":\"dog\"");
+        assertThat(lines[1]).startsWith("{\"CardID\":2,").contains("\"Back\":\"line\\nbreak\"");
+        assertThat(lines[2]).isEmpty();
+    }
+}
@@ -0,0 +1,261 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.flashcardgroup.flashcard_backend.dto.LookupDTO;
+import com.flashcardgroup.flashcard_backend.model.Deck;
+import com.flashcardgroup.flashcard_backend.model.EnrichmentTask;
+import com.flashcardgroup.flashcard_backend.model.Flashcard;
+import com.flashcardgroup.flashcard_backend.model.User;
+import com.flashcardgroup.flashcard_backend.repo.EnrichmentTaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class EnrichmentQueueTest {
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EnrichmentTaskRepository taskRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private EnrichmentQueue queue;
+    private Deck deck;
+
+    @BeforeEach
+    void setUp() {
+        queue = new EnrichmentQueue(taskRepo, jdbcTemplate, transactionTemplate, registry,
+                true, Duration.ofMinutes(5), Duration.ofSeconds(0), 2);
+        User user = em.persist(new User(null, "alice", "alice@example.com", "hash"));
+        deck = em.persist(new Deck(null, user, "Deck", "Description"));
+    }
+
+    private Flashcard card(Deck inDeck, String back, String example) {
+        Flashcard card = new Flashcard();
+        card.setDeck(inDeck);
+        card.setFront("front of " + back);
+        card.setBack(back);
+        card.setStage(1);
+        card.setLastReviewed(1_700_000_000L);
+        card.setExample(example);
+        if (example != null) {
+            card.setSynonyms("synonyms");
+            card.setPartOfSpeech("noun");
+        }
+        return em.persist(card);
+    }
+
+    @Test
+    @DisplayName("a claimed task is leased and not handed to another worker")
+    void claimLeasesTasks() {
+        Flashcard first = card(deck, "gato", null);
+        Flashcard second = card(deck, "perro", null);
+        queue.enqueue(List.of(first.getCardId(), second.getCardId()));
+
+        List<EnrichmentTask> claimed = queue.claim("worker-a", 10);
+        assertThat(claimed).extracting(EnrichmentTask::getCardId).containsExactly(first.getCardId(), second.getCardId());
+        assertThat(claimed).allSatisfy(task -> {
+            assertThat(task.getLockedBy()).isEqualTo("worker-a");
+            assertThat(task.getAttempts()).isEqualTo(1);
+            assertThat(task.getAvailableAt()).isGreaterThan(Instant.now().getEpochSecond());
+        });
+
+        assertThat(queue.claim("worker-b", 10)).isEmpty();
+    }
+
+    private Long availableAt(Flashcard card) {
+        return jdbcTemplate.queryForObject("SELECT available_at FROM enrichment_tasks WHERE cardid = ?", Long.class, card.getCardId());
+    }
+
+    private void expireLease(Flashcard card) {
+        jdbcTemplate.update("UPDATE enrichment_tasks SET available_at = 0 WHERE cardid = ?", card.getCardId());
+    }
+
+    @Test
+    @DisplayName("renewing extends the lease of tasks the worker still holds, even once it has run out")
+    void renewExtendsLease() {
+        Flashcard card = card(deck, "gato", null);
+        queue.enqueue(List.of(card.getCardId()));
+        List<EnrichmentTask> claimed = queue.claim("worker-a", 10);
+        em.flush();
+        expireLease(card);
+
+        assertThat(queue.renew("worker-a", claimed)).containsExactlyElementsOf(claimed);
+
+        assertThat(availableAt(card)).isGreaterThanOrEqualTo(Instant.now().getEpochSecond() + Duration.ofMinutes(4).toSeconds());
+        assertThat(queue.claim("worker-b", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("a task reclaimed by another worker after its lease ran out is not renewed")
+    void renewSkipsReclaimedTasks() {
+        Flashcard card = card(deck, "gato", null);
+        queue.enqueue(List.of(card.getCardId()));
+        List<EnrichmentTask> claimed = queue.claim("worker-a", 10);
+        em.flush();
+        expireLease(card);
+        assertThat(queue.claim("worker-b", 10)).hasSize(1);
+
+        assertThat(queue.renew("worker-a", claimed)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("when the lease runs out mid-batch, words another worker has reclaimed are left to it")
+    void workerSkipsWordsReclaimedMidBatch() throws Exception {
+        Flashcard gato = card(deck, "gato", null);
+        Flashcard perro = card(deck, "perro", null);
+        queue.enqueue(List.of(gato.getCardId(), perro.getCardId()));
+        em.flush();
+
+        LookupService lookupService = mock(LookupService.class);
+        List<EnrichmentTask> reclaimed = new ArrayList<>();
+        when(lookupService.lookup("gato", "en", List.of())).thenAnswer(invocation -> {
+            // gato's lease was just renewed; perro's runs out while gato is looked up and worker-b takes it over
+            assertThat(availableAt(gato)).isGreaterThan(Instant.now().getEpochSecond());
+            expireLease(perro);
+            reclaimed.addAll(queue.claim("worker-b", 10));
+            return new LookupDTO("cat", "gato", "", "El gato duerme.", "1", "minino", "noun", "", Map.of());
+        });
+        EnrichmentWorkerPool pool = new EnrichmentWorkerPool(queue, lookupService, jdbcTemplate, registry,
+                "en", 1, 10, Duration.ofSeconds(1), 6000, 10);
+
+        assertThat(pool.processOnce("worker-a")).isEqualTo(2);
+
+        assertThat(reclaimed).extracting(EnrichmentTask::getCardId).containsExactly(perro.getCardId());
+        verify(lookupService, never()).lookup(eq("perro"), anyString(), anyList());
+        em.flush();
+        em.clear();
+        assertThat(em.find(Flashcard.class, gato.getCardId()).getExample()).isEqualTo("El gato duerme.");
+        assertThat(em.find(Flashcard.class, perro.getCardId()).getExample()).isNull();
+        EnrichmentTask remaining = taskRepo.findAll().get(0);
+        assertThat(taskRepo.count()).isEqualTo(1);
+        assertThat(remaining.getCardId()).isEqualTo(perro.getCardId());
+        assertThat(remaining.getLockedBy()).isEqualTo("worker-b");
+        assertThat(remaining.getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("a worker whose task was reclaimed after its lease ran out can neither complete nor retry it")
+    void staleWorkerCannotCompleteOrRetry() {
+        Flashcard card = card(deck, "gato", null);
+        queue.enqueue(List.of(card.getCardId()));
+        List<EnrichmentTask> claimed = queue.claim("worker-a", 10);
+        em.flush();
+        expireLease(card);
+        assertThat(queue.claim("worker-b", 10)).hasSize(1);
+        em.flush();
+        Long leaseOfB = availableAt(card);
+
+        queue.retry("worker-a", claimed, "late failure");
+        queue.complete("worker-a", claimed);
+        em.flush();
+        em.clear();
+
+        EnrichmentTask task = taskRepo.findAll().get(0);
+        assertThat(taskRepo.count()).isEqualTo(1);
+        assertThat(task.getLockedBy()).isEqualTo("worker-b");
+        assertThat(task.getAvailableAt()).isEqualTo(leaseOfB);
+        assertThat(task.getAttempts()).isEqualTo(2);
+        assertThat(task.getLastError()).isNull();
+    }
+
+    @Test
+    @DisplayName("failed tasks are retried until max-attempts, then marked FAILED")
+    void retryThenFail() {
+        Flashcard card = card(deck, "gato", null);
+        queue.enqueue(List.of(card.getCardId()));
+
+        queue.retry("worker-a", queue.claim("worker-a", 10), "timeout");
+        em.flush();
+        em.clear();
+        List<EnrichmentTask> again = queue.claim("worker-a", 10);
+        assertThat(again).hasSize(1);
+
+        queue.retry("worker-a", again, "timeout");
+        em.flush();
+        em.clear();
+        assertThat(queue.claim("worker-a", 10)).isEmpty();
+        EnrichmentTask task = taskRepo.findAll().get(0);
+        assertThat(task.getStatus()).isEqualTo(EnrichmentTask.Status.FAILED);
+        assertThat(task.getLastError()).isEqualTo("timeout");
+    }
+
+    @Test
+    @DisplayName("workers look up each word once and only fill empty fields")
+    void workerCoalescesWordsAndFillsEmptyFields() throws Exception {
+        User bob = em.persist(new User(null, "bob", "bob@example.com", "hash"));
+        Deck other = em.persist(new Deck(null, bob, "Other", "Description"));
+        Flashcard mine = card(deck, "gato", null);
+        Flashcard theirs = card(other, "gato", null);
+        Flashcard complete = card(deck, "perro", "El perro ladra.");
+        queue.enqueue(List.of(mine.getCardId(), theirs.getCardId(), complete.getCardId()));
+        em.flush();
+
+        LookupService lookupService = mock(LookupService.class);
+        when(lookupService.lookup("gato", "en", List.of())).thenReturn(
+                new LookupDTO("cat", "gato", "", "El gato duerme.", "1", "minino; michi", "noun", "", Map.of()));
+        EnrichmentWorkerPool pool = new EnrichmentWorkerPool(queue, lookupService, jdbcTemplate, registry,
+                "en", 1, 10, Duration.ofSeconds(1), 6000, 10);
+
+        assertThat(pool.processOnce("worker-a")).isEqualTo(3);
+
+        verify(lookupService, times(1)).lookup(anyString(), anyString(), anyList());
+        em.flush();
+        em.clear();
+        Flashcard filled = em.find(Flashcard.class, theirs.getCardId());
+        assertThat(filled.getExample()).isEqualTo("El gato duerme.");
+        assertThat(filled.getOccurrenceIndices()).isEqualTo("1");
+        assertThat(filled.getSynonyms()).isEqualTo("minino; michi");
+        assertThat(em.find(Flashcard.class, complete.getCardId()).getExample()).isEqualTo("El perro ladra.");
+        assertThat(taskRepo.count()).isZero();
+        assertThat(registry.get("enrichment.cards").tag("result", "enriched").counter().count()).isEqualTo(2);
+        assertThat(registry.get("enrichment.cards").tag("result", "skipped").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("a failed lookup puts the word's tasks back on the queue")
+    void workerRetriesFailedLookups() throws Exception {
+        Flashcard card = card(deck, "gato", null);
+        queue.enqueue(List.of(card.getCardId()));
+        em.flush();
+
+        LookupService lookupService = mock(LookupService.class);
+        when(lookupService.lookup(anyString(), anyString(), anyList())).thenThrow(new IOException("Gemini down"));
+        EnrichmentWorkerPool pool = new EnrichmentWorkerPool(queue, lookupService, jdbcTemplate, registry,
+                "en", 1, 10, Duration.ofSeconds(1), 6000, 10);
+
+        pool.processOnce("worker-a");
+
+        em.flush();
+        em.clear();
+        EnrichmentTask task = taskRepo.findAll().get(0);
+        assertThat(task.getStatus()).isEqualTo(EnrichmentTask.Status.PENDING);
+        assertThat(task.getLastError()).isEqualTo("Gemini down");
+        assertThat(task.getLockedBy()).isNull();
+    }
+}
@@ -0,0 +1,96 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.flashcardgroup.flashcard_backend.dto.LookupDTO;
+import com.flashcardgroup.flashcard_backend.resilience.Bulkhead;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FakeLookupEngineTest {
+
+    private static final String RECORDED = """
+            {"dog": {"Front": "a pet", "Back": "dog", "Example": "The dog barks.", "OccurrenceIndices": "1",
+                     "Synonyms": "hound", "PartOfSpeech": "noun", "Classifiers": "",
+                     "Translations": {"de": "Hund"}}}
+            """;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private Map<String, ObjectNode> recorded;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        recorded = FakeLookupEngine.readRecorded(new ByteArrayResource(RECORDED.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private FakeLookupEngine engine(double malformedRate) {
+        Bulkhead bulkhead = new Bulkhead("gemini", 4, Duration.ofSeconds(1), registry);
+        return new FakeLookupEngine(recorded, bulkhead, registry, Duration.ZERO, Duration.ZERO, malformedRate);
+    }
+
+    @Test
+    @DisplayName("replays recorded answers and fills in translation languages the recording lacks")
+    void replaysRecordedAnswers() throws IOException {
+        LookupDTO dto = engine(0).lookup("Dog", "en", List.of("de", "it"));
+
+        assertThat(dto.Front()).isEqualTo("a pet");
+        assertThat(dto.Synonyms()).isEqualTo("hound");
+        assertThat(dto.Translations()).containsExactlyInAnyOrderEntriesOf(Map.of("de", "Hund", "it", "Dog (it)"));
+        assertThat(registry.get("lookup.fake.calls").tag("operation", "lookup").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("synthesizes a card with matching occurrence indices for unknown words")
+    void synthesizesUnknownWords() throws IOException {
+        LookupDTO dto = engine(0).lookup("give in", "en", List.of());
+
+        assertThat(dto.Back()).isEqualTo("give in");
+        assertThat(dto.Example()).isEqualTo("We looked up give in today.");
+        assertThat(dto.OccurrenceIndices()).isEqualTo("3,4");
+        assertThat(dto.Front()).isNotBlank();
+    }
+
+    @Test
+    @DisplayName("malformed answers fail like unparseable Gemini output")
+    void malformedAnswersFail() throws IOException {
+        FakeLookupEngine engine = engine(1.0);
+
+        assertThatThrownBy(() -> engine.lookup("dog", "en", List.of())).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> engine.translate("dog", "a pet", List.of("de"))).isInstanceOf(IOException.class);
+        assertThat(engine.lookupBatch(List.of("dog", "cat"), "en", List.of())).isEmpty();
+        assertThat(registry.get("lookup.fake.malformed").counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("streams the same card field by field")
+    void streamsFields() throws IOException {
+        List<String> events = new ArrayList<>();
+        LookupDTO streamed = engine(0).lookupStream("dog", "en", List.of("de"), new LookupStreamListener() {
+            @Override
+            public void onField(String field, String value) {
+                events.add(field + "=" + value);
+            }
+
+            @Override
+            public void onTranslation(String language, String value) {
+                events.add(language + "=" + value);
+            }
+        });
+
+        assertThat(streamed.Front()).isEqualTo("a pet");
+        assertThat(streamed.Translations()).containsEntry("de", "Hund");
+        assertThat(events).contains("Front=a pet", "Example=The dog barks.", "de=Hund");
+    }
+}
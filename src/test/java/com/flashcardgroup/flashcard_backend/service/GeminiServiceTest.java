@@ -0,0 +1,76 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.flashcardgroup.flashcard_backend.dto.LookupDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GeminiServiceTest {
+
+    @Test
+    @DisplayName("schema-constrained responses bind straight to LookupDTO with the usual defaults")
+    void parseLookupBindsAndFillsDefaults() throws IOException {
+        String json = "{\"Front\":\"playfully mischievous\",\"Back\":\"\",\"Metadata\":\"x\",\"Example\":\"A puckish grin.\"," +
+                "\"OccurrenceIndices\":\"1\",\"Synonyms\":null,\"PartOfSpeech\":\"adjective\",\"Extra\":true," +
+                "\"Translations\":{\"ru\":\"ozornoy\",\"de\":null}}";
+
+        LookupDTO dto = GeminiService.parseLookup("puckish", json);
+
+        assertThat(dto.Front()).isEqualTo("playfully mischievous");
+        assertThat(dto.Back()).isEqualTo("puckish");
+        assertThat(dto.Metadata()).isEmpty();
+        assertThat(dto.Synonyms()).isEmpty();
+        assertThat(dto.Classifiers()).isEmpty();
+        assertThat(dto.Translations()).containsEntry("ru", "ozornoy").containsEntry("de", "");
+    }
+
+    @Test
+    @DisplayName("responses that are not a JSON object are reported as parse failures")
+    void parseLookupRejectsInvalidJson() {
+        assertThatThrownBy(() -> GeminiService.parseLookup("puckish", "Sorry, I can't help with that."))
+                .isInstanceOf(IOException.class)
+                .hasMessageStartingWith("Failed to parse Gemini response");
+        assertThatThrownBy(() -> GeminiService.parseLookup("puckish", ""))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("translation-only responses must cover every requested language")
+    void parseTranslationsRequiresEveryLanguage() throws IOException {
+        assertThat(GeminiService.parseTranslations(List.of("es", "fr"), "{\"fr\":\"chien\",\"es\":\"perro\",\"it\":\"cane\"}"))
+                .containsExactly(java.util.Map.entry("es", "perro"), java.util.Map.entry("fr", "chien"));
+        assertThatThrownBy(() -> GeminiService.parseTranslations(List.of("es", "fr"), "{\"es\":\"perro\"}"))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("'fr'");
+    }
+
+    @Test
+    @DisplayName("cards without a Front or a requested translation fail validation")
+    void validatedRejectsIncompleteCards() throws IOException {
+        LookupDTO card = GeminiService.parseLookup("dog", "{\"Front\":\"a pet\",\"Translations\":{\"de\":\"Hund\"}}");
+
+        assertThat(GeminiService.validated(card, List.of("de"))).isSameAs(card);
+        assertThatThrownBy(() -> GeminiService.validated(card, List.of("de", "fr")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("'fr'");
+        assertThatThrownBy(() -> GeminiService.validated(GeminiService.parseLookup("dog", "{\"Front\":\" \"}"), List.of()))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("echoed batch words match exactly first, and ignoring case only when that is unambiguous")
+    void matchWordPrefersExactMatch() {
+        List<String> words = List.of("Polish", "polish", "dog");
+
+        assertThat(GeminiService.matchWord(words, "polish")).isEqualTo("polish");
+        assertThat(GeminiService.matchWord(words, " Polish ")).isEqualTo("Polish");
+        assertThat(GeminiService.matchWord(words, "DOG")).isEqualTo("dog");
+        assertThat(GeminiService.matchWord(words, "POLISH")).isNull();
+        assertThat(GeminiService.matchWord(words, "cat")).isNull();
+    }
+}
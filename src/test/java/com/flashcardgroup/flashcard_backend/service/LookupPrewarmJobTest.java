@@ -0,0 +1,118 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.io.Resource;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class LookupPrewarmJobTest {
+
+    private final LookupService lookupService = mock(LookupService.class);
+    private final LookupStore lookupStore = mock(LookupStore.class);
+
+    // Serves the given lines as classpath:words.txt
+    private LookupPrewarmJob job(List<String> lines, int ratePerMinute, int maxWords) {
+        Resource words = new ByteArrayResource(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+        DefaultResourceLoader resourceLoader = new DefaultResourceLoader() {
+            @Override
+            public Resource getResource(String location) {
+                return location.equals("classpath:words.txt") ? words : super.getResource(location);
+            }
+        };
+        return new LookupPrewarmJob(lookupService, lookupStore, resourceLoader, "classpath:words.txt",
+                "en", List.of("de"), ratePerMinute, maxWords);
+    }
+
+    private void stored(Set<String> words) {
+        when(lookupStore.contains(any())).thenAnswer(invocation ->
+                words.contains(invocation.<LookupService.LookupKey>getArgument(0).word()));
+    }
+
+    @Test
+    @DisplayName("words already in the store are skipped without a lookup or a wait")
+    void skipsStoredWords() throws Exception {
+        List<String> lines = new ArrayList<>(List.of("# most frequent first", ""));
+        for (int i = 0; i < 50; i++) {
+            lines.add("stored" + i);
+        }
+        stored(Set.copyOf(lines));
+        lines.add("fresh");
+
+        // One lookup per second: waiting after each of the 50 stored words would blow the timeout
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> job(lines, 60, 5000).run());
+
+        verify(lookupService).lookup("fresh", "en", List.of("de"));
+        verifyNoMoreInteractions(lookupService);
+        verify(lookupStore, times(51)).contains(any());
+    }
+
+    @Test
+    @DisplayName("missing words are looked up no faster than rate-per-minute")
+    void warmsAtTheConfiguredRate() throws Exception {
+        stored(Set.of());
+        LookupPrewarmJob job = job(List.of("one", "two", "three", "four"), 600, 5000);
+
+        long start = System.nanoTime();
+        job.run();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // 600 per minute is one lookup every 100ms
+        assertThat(elapsedMs).isGreaterThanOrEqualTo(400);
+        verify(lookupService, times(4)).lookup(anyString(), eq("en"), eq(List.of("de")));
+        for (String word : List.of("one", "two", "three", "four")) {
+            verify(lookupService).lookup(word, "en", List.of("de"));
+        }
+    }
+
+    @Test
+    @DisplayName("a failed lookup does not stop the job")
+    void continuesAfterFailures() throws Exception {
+        stored(Set.of());
+        when(lookupService.lookup(eq("bad"), anyString(), any())).thenThrow(new IllegalStateException("engine down"));
+
+        job(List.of("bad", "good"), 60_000, 5000).run();
+
+        verify(lookupService).lookup("good", "en", List.of("de"));
+    }
+
+    @Test
+    @DisplayName("only the first max-words words of the list are warmed")
+    void stopsAtMaxWords() throws Exception {
+        stored(Set.of());
+
+        job(List.of("one", "two", "three"), 60_000, 2).run();
+
+        verify(lookupService, times(2)).lookup(anyString(), anyString(), any());
+        verify(lookupService, never()).lookup(eq("three"), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("a word list that does not exist fails at startup")
+    void missingWordList() {
+        assertThatThrownBy(() -> new LookupPrewarmJob(lookupService, lookupStore, new DefaultResourceLoader(),
+                "classpath:lookup/no-such-list.txt", "en", List.of(), 30, 5000))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("no-such-list.txt");
+    }
+
+    @Test
+    @DisplayName("the default word list ships with the application")
+    void defaultWordListExists() {
+        assertThat(new DefaultResourceLoader().getResource("classpath:lookup/common-words.txt").exists()).isTrue();
+    }
+}
@@ -0,0 +1,45 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LookupPromptsTest {
+
+    private final LookupPrompts prompts = new LookupPrompts();
+
+    @Test
+    @DisplayName("prompts carry the word and languages but leave field shapes to the schema")
+    void promptCarriesOnlyRules() {
+        String prompt = prompts.prompt("puckish", "en", List.of("ru", "de"));
+
+        assertThat(prompt)
+                .contains("WORD: 'puckish'\nRESPONSE_LANGUAGE: en\nTRANSLATION_TARGETS: ru,de\n")
+                .contains("Front MUST NOT be written in any language listed in TRANSLATION_TARGETS")
+                .contains("Front MUST be in English")
+                .doesNotContain("Return JSON exactly in this shape");
+        assertThat(prompts.prompt("puckish", "fr", List.of()))
+                .contains("RESPONSE_LANGUAGE: fr\n")
+                .doesNotContain("TRANSLATION_TARGETS")
+                .doesNotContain("MUST be in English");
+    }
+
+    @Test
+    @DisplayName("the response schema requires every field, Front first, and each requested translation")
+    @SuppressWarnings("unchecked")
+    void schemaRequiresRequestedTranslations() {
+        Map<String, Object> schema = LookupPrompts.schema(List.of("ru", "de"));
+
+        Map<String, Object> properties = (Map<String, Object>) schema.get("properties");
+        assertThat(properties.keySet()).startsWith("Front").contains("Translations").doesNotContain("Metadata");
+        assertThat((List<String>) schema.get("required")).containsExactlyElementsOf(properties.keySet());
+
+        Map<String, Object> translations = (Map<String, Object>) properties.get("Translations");
+        assertThat((List<String>) translations.get("required")).containsExactly("ru", "de");
+        assertThat(((Map<String, Object>) LookupPrompts.schema(List.of()).get("properties"))).doesNotContainKey("Translations");
+    }
+}
@@ -0,0 +1,202 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.flashcardgroup.flashcard_backend.dto.LookupBatchDTO;
+import com.flashcardgroup.flashcard_backend.dto.LookupDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class LookupServiceTest {
+
+    private GeminiService geminiService;
+    private LookupStore lookupStore;
+    private SimpleMeterRegistry registry;
+    private LookupService lookupService;
+
+    @BeforeEach
+    void setUp() {
+        geminiService = mock(GeminiService.class);
+        lookupStore = mock(LookupStore.class);
+        when(lookupStore.find(any())).thenReturn(Optional.empty());
+        registry = new SimpleMeterRegistry();
+        lookupService = new LookupService(geminiService, lookupStore, registry, 100, Duration.ofHours(1), 2, 2);
+    }
+
+    private static LookupDTO dto(String back) {
+        Map<String, String> translations = new LinkedHashMap<>();
+        translations.put("de", "Hund");
+        translations.put("fr", "chien");
+        return new LookupDTO("a pet", back, "", "", "", "", "noun", "", translations);
+    }
+
+    @Test
+    @DisplayName("repeat lookups with equivalent settings are served from the cache")
+    void repeatLookupIsCached() throws Exception {
+        when(geminiService.lookup("dog", "en", List.of("de", "fr"))).thenReturn(dto("dog"));
+
+        lookupService.lookup("dog", "en", List.of("de", "fr"));
+        LookupDTO second = lookupService.lookup("  dog ", "EN", List.of("fr", "de"));
+
+        verify(geminiService, times(1)).lookup(anyString(), anyString(), anyList());
+        assertThat(second.Back()).isEqualTo("dog");
+        // Translations come back in the order this caller asked for
+        assertThat(second.Translations().keySet()).containsExactly("fr", "de");
+        assertThat(registry.get("cache.gets").tag("cache", "lookup").tag("result", "hit").functionCounter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("concurrent misses for one key share a single Gemini call")
+    void concurrentMissesAreCoalesced() throws Exception {
+        CountDownLatch called = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(geminiService.lookup(any(), any(), any())).thenAnswer(invocation -> {
+            called.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return dto("dog");
+        });
+
+        List<Thread> callers = new ArrayList<>();
+        List<LookupDTO> results = java.util.Collections.synchronizedList(new ArrayList<>());
+        for (int i = 0; i < 5; i++) {
+            callers.add(Thread.ofVirtual().start(() -> {
+                try {
+                    results.add(lookupService.lookup("dog", "en", List.of()));
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }));
+        }
+        assertThat(called.await(5, TimeUnit.SECONDS)).isTrue();
+        // Give the other callers time to join the in-flight call
+        Thread.sleep(100);
+        release.countDown();
+        for (Thread caller : callers) {
+            caller.join(5000);
+        }
+
+        verify(geminiService, times(1)).lookup(any(), any(), any());
+        assertThat(results).hasSize(5).allMatch(r -> r.Back().equals("dog"));
+        assertThat(registry.get("lookup.coalesced").counter().count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("failed lookups are not cached")
+    void failuresAreNotCached() throws Exception {
+        when(geminiService.lookup("dog", "en", List.of()))
+                .thenThrow(new IOException("Failed to parse Gemini response"))
+                .thenReturn(dto("dog"));
+
+        assertThatThrownBy(() -> lookupService.lookup("dog", "en", List.of())).isInstanceOf(IOException.class);
+        assertThat(lookupService.lookup("dog", "en", List.of()).Back()).isEqualTo("dog");
+
+        verify(geminiService, times(2)).lookup("dog", "en", List.of());
+    }
+
+    @Test
+    @DisplayName("a miss is answered from the shared store before Gemini, and Gemini results are stored")
+    void readsThroughStore() throws Exception {
+        LookupService.LookupKey stored = LookupService.LookupKey.of("dog", "en", List.of("de", "fr"));
+        when(lookupStore.findPartial(stored)).thenReturn(Optional.of(dto("dog")));
+        when(geminiService.lookup("cat", "en", List.of())).thenReturn(dto("cat"));
+
+        assertThat(lookupService.lookup("dog", "en", List.of("fr", "de")).Back()).isEqualTo("dog");
+        assertThat(lookupService.lookup("cat", "en", List.of()).Back()).isEqualTo("cat");
+
+        verify(geminiService, never()).lookup(eq("dog"), anyString(), anyList());
+        verify(lookupStore).save(eq(LookupService.LookupKey.of("cat", "en", List.of())), any());
+        verify(lookupStore, never()).save(eq(stored), any());
+    }
+
+    @Test
+    @DisplayName("batch lookups send only unknown words to Gemini, in groups")
+    void batchGroupsMisses() throws Exception {
+        when(lookupStore.find(LookupService.LookupKey.of("dog", "en", List.of()))).thenReturn(Optional.of(dto("dog")));
+        when(geminiService.lookupBatch(anyList(), eq("en"), eq(List.of()))).thenAnswer(invocation -> {
+            Map<String, LookupDTO> answers = new LinkedHashMap<>();
+            for (String word : invocation.<List<String>>getArgument(0)) {
+                answers.put(word, dto(word));
+            }
+            return answers;
+        });
+
+        LookupBatchDTO result = lookupService.lookupBatch(List.of("cat", "dog", "owl", "fox", "elk"), "en", List.of());
+
+        assertThat(result.Results().keySet()).containsExactly("cat", "dog", "owl", "fox", "elk");
+        assertThat(result.Failed()).isEmpty();
+        // four misses with a group size of two
+        verify(geminiService, times(2)).lookupBatch(anyList(), anyString(), anyList());
+        verify(geminiService, never()).lookupBatch(argThat(words -> words.contains("dog")), anyString(), anyList());
+        // results are cached like single lookups
+        assertThat(lookupService.lookup("owl", "en", List.of()).Back()).isEqualTo("owl");
+        verify(geminiService, never()).lookup(anyString(), anyString(), anyList());
+    }
+
+    @Test
+    @DisplayName("batch lookups return partial results when a group or an entry fails")
+    void batchReturnsPartialResults() throws Exception {
+        when(geminiService.lookupBatch(eq(List.of("cat", "dog")), anyString(), anyList()))
+                .thenReturn(Map.of("cat", dto("cat")));
+        when(geminiService.lookupBatch(eq(List.of("owl")), anyString(), anyList()))
+                .thenThrow(new IOException("Failed to parse Gemini batch response"));
+
+        LookupBatchDTO result = lookupService.lookupBatch(List.of("cat", "dog", "owl"), "en", List.of());
+
+        assertThat(result.Results()).containsOnlyKeys("cat");
+        assertThat(result.Failed()).containsExactly("dog", "owl");
+        verify(lookupStore, times(1)).save(any(), any());
+        assertThat(registry.get("lookup.batch.failed").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("streamed lookups replay cached results and cache streamed ones")
+    void streamUsesCache() throws Exception {
+        LookupStreamListener listener = mock(LookupStreamListener.class);
+        when(geminiService.lookupStream(eq("dog"), eq("en"), eq(List.of("de", "fr")), any())).thenReturn(dto("dog"));
+
+        lookupService.lookupStream("dog", "en", List.of("de", "fr"), listener);
+        LookupDTO second = lookupService.lookupStream("dog", "en", List.of("fr", "de"), listener);
+
+        assertThat(second.Translations().keySet()).containsExactly("fr", "de");
+        verify(geminiService, times(1)).lookupStream(any(), any(), any(), any());
+        verify(lookupStore).save(eq(LookupService.LookupKey.of("dog", "en", List.of("de", "fr"))), any());
+        // The second call was answered from the cache, field by field
+        verify(listener).onField("Front", "a pet");
+        verify(listener).onTranslation("fr", "chien");
+    }
+
+    @Test
+    @DisplayName("a stored card missing some languages only asks Gemini for those translations")
+    void missingLanguagesAreTranslatedOnly() throws Exception {
+        LookupService.LookupKey key = LookupService.LookupKey.of("dog", "en", List.of("de", "es", "fr"));
+        when(lookupStore.findPartial(key)).thenReturn(Optional.of(dto("dog")));
+        when(geminiService.translate("dog", "a pet", List.of("es"))).thenReturn(Map.of("es", "perro"));
+
+        LookupDTO result = lookupService.lookup("dog", "en", List.of("es", "de", "fr"));
+
+        assertThat(result.Front()).isEqualTo("a pet");
+        assertThat(result.Translations()).containsExactly(
+                Map.entry("es", "perro"), Map.entry("de", "Hund"), Map.entry("fr", "chien"));
+        verify(geminiService, never()).lookup(anyString(), anyString(), anyList());
+        verify(lookupStore).save(eq(key), argThat(dto -> dto.Translations().size() == 3));
+        assertThat(registry.get("lookup.delta").counter().count()).isEqualTo(1);
+    }
+}
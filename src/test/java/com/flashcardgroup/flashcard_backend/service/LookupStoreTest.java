@@ -0,0 +1,99 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.flashcardgroup.flashcard_backend.dto.LookupDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class LookupStoreTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private LookupStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new LookupStore(jdbcTemplate, registry);
+    }
+
+    private static LookupDTO dog(Map<String, String> translations) {
+        return new LookupDTO("a pet", "dog", "", "The dog barks.", "1", "hound", "noun", "", translations);
+    }
+
+    @Test
+    @DisplayName("a stored result is found for any subset of its translation languages")
+    void findsStoredLanguages() {
+        Map<String, String> translations = new LinkedHashMap<>();
+        translations.put("de", "Hund");
+        translations.put("fr", "chien");
+        store.save(LookupService.LookupKey.of("dog", "en", List.of("de", "fr")), dog(translations));
+
+        LookupDTO both = store.find(LookupService.LookupKey.of("dog", "en", List.of("fr", "de"))).orElseThrow();
+        assertThat(both.Front()).isEqualTo("a pet");
+        assertThat(both.Translations()).containsExactlyInAnyOrderEntriesOf(translations);
+
+        assertThat(store.find(LookupService.LookupKey.of("dog", "en", List.of()))).isPresent();
+        assertThat(store.find(LookupService.LookupKey.of("dog", "en", List.of("de")))
+                .orElseThrow().Translations()).containsOnlyKeys("de");
+    }
+
+    @Test
+    @DisplayName("contains agrees with find but leaves the hit and miss counters alone")
+    void containsWithoutMetrics() {
+        store.save(LookupService.LookupKey.of("dog", "en", List.of("de")), dog(Map.of("de", "Hund")));
+
+        assertThat(store.contains(LookupService.LookupKey.of("dog", "en", List.of()))).isTrue();
+        assertThat(store.contains(LookupService.LookupKey.of("dog", "en", List.of("de")))).isTrue();
+        assertThat(store.contains(LookupService.LookupKey.of("dog", "en", List.of("de", "es")))).isFalse();
+        assertThat(store.contains(LookupService.LookupKey.of("cat", "en", List.of()))).isFalse();
+        assertThat(registry.find("lookup.store").counters())
+                .allSatisfy(counter -> assertThat(counter.count()).isZero());
+    }
+
+    @Test
+    @DisplayName("a missing translation language, response language or word is a miss")
+    void missingRowsAreMisses() {
+        store.save(LookupService.LookupKey.of("dog", "en", List.of("de")), dog(Map.of("de", "Hund")));
+
+        assertThat(store.find(LookupService.LookupKey.of("dog", "en", List.of("de", "es")))).isEmpty();
+        assertThat(store.find(LookupService.LookupKey.of("dog", "es", List.of()))).isEmpty();
+        assertThat(store.find(LookupService.LookupKey.of("Dog", "en", List.of()))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("saving again only adds the rows that are missing")
+    void saveIsIdempotent() {
+        store.save(LookupService.LookupKey.of("dog", "en", List.of("de")), dog(Map.of("de", "Hund")));
+        store.save(LookupService.LookupKey.of("dog", "en", List.of("de", "es")), dog(Map.of("de", "Hündchen", "es", "perro")));
+
+        LookupDTO result = store.find(LookupService.LookupKey.of("dog", "en", List.of("de", "es"))).orElseThrow();
+        assertThat(result.Translations()).containsEntry("de", "Hund").containsEntry("es", "perro");
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM lookup_entries", Integer.class)).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("findPartial returns the card with whichever requested languages are stored")
+    void findPartialReturnsStoredLanguages() {
+        store.save(LookupService.LookupKey.of("dog", "en", List.of("de")), dog(Map.of("de", "Hund")));
+
+        LookupDTO partial = store.findPartial(LookupService.LookupKey.of("dog", "en", List.of("de", "es"))).orElseThrow();
+        assertThat(partial.Front()).isEqualTo("a pet");
+        assertThat(partial.Translations()).containsOnlyKeys("de");
+        assertThat(store.findPartial(LookupService.LookupKey.of("cat", "en", List.of("de")))).isEmpty();
+    }
+}
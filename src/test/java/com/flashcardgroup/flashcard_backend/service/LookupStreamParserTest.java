@@ -0,0 +1,81 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.flashcardgroup.flashcard_backend.dto.LookupDTO;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LookupStreamParserTest {
+
+    private static final String RESPONSE = "```json\n{\n" +
+            "  \"Front\": \"a domesticated canine — loyal\",\n" +
+            "  \"Back\": \"dog\",\n" +
+            "  \"Metadata\": \"ignored\",\n" +
+            "  \"Example\": \"The dog barks.\",\n" +
+            "  \"OccurrenceIndices\": \"1\",\n" +
+            "  \"Synonyms\": \"hound; pooch\",\n" +
+            "  \"PartOfSpeech\": \"noun\",\n" +
+            "  \"Classifiers\": \"\",\n" +
+            "  \"Translations\": {\"de\": \"Hund\", \"fr\": \"chien\"}\n" +
+            "}\n```";
+
+    private final List<String> events = new ArrayList<>();
+
+    private final LookupStreamListener recorder = new LookupStreamListener() {
+        @Override
+        public void onField(String field, String value) {
+            events.add(field + "=" + value);
+        }
+
+        @Override
+        public void onTranslation(String language, String value) {
+            events.add(language + ":" + value);
+        }
+    };
+
+    @Test
+    @DisplayName("fields are reported as soon as they are complete, whatever the chunk boundaries")
+    void reportsFieldsIncrementally() throws IOException {
+        LookupStreamParser parser = new LookupStreamParser(new ObjectMapper(), recorder);
+
+        // Split inside the code fence, inside a key and inside a value
+        int frontEnd = RESPONSE.indexOf("\"Back\"");
+        parser.feed(RESPONSE.substring(0, 5));
+        parser.feed(RESPONSE.substring(5, 20));
+        parser.feed(RESPONSE.substring(20, frontEnd - 10));
+        assertThat(events).isEmpty();
+
+        parser.feed(RESPONSE.substring(frontEnd - 10, frontEnd));
+        assertThat(events).containsExactly("Front=a domesticated canine — loyal");
+
+        for (int i = frontEnd; i < RESPONSE.length(); i += 7) {
+            parser.feed(RESPONSE.substring(i, Math.min(i + 7, RESPONSE.length())));
+        }
+        assertThat(events).containsExactly(
+                "Front=a domesticated canine — loyal", "Back=dog", "Example=The dog barks.", "OccurrenceIndices=1",
+                "Synonyms=hound; pooch", "PartOfSpeech=noun", "Classifiers=", "de:Hund", "fr:chien");
+
+        LookupDTO result = parser.finish("dog");
+        assertThat(result.Front()).isEqualTo("a domesticated canine — loyal");
+        assertThat(result.Metadata()).isEmpty();
+        assertThat(result.Translations()).containsExactly(
+                java.util.Map.entry("de", "Hund"), java.util.Map.entry("fr", "chien"));
+    }
+
+    @Test
+    @DisplayName("a stream that ends mid-object is a parse failure")
+    void truncatedStreamFails() throws IOException {
+        LookupStreamParser parser = new LookupStreamParser(new ObjectMapper(), recorder);
+        parser.feed(RESPONSE.substring(0, RESPONSE.indexOf("\"Example\"")));
+
+        assertThat(events).containsExactly("Front=a domesticated canine — loyal", "Back=dog");
+        assertThatThrownBy(() -> parser.finish("dog")).isInstanceOf(IOException.class);
+    }
+}
@@ -0,0 +1,105 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.flashcardgroup.flashcard_backend.model.Deck;
+import com.flashcardgroup.flashcard_backend.model.Flashcard;
+import com.flashcardgroup.flashcard_backend.model.User;
+import com.flashcardgroup.flashcard_backend.scheduling.SchedulingAlgorithm;
+import com.flashcardgroup.flashcard_backend.scheduling.Sm2Algorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ReschedulingJobTest {
+
+    private static final long REVIEWED_AT = 1_700_000_000L;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private ReschedulingJob job;
+
+    @AfterEach
+    void tearDown() {
+        if (job != null) {
+            job.shutdown();
+        }
+    }
+
+    private Flashcard card(Deck deck, String back) {
+        Flashcard card = new Flashcard();
+        card.setDeck(deck);
+        card.setFront("front of " + back);
+        card.setBack(back);
+        card.setStage(1);
+        card.setLastReviewed(REVIEWED_AT);
+        // Ten-day interval: SM-2 schedules it ten days out, Leitner stage 1 only one
+        card.setStability(10.0);
+        return em.persist(card);
+    }
+
+    private Long nextReviewAt(Flashcard card) {
+        return jdbcTemplate.queryForObject("SELECT next_review_at FROM flashcards WHERE cardid = ?", Long.class, card.getCardId());
+    }
+
+    @Test
+    @DisplayName("switching a deck's algorithm reschedules exactly its cards, however scattered their ids are")
+    void reschedulesScatteredDeck() {
+        User user = em.persist(new User(null, "alice", "alice@example.com", "hash"));
+        Deck switched = em.persist(new Deck(null, user, "Switched", "Description"));
+        Deck other = em.persist(new Deck(null, user, "Other", "Description"));
+
+        // Interleaved inserts leave the switched deck with a non-contiguous id set
+        List<Flashcard> switchedCards = new ArrayList<>();
+        List<Flashcard> otherCards = new ArrayList<>();
+        String pattern = "SOOSOSSOOOS";
+        for (int i = 0; i < pattern.length(); i++) {
+            if (pattern.charAt(i) == 'S') {
+                switchedCards.add(card(switched, "s" + i));
+            } else {
+                otherCards.add(card(other, "o" + i));
+            }
+        }
+        em.flush();
+        long leitnerDue = REVIEWED_AT + SchedulingAlgorithm.DAY;
+        assertThat(switchedCards).allSatisfy(card -> assertThat(nextReviewAt(card)).isEqualTo(leitnerDue));
+
+        job = new ReschedulingJob(jdbcTemplate, transactionTemplate, 2, 2);
+        int rescheduled = job.run(switched.getDeckId(), Sm2Algorithm.INSTANCE, true);
+
+        assertThat(rescheduled).isEqualTo(switchedCards.size());
+        assertThat(switchedCards).allSatisfy(card ->
+                assertThat(nextReviewAt(card)).isEqualTo(REVIEWED_AT + 10 * SchedulingAlgorithm.DAY));
+        assertThat(otherCards).allSatisfy(card -> assertThat(nextReviewAt(card)).isEqualTo(leitnerDue));
+    }
+
+    @Test
+    @DisplayName("a deck without cards reschedules nothing")
+    void emptyDeck() {
+        User user = em.persist(new User(null, "bob", "bob@example.com", "hash"));
+        Deck deck = em.persist(new Deck(null, user, "Empty", "Description"));
+        em.flush();
+
+        job = new ReschedulingJob(jdbcTemplate, transactionTemplate, 2, 2);
+
+        assertThat(job.run(deck.getDeckId(), Sm2Algorithm.INSTANCE, true)).isZero();
+    }
+}
@@ -0,0 +1,63 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.transaction.TestTransaction;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * ReviewEventBuffer against the real review_events table: events recorded in a transaction are only
+ * queued once it commits, and a flush writes them with a single multi-row INSERT.
+ */
+@DataJpaTest
+@ActiveProfiles("test")
+class ReviewEventBufferJdbcTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ReviewEventBuffer buffer;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (buffer != null) {
+            buffer.shutdown();
+        }
+        jdbcTemplate.update("DELETE FROM review_events");
+    }
+
+    @Test
+    @DisplayName("a flush writes the committed events with one multi-row insert")
+    void flushWritesOneMultiRowInsert() {
+        JdbcTemplate spied = spy(jdbcTemplate);
+        buffer = new ReviewEventBuffer(spied, new SimpleMeterRegistry(), 100, 50, 3_600_000, 50);
+
+        buffer.record(1, true, 100);
+        buffer.record(2, false, 200);
+        buffer.record(3, true, 300);
+        assertThat(buffer.flush()).as("nothing is queued before commit").isZero();
+
+        TestTransaction.flagForCommit();
+        TestTransaction.end();
+
+        assertThat(buffer.flush()).isEqualTo(3);
+        verify(spied, times(1)).update(anyString(), any(Object[].class));
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT cardid, remembered, reviewed_at FROM review_events ORDER BY cardid");
+        assertThat(rows).extracting(row -> row.get("REVIEWED_AT")).containsExactly(100L, 200L, 300L);
+        assertThat(rows).extracting(row -> row.get("REMEMBERED")).containsExactly(true, false, true);
+    }
+}
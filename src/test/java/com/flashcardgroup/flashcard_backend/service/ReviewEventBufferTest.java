@@ -0,0 +1,155 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ReviewEventBufferTest {
+
+    private static final long NEVER = 3_600_000;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<ReviewEventBuffer> buffers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        reset(jdbcTemplate);
+        for (ReviewEventBuffer buffer : buffers) {
+            buffer.shutdown();
+        }
+    }
+
+    private ReviewEventBuffer buffer(int capacity, int batchSize, long flushIntervalMs, long offerTimeoutMs) {
+        ReviewEventBuffer buffer = new ReviewEventBuffer(jdbcTemplate, registry, capacity, batchSize, flushIntervalMs, offerTimeoutMs);
+        buffers.add(buffer);
+        return buffer;
+    }
+
+    private static String insertOf(int rows) {
+        StringBuilder sql = new StringBuilder("INSERT INTO review_events (cardid, remembered, reviewed_at) VALUES ");
+        for (int i = 0; i < rows; i++) {
+            sql.append(i == 0 ? "(?, ?, ?)" : ", (?, ?, ?)");
+        }
+        return sql.toString();
+    }
+
+    private double count(String name) {
+        return registry.get(name).counter().count();
+    }
+
+    private double buffered() {
+        return registry.get("review_events.buffer.size").gauge().value();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    @DisplayName("a full batch is flushed right away in one multi-row insert")
+    void flushesOnBatchSize() {
+        ReviewEventBuffer buffer = buffer(100, 3, NEVER, 50);
+
+        buffer.record(1, true, 100);
+        buffer.record(2, false, 101);
+        verify(jdbcTemplate, after(100).never()).update(anyString(), any(Object[].class));
+
+        buffer.record(3, true, 102);
+
+        verify(jdbcTemplate, timeout(2_000)).update(insertOf(3), new Object[]{1, true, 100L, 2, false, 101L, 3, true, 102L});
+    }
+
+    @Test
+    @DisplayName("events below the batch size are flushed on the timer")
+    void flushesOnTimer() throws InterruptedException {
+        buffer(100, 50, 50, 50).record(7, true, 100);
+
+        verify(jdbcTemplate, timeout(2_000)).update(insertOf(1), new Object[]{7, true, 100L});
+        await(() -> count("review_events.flushed") == 1);
+    }
+
+    @Test
+    @DisplayName("a failed flush puts the events back for the next attempt")
+    void requeuesFailedFlush() {
+        ReviewEventBuffer buffer = buffer(100, 50, NEVER, 50);
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("database down"))
+                .thenReturn(2);
+        buffer.record(1, true, 100);
+        buffer.record(2, true, 101);
+
+        assertThat(buffer.flush()).isZero();
+        assertThat(count("review_events.flush.failures")).isEqualTo(1);
+        assertThat(buffered()).isEqualTo(2);
+
+        assertThat(buffer.flush()).isEqualTo(2);
+        // Order is kept: the retried insert carries the events as they were recorded
+        verify(jdbcTemplate, times(2)).update(insertOf(2), new Object[]{1, true, 100L, 2, true, 101L});
+        assertThat(buffered()).isZero();
+        assertThat(count("review_events.dropped")).isZero();
+    }
+
+    @Test
+    @DisplayName("when the buffer stays full, producers wait briefly and then drop and count the event")
+    void dropsUnderBackpressure() throws InterruptedException {
+        ReviewEventBuffer buffer = buffer(2, 50, NEVER, 20);
+        when(jdbcTemplate.update(anyString(), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("database down"));
+        buffer.record(1, true, 100);
+        buffer.record(2, true, 101);
+
+        buffer.record(3, true, 102);
+
+        assertThat(count("review_events.backpressure")).isEqualTo(1);
+        // Either the new event or one put back by the failed flush it triggered has no room
+        await(() -> count("review_events.dropped") == 1 && count("review_events.flush.failures") == 1);
+        assertThat(buffered()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("shutdown drains everything still buffered")
+    void shutdownDrains() throws InterruptedException {
+        ReviewEventBuffer buffer = buffer(100, 50, NEVER, 50);
+        for (int i = 0; i < 5; i++) {
+            buffer.record(i, true, 100 + i);
+        }
+        verify(jdbcTemplate, never()).update(anyString(), any(Object[].class));
+
+        buffer.shutdown();
+
+        verify(jdbcTemplate).update(eq(insertOf(5)), any(Object[].class));
+        assertThat(count("review_events.flushed")).isEqualTo(5);
+        assertThat(buffered()).isZero();
+    }
+
+    @Test
+    @DisplayName("a flush requested while the flusher is shut down is dropped instead of failing the caller")
+    void flushRequestAfterShutdownDoesNotThrow() throws InterruptedException {
+        ReviewEventBuffer buffer = buffer(100, 2, NEVER, 50);
+        buffer.shutdown();
+
+        for (int i = 0; i < 4; i++) {
+            buffer.record(i, true, 100 + i);
+        }
+
+        verify(jdbcTemplate, after(100).never()).update(anyString(), any(Object[].class));
+        assertThat(buffered()).isEqualTo(4);
+    }
+}
@@ -0,0 +1,143 @@
+package com.flashcardgroup.flashcard_backend.service;
+
+import com.flashcardgroup.flashcard_backend.exception.BulkheadFullException;
+import com.flashcardgroup.flashcard_backend.exception.ImageNotModifiedException;
+import com.flashcardgroup.flashcard_backend.resilience.Bulkhead;
+import com.flashcardgroup.flashcard_backend.resilience.Bulkheads;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.awscore.exception.AwsErrorDetails;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.http.AbortableInputStream;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class S3ImageStorageServiceTest {
+
+    private static final Instant MODIFIED = Instant.parse("2025-01-01T00:00:00Z");
+
+    private final S3Client s3Client = mock(S3Client.class);
+    private Bulkhead bulkhead;
+    private Bulkhead downloads;
+    private S3ImageStorageService service;
+
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("app.bulkhead.s3-downloads.max-concurrent", "1")
+                .withProperty("app.bulkhead.s3-downloads.max-wait", "0s");
+        Bulkheads bulkheads = new Bulkheads(environment, new SimpleMeterRegistry());
+        bulkhead = bulkheads.get(Bulkheads.S3);
+        downloads = bulkheads.get(Bulkheads.S3_DOWNLOADS);
+        service = new S3ImageStorageService(s3Client, bulkheads);
+        ReflectionTestUtils.setField(service, "bucketName", "bucket");
+    }
+
+    private static ResponseInputStream<GetObjectResponse> object(String body, AtomicBoolean aborted) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        InputStream in = new ByteArrayInputStream(bytes);
+        return new ResponseInputStream<>(
+                GetObjectResponse.builder().contentType("image/png").contentLength((long) bytes.length).eTag("\"abc\"").build(),
+                AbortableInputStream.create(in, () -> aborted.set(true)));
+    }
+
+    @Test
+    @DisplayName("conditional headers are sent with the GetObject request")
+    void passesConditionsToS3() {
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(object("PNGDATA", new AtomicBoolean()));
+
+        service.openImage("cards/1.png", "bytes=0-2", "\"abc\"", MODIFIED).close();
+
+        ArgumentCaptor<GetObjectRequest> request = ArgumentCaptor.forClass(GetObjectRequest.class);
+        verify(s3Client).getObject(request.capture());
+        assertThat(request.getValue().range()).isEqualTo("bytes=0-2");
+        assertThat(request.getValue().ifNoneMatch()).isEqualTo("\"abc\"");
+        assertThat(request.getValue().ifModifiedSince()).isEqualTo(MODIFIED);
+    }
+
+    @Test
+    @DisplayName("S3's 304 becomes ImageNotModifiedException carrying its validators")
+    void notModified() {
+        SdkHttpResponse notModified = SdkHttpResponse.builder()
+                .statusCode(304)
+                .putHeader("ETag", "\"abc\"")
+                .putHeader("Last-Modified", "Wed, 01 Jan 2025 00:00:00 GMT")
+                .build();
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenThrow(S3Exception.builder()
+                .statusCode(304)
+                .awsErrorDetails(AwsErrorDetails.builder().sdkHttpResponse(notModified).build())
+                .build());
+
+        assertThatThrownBy(() -> service.openImage("cards/1.png", null, "\"abc\"", null))
+                .isInstanceOfSatisfying(ImageNotModifiedException.class, e -> {
+                    assertThat(e.getETag()).isEqualTo("\"abc\"");
+                    assertThat(e.getLastModified()).isEqualTo(MODIFIED);
+                });
+        assertThat(bulkhead.activeCalls()).isZero();
+        assertThat(downloads.activeCalls()).isZero();
+    }
+
+    @Test
+    @DisplayName("the S3 slot is freed once S3 has answered, the download slot only when the body is closed")
+    void holdsDownloadSlotWhileBodyIsOpen() throws Exception {
+        AtomicBoolean aborted = new AtomicBoolean();
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(object("PNGDATA", aborted));
+
+        ImageStorageService.ImageContent image = service.openImage("cards/1.png", null, null, null);
+
+        assertThat(bulkhead.activeCalls()).isZero();
+        assertThat(downloads.activeCalls()).isEqualTo(1);
+        assertThat(image.content().read()).isEqualTo('P');
+        image.close();
+        // Closed before the end: the rest of the object is not downloaded
+        assertThat(aborted).isTrue();
+        assertThat(downloads.activeCalls()).isZero();
+    }
+
+    @Test
+    @DisplayName("with every download slot taken by an open body, another download is refused without calling S3")
+    void refusesDownloadWhenSlotsAreTaken() {
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(object("PNGDATA", new AtomicBoolean()));
+        ImageStorageService.ImageContent open = service.openImage("cards/1.png", null, null, null);
+
+        assertThatThrownBy(() -> service.openImage("cards/2.png", null, null, null))
+                .isInstanceOf(BulkheadFullException.class);
+        verify(s3Client, times(1)).getObject(any(GetObjectRequest.class));
+
+        open.close();
+        service.openImage("cards/2.png", null, null, null).close();
+        assertThat(downloads.activeCalls()).isZero();
+    }
+
+    @Test
+    @DisplayName("a body read to the end is closed without aborting the connection")
+    void fullyReadBodyIsNotAborted() throws Exception {
+        AtomicBoolean aborted = new AtomicBoolean();
+        when(s3Client.getObject(any(GetObjectRequest.class))).thenReturn(object("PNGDATA", aborted));
+
+        try (ImageStorageService.ImageContent image = service.openImage("cards/1.png", null, null, null)) {
+            assertThat(image.content().readAllBytes()).asString(StandardCharsets.UTF_8).isEqualTo("PNGDATA");
+        }
+
+        assertThat(aborted).isFalse();
+    }
+}